@@ -0,0 +1,58 @@
+package board;
+
+import entities.Party;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of a LegendsBoard, written to a discarding stream so only
+ * the formatting and PrintStream overhead is measured.
+ * renderDiff moves the party one square per call, the common case between turns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardRenderBenchmark {
+
+    @Param({"8", "20"})
+    private int size;
+
+    private LegendsBoard board;
+    private Party party;
+    private PrintStream nullOut;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        board = new LegendsBoard(size);
+        party = new Party();
+        party.setLocation(size / 2, size / 2);
+        board.setParty(party);
+
+        originalOut = System.out;
+        nullOut = new PrintStream(OutputStream.nullOutputStream());
+        System.setOut(nullOut);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void printBoard() {
+        board.printBoard();
+    }
+
+    @Benchmark
+    public void renderDiff() {
+        party.setLocation(size / 2, (party.getCol() + 1) % size);
+        board.getRenderer().renderDiff(nullOut);
+    }
+}
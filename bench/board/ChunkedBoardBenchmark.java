@@ -0,0 +1,64 @@
+package board;
+
+import entities.Party;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open-world board costs: reading a cell from a loaded chunk, generating a new chunk,
+ * and a party walking east across a 10,000 x 10,000 world with a small chunk budget.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkedBoardBenchmark {
+
+    private static final int WORLD = 10_000;
+
+    private ChunkedBoard board;
+    private Party party;
+    private int step;
+    private long nextSeed;
+
+    @Setup
+    public void setup() {
+        board = new ChunkedBoard(WORLD, WORLD, 42, 16);
+        party = new Party();
+        party.setLocation(WORLD / 2, 0);
+        board.trackParty(party);
+        board.getCellType(0, 0);
+    }
+
+    @Benchmark
+    public CellType readLoadedCell() {
+        step = (step + 7) & (ChunkedBoard.CHUNK_SIZE - 1);
+        return board.getCellType(step, ChunkedBoard.CHUNK_SIZE - 1 - step);
+    }
+
+    @Benchmark
+    public CellType generateChunk() {
+        return new ChunkedBoard(WORLD, WORLD, nextSeed++, 1).getCellType(WORLD / 2, WORLD / 2);
+    }
+
+    /**
+     * One step of the party, reading the 3x3 neighbourhood as a movement check would.
+     */
+    @Benchmark
+    public int walk() {
+        int col = (party.getCol() + 1) % WORLD;
+        party.setLocation(WORLD / 2, col);
+        int accessible = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                int r = WORLD / 2 + dr;
+                int c = col + dc;
+                if (board.isValidCoordinate(r, c) && board.getCellType(r, c) != CellType.INACCESSIBLE) accessible++;
+            }
+        }
+        return accessible;
+    }
+}
@@ -0,0 +1,90 @@
+package board;
+
+import common.RandomGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Which way to the nearest market?" for a bot on a 20x20 board: one BFS per move
+ * vs a lookup in the precomputed MarketDistanceField, plus the cost of a cell change.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarketNavigationBenchmark {
+
+    private static final int SIZE = 20;
+
+    private LegendsBoard board;
+    private int position;
+    private boolean toggle;
+
+    @Setup
+    public void setup() {
+        board = new LegendsBoard(SIZE, new RandomGenerator(3));
+    }
+
+    private int nextPosition() {
+        position = (position + 37) % (SIZE * SIZE);
+        return position;
+    }
+
+    @Benchmark
+    public int distanceFieldStep() {
+        int i = nextPosition();
+        return board.getMarketDistances().nextStep(i / SIZE, i % SIZE);
+    }
+
+    @Benchmark
+    public int bfsStep() {
+        int i = nextPosition();
+        return bfsFirstStep(i / SIZE, i % SIZE);
+    }
+
+    /**
+     * Opens or closes one wall cell per call, exercising the incremental update.
+     */
+    @Benchmark
+    public MarketDistanceField cellChange() {
+        toggle = !toggle;
+        board.setCellType(SIZE / 2, SIZE / 2, toggle ? CellType.INACCESSIBLE : CellType.COMMON);
+        return board.getMarketDistances();
+    }
+
+    // The per-move search a bot would otherwise run
+    private int bfsFirstStep(int row, int col) {
+        int start = row * SIZE + col;
+        if (!board.getCell(row, col).isAccessible() || board.getCell(row, col).isMarket()) return -1;
+
+        int[] firstStep = new int[SIZE * SIZE];
+        Arrays.fill(firstStep, -2);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        firstStep[start] = -1;
+        queue.add(start);
+
+        int[] dr = {-1, 1, 0, 0};
+        int[] dc = {0, 0, -1, 1};
+        while (!queue.isEmpty()) {
+            int i = queue.poll();
+            for (int d = 0; d < 4; d++) {
+                int r = i / SIZE + dr[d];
+                int c = i % SIZE + dc[d];
+                if (!board.isValidCoordinate(r, c) || firstStep[r * SIZE + c] != -2) continue;
+                Cell cell = board.getCell(r, c);
+                if (!cell.isAccessible()) continue;
+
+                int n = r * SIZE + c;
+                firstStep[n] = (i == start) ? n : firstStep[i];
+                if (cell.isMarket()) return firstStep[n];
+                queue.add(n);
+            }
+        }
+        return -1;
+    }
+}
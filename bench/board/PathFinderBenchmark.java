@@ -0,0 +1,81 @@
+package board;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-to-point shortest paths on random grids (20% walls) from 20x20 up to 4096x4096:
+ * A* vs jump point search, and a repeated query served from the path cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PathFinderBenchmark {
+
+    private static final int QUERIES = 64;
+
+    @Param({"20", "256", "1024", "4096"})
+    private int size;
+
+    private PathFinder pathFinder;
+    private PathFinder cachedPathFinder;
+    private int[] starts;
+    private int[] goals;
+    private int[] path;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(15);
+        byte[] cells = new byte[size * size];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) (random.nextDouble() < 0.20 ? CellType.INACCESSIBLE : CellType.COMMON).ordinal();
+        }
+        pathFinder = new PathFinder(cells, size, size, () -> 0, 0);
+        cachedPathFinder = new PathFinder(cells, size, size, () -> 0, 4 * QUERIES);
+
+        // Query pairs between opposite corners' neighbourhoods, so paths span the whole grid
+        starts = new int[QUERIES];
+        goals = new int[QUERIES];
+        path = new int[size * size];
+        for (int q = 0; q < QUERIES; q++) {
+            int start, goal;
+            do {
+                start = random.nextInt(size / 4 + 1) * size + random.nextInt(size / 4 + 1);
+                goal = (size - 1 - random.nextInt(size / 4 + 1)) * size + (size - 1 - random.nextInt(size / 4 + 1));
+            } while (pathFinder.findPath(start / size, start % size, goal / size, goal % size, path) < 0);
+            starts[q] = start;
+            goals[q] = goal;
+        }
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public int aStar() {
+        int q = nextQuery();
+        return pathFinder.findPath(starts[q] / size, starts[q] % size, goals[q] / size, goals[q] % size,
+                PathFinder.Algorithm.A_STAR, path);
+    }
+
+    @Benchmark
+    public int jumpPoint() {
+        int q = nextQuery();
+        return pathFinder.findPath(starts[q] / size, starts[q] % size, goals[q] / size, goals[q] % size,
+                PathFinder.Algorithm.JUMP_POINT, path);
+    }
+
+    @Benchmark
+    public int cached() {
+        int q = nextQuery();
+        return cachedPathFinder.findPath(starts[q] / size, starts[q] % size, goals[q] / size, goals[q] % size, path);
+    }
+}
@@ -0,0 +1,102 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import entities.Party;
+import items.Spell;
+import items.Spell.SpellType;
+import items.Weapon;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Damage resolution in the BattleEngine (the rules behind BattleController).
+ * HP and mana are topped up on every call so each invocation resolves a full hit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatBenchmark {
+
+    private static final double BOTTOMLESS_HP = 1e12;
+
+    private BattleEngine engine;
+    private BattlePolicy policy;
+    private BattleResult result;
+
+    private Party party;
+    private Hero attacker;
+    private Spell spell;
+    private List<Monster> enemies;
+    private List<Monster> catalog;
+
+    @Setup
+    public void setup() {
+        catalog = Arrays.asList(
+                new Monster("Desghidorrah", MonsterType.DRAGON, 3, 300, 400, 35),
+                new Monster("Cyrrollalee", MonsterType.EXOSKELETON, 7, 700, 800, 75),
+                new Monster("Andrealphus", MonsterType.SPIRIT, 2, 600, 500, 40));
+        engine = new BattleEngine(catalog, new RandomGenerator(42), 200);
+        policy = new AutoBattlePolicy();
+        result = new BattleResult(3);
+
+        party = newParty();
+        attacker = party.getHero(0);
+        attacker.equipWeapon(new Weapon("Sword", 500, 1, 800, 1));
+        spell = new Spell("Ice_Blade", 250, 1, 450, 100, SpellType.ICE);
+
+        enemies = new ArrayList<>();
+        for (Monster template : catalog) {
+            enemies.add(new Monster(template.getName(), template.getType(), template.getLevel(),
+                    template.getBaseDamage(), template.getDefense(), template.getRawDodgeChance()));
+        }
+    }
+
+    private static Party newParty() {
+        Party p = new Party();
+        p.addHero(new Hero("Gaerdal_Ironhand", HeroType.WARRIOR, 100, 700, 500, 600, 1354, 7));
+        p.addHero(new Hero("Rillifane_Rallathil", HeroType.SORCERER, 1300, 750, 450, 500, 2500, 9));
+        p.addHero(new Hero("Parzival", HeroType.PALADIN, 300, 750, 650, 700, 2500, 7));
+        return p;
+    }
+
+    private void healEnemies() {
+        for (Monster m : enemies) m.setHp(BOTTOMLESS_HP);
+    }
+
+    @Benchmark
+    public boolean performAttack() {
+        healEnemies();
+        return engine.performAttack(attacker, enemies, policy, BattleEventSink.NONE, result);
+    }
+
+    @Benchmark
+    public boolean performSpell() {
+        healEnemies();
+        attacker.setMana(1000);
+        attacker.getInventory().addItem(spell);
+        return engine.performSpell(attacker, enemies, policy, BattleEventSink.NONE, result);
+    }
+
+    @Benchmark
+    public Party processMonstersTurn() {
+        for (Hero h : party.getHeroes()) h.setHp(BOTTOMLESS_HP);
+        engine.processMonstersTurn(party, enemies, BattleEventSink.NONE, result);
+        return party;
+    }
+
+    @Benchmark
+    public BattleResult fullBattle() {
+        return engine.startBattle(newParty(), policy, BattleEventSink.NONE);
+    }
+}
@@ -0,0 +1,77 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import entities.Party;
+import items.Armor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raid-sized monster phase: BattleEngine over Monster/Hero objects vs CombatState over primitive arrays.
+ * Heroes are topped up before each call so every monster resolves a full attack.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatStateBenchmark {
+
+    private static final double BOTTOMLESS_HP = 1e12;
+
+    @Param({"100", "1000"})
+    public int monsters;
+
+    private BattleEngine engine;
+    private BattleResult result;
+    private Party party;
+    private List<Monster> enemies;
+
+    private CombatState state;
+    private RandomGenerator rng;
+
+    @Setup
+    public void setup() {
+        party = new Party();
+        party.addHero(new Hero("Gaerdal_Ironhand", HeroType.WARRIOR, 100, 700, 500, 600, 1354, 7));
+        party.addHero(new Hero("Rillifane_Rallathil", HeroType.SORCERER, 1300, 750, 450, 500, 2500, 9));
+        party.addHero(new Hero("Parzival", HeroType.PALADIN, 300, 750, 650, 700, 2500, 7));
+        party.getHero(0).equipArmor(new Armor("Platinum_Shield", 150, 1, 200));
+
+        RandomGenerator setupRng = new RandomGenerator(7);
+        enemies = new ArrayList<>(monsters);
+        for (int i = 0; i < monsters; i++) {
+            enemies.add(new Monster("Monster_" + i, MonsterType.DRAGON, 5,
+                    100 + setupRng.nextInt(900), 400, 35));
+        }
+
+        engine = new BattleEngine(enemies, new RandomGenerator(42), 0);
+        result = new BattleResult(monsters);
+
+        for (Hero h : party.getHeroes()) h.setHp(BOTTOMLESS_HP);
+        state = CombatState.of(party.getHeroes(), enemies);
+        rng = new RandomGenerator(42);
+    }
+
+    @Benchmark
+    public Party objectMonstersTurn() {
+        for (Hero h : party.getHeroes()) h.setHp(BOTTOMLESS_HP);
+        engine.processMonstersTurn(party, enemies, BattleEventSink.NONE, result);
+        return party;
+    }
+
+    @Benchmark
+    public double arrayMonstersTurn() {
+        Arrays.fill(state.heroHp, BOTTOMLESS_HP);
+        return state.resolveMonstersTurn(rng);
+    }
+}
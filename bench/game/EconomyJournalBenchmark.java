@@ -0,0 +1,103 @@
+package game;
+
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Party;
+import items.Item;
+import org.openjdk.jmh.annotations.*;
+import utils.AssetCatalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purchases from many concurrent sessions: applied in memory only, journaled with group commit,
+ * and journaled with one force() per purchase (the naive way to make each one durable).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Threads(16)
+@Fork(1)
+public class EconomyJournalBenchmark {
+
+    @Param({"0", "500"})
+    private long commitIntervalMicros;
+
+    private AssetCatalog assets;
+    private Item item;
+    private Path dir;
+    private EconomyJournal journal;
+    private FileChannel naive;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        assets = AssetCatalog.getShared();
+        item = assets.getItems().get(0);
+        dir = Files.createTempDirectory("journal-bench");
+        journal = EconomyJournal.open(dir.resolve("group.journal"), commitIntervalMicros);
+        naive = FileChannel.open(dir.resolve("naive.journal"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        naive.close();
+        Files.delete(dir.resolve("group.journal"));
+        Files.delete(dir.resolve("naive.journal"));
+        Files.delete(dir);
+    }
+
+    @State(Scope.Thread)
+    public static class SessionState {
+        Hero hero;
+        EconomyJournal.Session session;
+        final ByteBuffer record = ByteBuffer.allocate(32);
+
+        @Setup(Level.Trial)
+        public void setup(EconomyJournalBenchmark bench) {
+            hero = bench.assets.newHero(bench.assets.getHeroTemplates(HeroType.WARRIOR).get(0));
+            Party party = new Party();
+            party.addHero(hero);
+            session = bench.journal.newSession(bench.assets, false);
+            session.setParty(party);
+        }
+    }
+
+    @Benchmark
+    public double inMemory(SessionState s) {
+        return buy(s.hero);
+    }
+
+    @Benchmark
+    public double groupCommit(SessionState s) {
+        s.session.purchase(s.hero, item, item.getPrice());
+        return buy(s.hero);
+    }
+
+    @Benchmark
+    public double forcePerPurchase(SessionState s) throws IOException {
+        s.record.clear().putLong(s.session.getId()).putInt(assets.getItemId(item)).putDouble(item.getPrice()).flip();
+        synchronized (naive) {
+            while (s.record.hasRemaining()) naive.write(s.record);
+            naive.force(false);
+        }
+        return buy(s.hero);
+    }
+
+    /** Applies a purchase, then undoes it so the hero never runs out of gold or fills up. */
+    private double buy(Hero hero) {
+        hero.addMoney(item.getPrice());
+        hero.deductMoney(item.getPrice());
+        hero.getInventory().addItem(item);
+        hero.getInventory().removeItem(item);
+        return hero.getMoney();
+    }
+}
@@ -0,0 +1,95 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Party;
+import items.Item;
+import org.openjdk.jmh.annotations.*;
+import utils.AssetCatalog;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shoppers at one shared market claiming and putting back units, from 1 to 64 threads:
+ * compare-and-set per slot in {@link MarketStock} against one lock around the whole stock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarketContentionBenchmark {
+
+    private MarketStock stock;
+    private List<Item> items;
+
+    // Baseline: the same quantities behind one lock
+    private final Object lock = new Object();
+    private int[] lockedQuantities;
+
+    @Setup
+    public void setup() {
+        AssetCatalog assets = AssetCatalog.getShared();
+        Party party = new Party();
+        Hero hero = assets.newHero(assets.getHeroTemplates(HeroType.WARRIOR).get(0));
+        while (hero.getLevel() < 10) hero.gainExperience(hero.getLevel() * 10); // A full stock
+        party.addHero(hero);
+
+        stock = new MarketStock(0, 0);
+        MarketRegistry.draw(stock, assets.getItemIndex(), party, new RandomGenerator(42));
+        items = stock.getInStock();
+        lockedQuantities = new int[items.size()];
+        for (int i = 0; i < items.size(); i++) lockedQuantities[i] = stock.getQuantity(items.get(i));
+    }
+
+    @State(Scope.Thread)
+    public static class Shopper {
+        final RandomGenerator rng = new RandomGenerator(Thread.currentThread().getId());
+    }
+
+    private boolean claimAndRelease(Shopper shopper) {
+        MarketStock.Claim claim = stock.reserve(items.get(shopper.rng.nextInt(items.size())));
+        if (claim == null) return false;
+        claim.release();
+        return true;
+    }
+
+    private boolean lockAndRelease(Shopper shopper) {
+        int slot = shopper.rng.nextInt(items.size());
+        synchronized (lock) {
+            if (lockedQuantities[slot] == 0) return false;
+            lockedQuantities[slot]--;
+        }
+        synchronized (lock) {
+            lockedQuantities[slot]++;
+        }
+        return true;
+    }
+
+    @Benchmark @Threads(1)
+    public boolean casThreads01(Shopper shopper) { return claimAndRelease(shopper); }
+
+    @Benchmark @Threads(4)
+    public boolean casThreads04(Shopper shopper) { return claimAndRelease(shopper); }
+
+    @Benchmark @Threads(16)
+    public boolean casThreads16(Shopper shopper) { return claimAndRelease(shopper); }
+
+    @Benchmark @Threads(64)
+    public boolean casThreads64(Shopper shopper) { return claimAndRelease(shopper); }
+
+    @Benchmark @Threads(1)
+    public boolean lockThreads01(Shopper shopper) { return lockAndRelease(shopper); }
+
+    @Benchmark @Threads(4)
+    public boolean lockThreads04(Shopper shopper) { return lockAndRelease(shopper); }
+
+    @Benchmark @Threads(16)
+    public boolean lockThreads16(Shopper shopper) { return lockAndRelease(shopper); }
+
+    @Benchmark @Threads(64)
+    public boolean lockThreads64(Shopper shopper) { return lockAndRelease(shopper); }
+}
@@ -0,0 +1,60 @@
+package game;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One game tick of restock scheduling with many markets: the timer wheel against checking every
+ * market's next restock tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarketRestockBenchmark {
+
+    private static final long INTERVAL = MarketRegistry.RESTOCK_INTERVAL;
+
+    @Param({"256", "4096"})
+    public int markets;
+
+    private TimerWheel<long[]> wheel;
+    private long[][] restockAt;
+    private long tick;
+
+    @Setup
+    public void setup() {
+        wheel = new TimerWheel<>((int) INTERVAL, 0);
+        restockAt = new long[markets][];
+        for (int i = 0; i < markets; i++) {
+            restockAt[i] = new long[] {1 + i % INTERVAL};
+            wheel.schedule(restockAt[i], restockAt[i][0]);
+        }
+    }
+
+    @Benchmark
+    public long timerWheel() {
+        long now = ++tick;
+        wheel.advance(now, market -> {
+            market[0] = now + INTERVAL;
+            wheel.schedule(market, market[0]);
+        });
+        return wheel.size();
+    }
+
+    @Benchmark
+    public long scanAll() {
+        long now = ++tick;
+        long due = 0;
+        for (long[] market : restockAt) {
+            if (market[0] <= now) {
+                market[0] = now + INTERVAL;
+                due++;
+            }
+        }
+        return due;
+    }
+}
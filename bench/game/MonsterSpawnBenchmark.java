@@ -0,0 +1,73 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Party;
+import items.Item;
+import org.openjdk.jmh.annotations.*;
+import utils.AssetCatalog;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Battle setup: spawning a party-sized group of scaled monsters, fighting no rounds (the party
+ * retreats at once) and tearing down. Compares fresh monsters per battle with the engine's pool.
+ * Check gc.alloc.rate.norm for the allocation per battle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonsterSpawnBenchmark {
+
+    /** Retreats on the first turn, so only setup and teardown are measured. */
+    private static final BattlePolicy RETREAT = new BattlePolicy() {
+        @Override
+        public Action chooseAction(Hero hero, Party party, List<Monster> enemies) {
+            return Action.QUIT;
+        }
+
+        @Override
+        public Monster chooseTarget(Hero hero, List<Monster> aliveEnemies) {
+            return aliveEnemies.get(0);
+        }
+
+        @Override
+        public ItemChoice chooseEquipmentType(Hero hero) {
+            return ItemChoice.WEAPON;
+        }
+
+        @Override
+        public <T extends Item> T chooseItem(Hero hero, ItemChoice kind, List<T> options) {
+            return options.get(0);
+        }
+    };
+
+    private BattleEngine engine;
+    private Party party;
+
+    @Setup
+    public void setup() {
+        AssetCatalog assets = AssetCatalog.getShared();
+        engine = new BattleEngine(assets.getMonsterTemplates(), new RandomGenerator(42));
+        party = new Party();
+        for (HeroType type : HeroType.values()) {
+            party.addHero(assets.newHero(assets.getHeroTemplates(type).get(0)));
+        }
+    }
+
+    @Benchmark
+    public BattleResult freshMonsters() {
+        return engine.fight(party, engine.spawnMonsters(party), RETREAT, BattleEventSink.NONE);
+    }
+
+    @Benchmark
+    public BattleResult pooledMonsters() {
+        return engine.startBattle(party, RETREAT, BattleEventSink.NONE);
+    }
+}
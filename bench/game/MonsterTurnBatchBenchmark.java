@@ -0,0 +1,78 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import items.Armor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One monster phase over many battles: scalar kernel vs Vector API kernel on the same batch and rolls.
+ * Hero HP is restored before each call so every call resolves the same amount of work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class MonsterTurnBatchBenchmark {
+
+    @Param({"1024", "16384"})
+    public int battles;
+
+    private MonsterTurnBatch batch;
+    private double[] initialHeroHp;
+    private MonsterTurnKernel scalar;
+    private MonsterTurnKernel vector;
+
+    @Setup
+    public void setup() {
+        RandomGenerator rng = new RandomGenerator(11);
+        List<CombatState> states = new ArrayList<>(battles);
+        for (int b = 0; b < battles; b++) {
+            List<Hero> heroes = new ArrayList<>();
+            heroes.add(new Hero("Gaerdal_Ironhand", HeroType.WARRIOR, 100, 700, 500, 600, 1354, 7));
+            heroes.add(new Hero("Rillifane_Rallathil", HeroType.SORCERER, 1300, 750, 450, 500, 2500, 9));
+            heroes.add(new Hero("Parzival", HeroType.PALADIN, 300, 750, 650, 700, 2500, 7));
+            heroes.get(0).equipArmor(new Armor("Platinum_Shield", 150, 1, 200));
+            for (Hero h : heroes) h.setHp(1000 + rng.nextInt(4000));
+
+            List<Monster> monsters = new ArrayList<>();
+            for (int m = 0; m < 8; m++) {
+                monsters.add(new Monster("Desghidorrah", MonsterType.DRAGON, 3, 100 + rng.nextInt(500), 400, 35));
+            }
+            states.add(CombatState.of(heroes, monsters));
+        }
+
+        batch = MonsterTurnBatch.of(states);
+        batch.roll(rng);
+        initialHeroHp = batch.heroHp.clone();
+
+        scalar = new ScalarMonsterTurnKernel();
+        vector = MonsterTurnBatch.loadKernel();
+        if (vector instanceof ScalarMonsterTurnKernel) {
+            throw new IllegalStateException("Vector API not available; run with --add-modules jdk.incubator.vector");
+        }
+    }
+
+    @Benchmark
+    public MonsterTurnBatch scalarKernel() {
+        System.arraycopy(initialHeroHp, 0, batch.heroHp, 0, initialHeroHp.length);
+        batch.resolveMonstersTurn(scalar);
+        return batch;
+    }
+
+    @Benchmark
+    public MonsterTurnBatch vectorKernel() {
+        System.arraycopy(initialHeroHp, 0, batch.heroHp, 0, initialHeroHp.length);
+        batch.resolveMonstersTurn(vector);
+        return batch;
+    }
+}
@@ -0,0 +1,56 @@
+package game;
+
+import common.RandomGenerator;
+import items.Item;
+import org.openjdk.jmh.annotations.*;
+import utils.AssetCatalog;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quotes and trades from many shoppers on one shared engine, either spread over the whole
+ * catalog or all on the same item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class PriceEngineBenchmark {
+
+    @Param({"spread", "hot"})
+    public String items;
+
+    private PriceEngine engine;
+    private List<Item> catalog;
+
+    @Setup
+    public void setup() {
+        AssetCatalog assets = AssetCatalog.getShared();
+        engine = PriceEngine.shared(assets);
+        catalog = assets.getItems();
+    }
+
+    @State(Scope.Thread)
+    public static class Shopper {
+        final RandomGenerator rng = new RandomGenerator(Thread.currentThread().getId());
+    }
+
+    private Item pick(Shopper shopper) {
+        return items.equals("hot") ? catalog.get(0) : catalog.get(shopper.rng.nextInt(catalog.size()));
+    }
+
+    @Benchmark
+    public double quote(Shopper shopper) {
+        return engine.quoteBuy(pick(shopper));
+    }
+
+    @Benchmark
+    public double buyAndSell(Shopper shopper) {
+        Item item = pick(shopper);
+        return engine.buy(item, Double.MAX_VALUE).getPrice() - engine.sell(item).getPrice();
+    }
+}
@@ -0,0 +1,62 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Hero.HeroType;
+import items.*;
+import org.openjdk.jmh.annotations.*;
+import utils.AssetCatalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planning a level 10 hero's basket from stocks of up to thousands of items, at the default gold
+ * resolution and a finer one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PurchasePlannerBenchmark {
+
+    @Param({"10", "1000", "5000"})
+    public int stockSize;
+
+    @Param({"256", "1024"})
+    public int maxBuckets;
+
+    private Hero hero;
+    private List<Item> stock;
+    private PurchasePlanner planner;
+
+    @Setup
+    public void setup() {
+        AssetCatalog assets = AssetCatalog.getShared();
+        hero = assets.newHero(assets.getHeroTemplates(HeroType.PALADIN).get(0));
+        while (hero.getLevel() < 10) hero.gainExperience(hero.getLevel() * 10);
+        hero.addMoney(5000);
+
+        RandomGenerator rng = new RandomGenerator(42);
+        stock = new ArrayList<>(stockSize);
+        for (int i = 0; i < stockSize; i++) {
+            int level = 1 + rng.nextInt(10);
+            double price = 100 * level + rng.nextInt(500);
+            switch (i % 4) {
+                case 0: stock.add(new Weapon("Weapon_" + i, price, level, 400 + rng.nextInt(1200), 1)); break;
+                case 1: stock.add(new Armor("Armor_" + i, price, level, 200 + rng.nextInt(900))); break;
+                case 2: stock.add(new Potion("Potion_" + i, price, level, 50 + rng.nextInt(100), "Health/Mana")); break;
+                default: stock.add(new Spell("Spell_" + i, price, level, 300 + rng.nextInt(900), 100, Spell.SpellType.FIRE)); break;
+            }
+        }
+        planner = new PurchasePlanner(maxBuckets);
+    }
+
+    @Benchmark
+    public PurchasePlanner.Plan plan() {
+        return planner.plan(hero, stock, item -> 3, (item, units) -> item.getPrice() * units);
+    }
+}
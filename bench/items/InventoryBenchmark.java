@@ -0,0 +1,57 @@
+package items;
+
+import items.Spell.SpellType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Category queries on an Inventory, as issued by the battle menu every turn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private Inventory inventory;
+
+    @Setup
+    public void setup() {
+        inventory = new Inventory();
+        for (int i = 0; i < size; i++) {
+            switch (i % 4) {
+                case 0: inventory.addItem(new Weapon("Sword" + i, 500, 1, 800, 1)); break;
+                case 1: inventory.addItem(new Armor("Shield" + i, 150, 1, 200)); break;
+                case 2: inventory.addItem(new Potion("Potion" + i, 250, 1, 100, "Health")); break;
+                default: inventory.addItem(new Spell("Spell" + i, 700, 4, 850, 300, SpellType.FIRE)); break;
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Weapon> getWeapons() {
+        return inventory.getWeapons();
+    }
+
+    @Benchmark
+    public List<Spell> getSpells() {
+        return inventory.getSpells();
+    }
+
+    @Benchmark
+    public List<Potion> getPotions() {
+        return inventory.getPotions();
+    }
+
+    @Benchmark
+    public List<Item> getItems() {
+        return inventory.getItems();
+    }
+}
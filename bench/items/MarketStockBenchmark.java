@@ -0,0 +1,65 @@
+package items;
+
+import common.RandomGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stocking one market visit with 10 items: the old copy-and-shuffle of the whole catalog
+ * against a partial shuffle of the level-eligible range of the index, as the catalog grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarketStockBenchmark {
+
+    @Param({"30", "1000", "100000"})
+    public int catalogSize;
+
+    private RandomGenerator rng;
+    private List<Item> catalog;
+    private ItemIndex index;
+
+    @Setup
+    public void setup() {
+        rng = new RandomGenerator(42);
+        catalog = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            int level = 1 + rng.nextInt(10);
+            double price = 100 * level + rng.nextInt(500);
+            switch (i % 4) {
+                case 0: catalog.add(new Weapon("Weapon_" + i, price, level, 500, 1)); break;
+                case 1: catalog.add(new Armor("Armor_" + i, price, level, 300)); break;
+                case 2: catalog.add(new Potion("Potion_" + i, price, level, 100, "Health")); break;
+                default: catalog.add(new Spell("Spell_" + i, price, level, 600, 100, Spell.SpellType.FIRE)); break;
+            }
+        }
+        index = new ItemIndex(catalog);
+    }
+
+    @Benchmark
+    public List<Item> fullShuffle() {
+        List<Item> shuffled = new ArrayList<>(catalog);
+        for (int i = shuffled.size() - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            shuffled.set(i, shuffled.set(j, shuffled.get(i)));
+        }
+        return new ArrayList<>(shuffled.subList(0, Math.min(10, shuffled.size())));
+    }
+
+    @Benchmark
+    public List<Item> indexedSample() {
+        return index.sample(5, 10, rng);
+    }
+
+    @Benchmark
+    public List<Item> affordable() {
+        return index.affordable(ItemType.WEAPON, 5, 700);
+    }
+}
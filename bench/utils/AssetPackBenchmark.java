@@ -0,0 +1,86 @@
+package utils;
+
+import entities.Hero.HeroType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cold catalog load: parsing the text files vs opening the compiled pack.
+ * The data/ rows are repeated {@code scale} times in a temp directory to model larger asset sets.
+ * Run from the project root.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssetPackBenchmark {
+
+    @Param({"1", "100"})
+    public int scale;
+
+    private Path dataDir;
+    private File packFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("legends-assets");
+        File[] sources = new File(GameDataLoader.DATA_DIR).listFiles((dir, name) -> name.endsWith(".txt"));
+        if (sources == null) throw new IOException("Run from the project root: data/ not found");
+
+        for (File source : sources) {
+            List<String> lines = Files.readAllLines(source.toPath());
+            List<String> scaled = new ArrayList<>();
+            scaled.add(lines.get(0)); // Header
+            for (int i = 0; i < scale; i++) {
+                scaled.addAll(lines.subList(1, lines.size()));
+            }
+            Files.write(dataDir.resolve(source.getName()), scaled);
+        }
+        packFile = AssetPackCompiler.compile(dataDir.toFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void loadText(Blackhole bh) {
+        consume(AssetCatalog.loadText(dataDir.toFile()), bh);
+    }
+
+    /**
+     * Maps the pack without touching any record, as a session server does at startup.
+     */
+    @Benchmark
+    public AssetCatalog openPack() throws IOException {
+        return AssetCatalog.loadPack(packFile);
+    }
+
+    @Benchmark
+    public void loadPackFully(Blackhole bh) throws IOException {
+        consume(AssetCatalog.loadPack(packFile), bh);
+    }
+
+    private static void consume(AssetCatalog catalog, Blackhole bh) {
+        for (HeroType type : HeroType.values()) {
+            catalog.getHeroTemplates(type).forEach(bh::consume);
+        }
+        catalog.getMonsterTemplates().forEach(bh::consume);
+        catalog.getItems().forEach(bh::consume);
+    }
+}
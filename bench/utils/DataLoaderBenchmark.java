@@ -0,0 +1,57 @@
+package utils;
+
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import items.Armor;
+import items.Potion;
+import items.Spell;
+import items.Spell.SpellType;
+import items.Weapon;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing cost of the text files under data/. Run from the project root.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataLoaderBenchmark {
+
+    @Benchmark
+    public List<Hero> loadHeroes() {
+        return GameDataLoader.loadHeroes("Warriors.txt", HeroType.WARRIOR);
+    }
+
+    @Benchmark
+    public List<Monster> loadMonsters() {
+        return GameDataLoader.loadMonsters("Dragons.txt", MonsterType.DRAGON);
+    }
+
+    @Benchmark
+    public List<Weapon> loadWeapons() {
+        return GameDataLoader.loadWeapons("Weaponry.txt");
+    }
+
+    @Benchmark
+    public List<Armor> loadArmor() {
+        return GameDataLoader.loadArmor("Armory.txt");
+    }
+
+    @Benchmark
+    public List<Potion> loadPotions() {
+        return GameDataLoader.loadPotions("Potions.txt");
+    }
+
+    @Benchmark
+    public List<Spell> loadSpells() {
+        return GameDataLoader.loadSpells("FireSpells.txt", SpellType.FIRE);
+    }
+}
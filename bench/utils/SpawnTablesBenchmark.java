@@ -0,0 +1,65 @@
+package utils;
+
+import common.RandomGenerator;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weighted monster picks: the alias table against a walk over cumulative weights,
+ * as the catalog grows. The alias pick should stay flat.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpawnTablesBenchmark {
+
+    @Param({"35", "1000", "100000"})
+    public int templates;
+
+    private RandomGenerator rng;
+    private SpawnTables.Table table;
+    private double[] cumulative;
+
+    @Setup
+    public void setup() {
+        rng = new RandomGenerator(42);
+        List<Monster> monsters = new ArrayList<>(templates);
+        MonsterType[] types = MonsterType.values();
+        for (int i = 0; i < templates; i++) {
+            monsters.add(new Monster("Monster_" + i, types[rng.nextInt(types.length)], 1, 100, 100, 10));
+        }
+        List<SpawnTables.Weight> weights = List.of(
+                new SpawnTables.Weight(MonsterType.DRAGON, 1, 10, 5),
+                new SpawnTables.Weight(MonsterType.SPIRIT, 1, 10, 0.5));
+        table = SpawnTables.build(monsters, weights).forLevel(5);
+
+        cumulative = new double[templates];
+        double total = 0;
+        for (int i = 0; i < templates; i++) {
+            MonsterType type = monsters.get(i).getType();
+            total += (type == MonsterType.DRAGON) ? 5 : (type == MonsterType.SPIRIT) ? 0.5 : 1;
+            cumulative[i] = total;
+        }
+    }
+
+    @Benchmark
+    public int aliasPick() {
+        return table.pick(rng);
+    }
+
+    @Benchmark
+    public int cumulativeScan() {
+        double target = rng.nextDouble() * cumulative[cumulative.length - 1];
+        int i = 0;
+        while (cumulative[i] <= target) i++;
+        return i;
+    }
+}
@@ -1,5 +1,7 @@
 package board;
 
+import java.io.PrintStream;
+
 /**
  * Abstract base class for a rectangular game board.
  * Encapsulates dimensions and boundary checking logic to prevent code duplication.
@@ -28,8 +30,16 @@ public abstract class Board {
         return row >= 0 && row < height && col >= 0 && col < width;
     }
 
+    /**
+     * Prints the board to standard output.
+     */
+    public void printBoard() {
+        printBoard(System.out);
+    }
+
     /**
      * Forces subclasses to define how the board is visualized.
+     * @param out The stream to render to.
      */
-    public abstract void printBoard();
+    public abstract void printBoard(PrintStream out);
 }
\ No newline at end of file
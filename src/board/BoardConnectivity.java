@@ -0,0 +1,196 @@
+package board;
+
+import java.util.Arrays;
+
+/**
+ * Connected-component index of a packed grid (one CellType ordinal per cell, row-major).
+ * Two cells are connected when a 4-directional path of accessible cells joins them.
+ *
+ * <p>Built once with union-find; afterwards "can I get there?" and "is there a market I can
+ * reach?" are array lookups. {@link #connect} also carves passages so that every accessible
+ * cell is reachable from the start.</p>
+ */
+public final class BoardConnectivity {
+
+    private static final byte INACCESSIBLE = (byte) CellType.INACCESSIBLE.ordinal();
+    private static final byte MARKET = (byte) CellType.MARKET.ordinal();
+    private static final byte COMMON = (byte) CellType.COMMON.ordinal();
+
+    private final int width;
+    private final int[] componentOf;        // -1 for inaccessible cells
+    private final int[] componentSize;
+    private final boolean[] componentHasMarket;
+    private final int carvedCells;
+
+    private BoardConnectivity(int width, int[] componentOf, int[] componentSize,
+                              boolean[] componentHasMarket, int carvedCells) {
+        this.width = width;
+        this.componentOf = componentOf;
+        this.componentSize = componentSize;
+        this.componentHasMarket = componentHasMarket;
+        this.carvedCells = carvedCells;
+    }
+
+    /**
+     * Opens INACCESSIBLE cells until every accessible cell joins the start cell's component,
+     * then indexes the result. Each isolated region gets one straight passage (vertical, then
+     * horizontal) toward the start, stopping as soon as it meets the start's region.
+     *
+     * @param cells Grid to modify in place.
+     * @param start Index of the start cell, which must be accessible.
+     */
+    static BoardConnectivity connect(byte[] cells, int width, int height, int start) {
+        UnionFind sets = new UnionFind(cells.length);
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != INACCESSIBLE) unionWithNeighbours(cells, width, height, sets, i);
+        }
+
+        int startRow = start / width;
+        int startCol = start % width;
+        int carved = 0;
+
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == INACCESSIBLE || sets.find(i) == sets.find(start)) continue;
+
+            int r = i / width;
+            int c = i % width;
+            while (sets.find(r * width + c) != sets.find(start)) {
+                if (r != startRow) r += (r > startRow) ? -1 : 1;
+                else c += (c > startCol) ? -1 : 1;
+
+                int next = r * width + c;
+                if (cells[next] == INACCESSIBLE) {
+                    cells[next] = COMMON;
+                    carved++;
+                    unionWithNeighbours(cells, width, height, sets, next);
+                }
+            }
+        }
+        return index(cells, width, sets, carved);
+    }
+
+    /**
+     * Indexes a grid as-is, without carving.
+     */
+    static BoardConnectivity build(byte[] cells, int width, int height) {
+        UnionFind sets = new UnionFind(cells.length);
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != INACCESSIBLE) unionWithNeighbours(cells, width, height, sets, i);
+        }
+        return index(cells, width, sets, 0);
+    }
+
+    private static void unionWithNeighbours(byte[] cells, int width, int height, UnionFind sets, int i) {
+        int r = i / width;
+        int c = i % width;
+        if (r > 0 && cells[i - width] != INACCESSIBLE) sets.union(i, i - width);
+        if (r < height - 1 && cells[i + width] != INACCESSIBLE) sets.union(i, i + width);
+        if (c > 0 && cells[i - 1] != INACCESSIBLE) sets.union(i, i - 1);
+        if (c < width - 1 && cells[i + 1] != INACCESSIBLE) sets.union(i, i + 1);
+    }
+
+    /**
+     * Renumbers union-find roots as dense component ids 0..k-1, in row-major order of first cell.
+     */
+    private static BoardConnectivity index(byte[] cells, int width, UnionFind sets, int carved) {
+        int[] componentOf = new int[cells.length];
+        int[] idOfRoot = new int[cells.length];
+        Arrays.fill(idOfRoot, -1);
+
+        int count = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == INACCESSIBLE) {
+                componentOf[i] = -1;
+                continue;
+            }
+            int root = sets.find(i);
+            if (idOfRoot[root] < 0) idOfRoot[root] = count++;
+            componentOf[i] = idOfRoot[root];
+        }
+
+        int[] size = new int[count];
+        boolean[] hasMarket = new boolean[count];
+        for (int i = 0; i < cells.length; i++) {
+            int id = componentOf[i];
+            if (id < 0) continue;
+            size[id]++;
+            if (cells[i] == MARKET) hasMarket[id] = true;
+        }
+        return new BoardConnectivity(width, componentOf, size, hasMarket, carved);
+    }
+
+    // QUERIES
+
+    /**
+     * @return The component id of a cell, or -1 if it is inaccessible.
+     */
+    public int getComponent(int row, int col) {
+        return componentOf[row * width + col];
+    }
+
+    public boolean isConnected(int fromRow, int fromCol, int toRow, int toCol) {
+        int from = getComponent(fromRow, fromCol);
+        return from >= 0 && from == getComponent(toRow, toCol);
+    }
+
+    /**
+     * @return true if a market can be reached on foot from this cell.
+     */
+    public boolean canReachMarket(int row, int col) {
+        int id = getComponent(row, col);
+        return id >= 0 && componentHasMarket[id];
+    }
+
+    public int getComponentCount() {
+        return componentSize.length;
+    }
+
+    public int getComponentSize(int component) {
+        return componentSize[component];
+    }
+
+    /**
+     * @return How many INACCESSIBLE cells were opened to connect the board.
+     */
+    public int getCarvedCellCount() {
+        return carvedCells;
+    }
+
+    /**
+     * Disjoint sets over cell indices with union by size and path halving.
+     */
+    private static final class UnionFind {
+        private final int[] parent;
+        private final int[] size;
+
+        UnionFind(int n) {
+            parent = new int[n];
+            size = new int[n];
+            for (int i = 0; i < n; i++) {
+                parent[i] = i;
+                size[i] = 1;
+            }
+        }
+
+        int find(int x) {
+            while (parent[x] != x) {
+                parent[x] = parent[parent[x]];
+                x = parent[x];
+            }
+            return x;
+        }
+
+        void union(int a, int b) {
+            int ra = find(a);
+            int rb = find(b);
+            if (ra == rb) return;
+            if (size[ra] < size[rb]) {
+                int t = ra;
+                ra = rb;
+                rb = t;
+            }
+            parent[rb] = ra;
+            size[ra] += size[rb];
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package board;
+
+import entities.Party;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Renders a LegendsBoard into one reused byte buffer and sends each frame in a single write.
+ * All glyphs, borders and color codes are encoded once up front.
+ *
+ * <p>{@link #renderFrame(PrintStream)} draws the whole board where the cursor is, as the game has
+ * always done. {@link #renderDiff(PrintStream)} is for full-screen clients: it pins the board to
+ * the top of the terminal and afterwards only rewrites the cells that changed since the last
+ * frame (usually the party's old and new square), using cursor-addressing escapes.</p>
+ */
+public class BoardRenderer {
+
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BORDER_COLOR = "\u001B[35m"; // Purple
+    private static final String ANSI_HERO_COLOR = "\u001B[36m";   // Cyan
+    private static final String HERO_SYMBOL = " P ";
+
+    private static final byte[] HERO_GLYPH = ascii(ANSI_HERO_COLOR + HERO_SYMBOL + ANSI_RESET);
+    private static final byte[] SEPARATOR = ascii(ANSI_BORDER_COLOR + "|" + ANSI_RESET);
+    private static final byte[] NEWLINE = ascii(System.lineSeparator());
+    private static final byte[] CLEAR_SCREEN = ascii("\u001B[H\u001B[2J");
+    private static final byte[] CLEAR_TO_END = ascii("\u001B[J");
+
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final byte HERO = (byte) CELL_TYPES.length;
+    private static final byte NOT_DRAWN = -1;
+
+    private final LegendsBoard board;
+    private final byte[] horizontalBorder;
+
+    private byte[] buffer;
+    private int length;
+
+    // What each cell showed in the last diff frame: a CellType ordinal, HERO, or NOT_DRAWN
+    private final byte[] drawn;
+
+    public BoardRenderer(LegendsBoard board) {
+        this.board = board;
+
+        StringBuilder border = new StringBuilder(ANSI_BORDER_COLOR).append('+');
+        for (int c = 0; c < board.getWidth(); c++) border.append("---+");
+        border.append(ANSI_RESET).append(System.lineSeparator());
+        this.horizontalBorder = ascii(border.toString());
+
+        this.buffer = new byte[frameSizeHint()];
+        this.drawn = new byte[board.getWidth() * board.getHeight()];
+        invalidate();
+    }
+
+    /**
+     * Writes the full board, identical to the original cell-by-cell output.
+     */
+    public void renderFrame(PrintStream out) {
+        length = 0;
+        appendFrame();
+        out.write(buffer, 0, length);
+    }
+
+    /**
+     * Writes only what changed since the previous call, then leaves the cursor on the line below
+     * the board with the rest of the screen cleared. The first call (or the first after
+     * {@link #invalidate()}) clears the screen and draws a full frame.
+     */
+    public void renderDiff(PrintStream out) {
+        length = 0;
+        int width = board.getWidth();
+
+        if (drawn[0] == NOT_DRAWN) {
+            append(CLEAR_SCREEN);
+            appendFrame();
+            for (int r = 0; r < board.getHeight(); r++) {
+                for (int c = 0; c < width; c++) drawn[r * width + c] = glyphAt(r, c);
+            }
+        } else {
+            for (int r = 0; r < board.getHeight(); r++) {
+                for (int c = 0; c < width; c++) {
+                    byte glyph = glyphAt(r, c);
+                    if (drawn[r * width + c] == glyph) continue;
+
+                    drawn[r * width + c] = glyph;
+                    // Row r is on screen line 2r + 2; its glyph starts at column 4c + 2 (both 1-based)
+                    appendCursorTo(2 * r + 2, 4 * c + 2);
+                    append(glyphBytes(glyph));
+                }
+            }
+        }
+
+        appendCursorTo(2 * board.getHeight() + 2, 1);
+        append(CLEAR_TO_END);
+        out.write(buffer, 0, length);
+    }
+
+    /**
+     * Forgets the last diff frame, e.g. after other output has scrolled the board off screen.
+     */
+    public void invalidate() {
+        Arrays.fill(drawn, NOT_DRAWN);
+    }
+
+    private void appendFrame() {
+        int width = board.getWidth();
+        append(horizontalBorder);
+        for (int r = 0; r < board.getHeight(); r++) {
+            append(SEPARATOR);
+            for (int c = 0; c < width; c++) {
+                append(glyphBytes(glyphAt(r, c)));
+                append(SEPARATOR);
+            }
+            append(NEWLINE);
+            append(horizontalBorder);
+        }
+    }
+
+    private byte glyphAt(int r, int c) {
+        Party party = board.getParty();
+        if (party != null && party.getRow() == r && party.getCol() == c) return HERO;
+        return (byte) board.getCell(r, c).getType().ordinal();
+    }
+
+    private static byte[] glyphBytes(byte glyph) {
+        return (glyph == HERO) ? HERO_GLYPH : CELL_TYPES[glyph].getGlyphBytes();
+    }
+
+    // BUFFER
+
+    private void appendCursorTo(int line, int column) {
+        ensureCapacity(24);
+        buffer[length++] = 0x1B;
+        buffer[length++] = '[';
+        appendInt(line);
+        buffer[length++] = ';';
+        appendInt(column);
+        buffer[length++] = 'H';
+    }
+
+    private void appendInt(int value) {
+        int start = length;
+        do {
+            buffer[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        // Digits were written least significant first
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte t = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = t;
+        }
+    }
+
+    private void append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    private int frameSizeHint() {
+        int glyph = HERO_GLYPH.length;
+        for (CellType type : CELL_TYPES) glyph = Math.max(glyph, type.getGlyphBytes().length);
+        int row = SEPARATOR.length + board.getWidth() * (glyph + SEPARATOR.length) + NEWLINE.length;
+        return CLEAR_SCREEN.length + horizontalBorder.length * (board.getHeight() + 1) + row * board.getHeight() + 32;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -5,12 +5,24 @@ package board;
  * Encapsulates the terrain type and logic for accessibility.
  */
 public class Cell {
+    // Cells are immutable, so one shared instance per type is enough
+    private static final Cell[] FLYWEIGHTS = {
+            new Cell(CellType.COMMON), new Cell(CellType.MARKET), new Cell(CellType.INACCESSIBLE)
+    };
+
     private final CellType type;
 
     public Cell(CellType type) {
         this.type = type;
     }
 
+    /**
+     * @return The shared Cell for a terrain type.
+     */
+    public static Cell of(CellType type) {
+        return FLYWEIGHTS[type.ordinal()];
+    }
+
     public CellType getType() {
         return type;
     }
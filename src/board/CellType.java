@@ -1,5 +1,7 @@
 package board;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Enum defining the specific types of terrain found on the game board.
  * Encapsulates the visual symbol and ANSI color codes for each type.
@@ -10,16 +12,25 @@ public enum CellType {
     MARKET(" M ", "\u001B[33;1m"),    // Bright Yellow/Gold
     INACCESSIBLE(" X ", "\u001B[31m");  // Red Hash blocks
 
-    private final String symbol;
-    private final String colorCode;
     private static final String RESET = "\u001B[0m";
 
+    // Built once per constant: rendering reads these for every cell of every frame
+    private final String glyph;
+    private final byte[] glyphBytes;
+
     CellType(String symbol, String colorCode) {
-        this.symbol = symbol;
-        this.colorCode = colorCode;
+        this.glyph = colorCode + symbol + RESET;
+        this.glyphBytes = glyph.getBytes(StandardCharsets.US_ASCII);
     }
 
     public String getSymbol() {
-        return colorCode + symbol + RESET;
+        return glyph;
+    }
+
+    /**
+     * @return The colored symbol as ASCII bytes. Shared; do not modify.
+     */
+    byte[] getGlyphBytes() {
+        return glyphBytes;
     }
 }
\ No newline at end of file
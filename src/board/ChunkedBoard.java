@@ -0,0 +1,249 @@
+package board;
+
+import common.RandomGenerator;
+import entities.Party;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Open-world board of any size (e.g. 10,000 x 10,000), generated lazily in square chunks.
+ *
+ * <p>A chunk is generated the first time one of its cells is read, from the world seed and the
+ * chunk coordinates only, so an evicted chunk regenerates identically. Each cell is stored as one
+ * byte (its CellType ordinal) and read back as a shared {@link Cell#of(CellType) flyweight}.
+ * Once more than {@code maxLoadedChunks} are in memory, the least recently used chunk that is
+ * not near a tracked party is dropped. Chunks changed by {@link #setCellType} are never dropped.</p>
+ *
+ * <p>Uses the same terrain rules as {@link LegendsBoard}. Not thread-safe; one board per session.</p>
+ */
+public class ChunkedBoard extends Board {
+
+    public static final int CHUNK_SIZE = 64;
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNK_AREA = CHUNK_SIZE * CHUNK_SIZE;
+
+    // Chunks within this many chunks of a tracked party are never evicted
+    private static final int KEEP_RADIUS = 1;
+    private static final int VIEW_SIZE = 20;
+
+    // Rough heap cost of one loaded chunk besides its cells: array header, map entry and boxed key
+    private static final int CHUNK_OVERHEAD_BYTES = 16 + 48 + 16;
+
+    private static final CellType[] CELL_TYPES = CellType.values();
+
+    // Visual styling (matches BoardRenderer)
+    private static final String HERO_GLYPH = "\u001B[36m P \u001B[0m";
+    private static final String SEPARATOR = "\u001B[35m|\u001B[0m";
+
+    private final long seed;
+    private final int maxLoadedChunks;
+
+    // Access-ordered, so iteration starts at the least recently used chunk
+    private final LinkedHashMap<Long, byte[]> chunks = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Long, byte[]> modifiedChunks = new HashMap<>();
+    private final List<Party> parties = new ArrayList<>();
+
+    private long chunksGenerated;
+    private long chunksEvicted;
+
+    private final StringBuilder frame = new StringBuilder();
+
+    /**
+     * @param maxLoadedChunks Chunks kept in memory before LRU eviction starts (at least 1).
+     */
+    public ChunkedBoard(int width, int height, long seed, int maxLoadedChunks) {
+        super(width, height);
+        if (width < 2 || height < 2) {
+            throw new IllegalArgumentException("Board must be at least 2x2.");
+        }
+        if (maxLoadedChunks < 1) {
+            throw new IllegalArgumentException("At least one chunk must fit in memory.");
+        }
+        this.seed = seed;
+        this.maxLoadedChunks = maxLoadedChunks;
+    }
+
+    /**
+     * Keeps the chunks around this party loaded, and centers {@link #printBoard(PrintStream)} on the first one.
+     */
+    public void trackParty(Party party) {
+        parties.add(party);
+    }
+
+    public void untrackParty(Party party) {
+        parties.remove(party);
+    }
+
+    public CellType getCellType(int row, int col) {
+        if (!isValidCoordinate(row, col)) {
+            throw new IndexOutOfBoundsException("Invalid coordinate: " + row + "," + col);
+        }
+        return CELL_TYPES[chunkFor(row, col)[(row & CHUNK_MASK) * CHUNK_SIZE + (col & CHUNK_MASK)]];
+    }
+
+    public Cell getCell(int row, int col) {
+        return Cell.of(getCellType(row, col));
+    }
+
+    /**
+     * Changes a cell's terrain. The chunk is pinned in memory from then on so the change is kept.
+     */
+    public void setCellType(int row, int col, CellType type) {
+        if (!isValidCoordinate(row, col)) {
+            throw new IndexOutOfBoundsException("Invalid coordinate: " + row + "," + col);
+        }
+        long key = key(row >> CHUNK_SHIFT, col >> CHUNK_SHIFT);
+        byte[] cells = chunkFor(row, col);
+        chunks.remove(key);
+        modifiedChunks.put(key, cells);
+        cells[(row & CHUNK_MASK) * CHUNK_SIZE + (col & CHUNK_MASK)] = (byte) type.ordinal();
+    }
+
+    // CHUNK STORAGE
+
+    private byte[] chunkFor(int row, int col) {
+        int chunkRow = row >> CHUNK_SHIFT;
+        int chunkCol = col >> CHUNK_SHIFT;
+        long key = key(chunkRow, chunkCol);
+
+        byte[] cells = modifiedChunks.get(key);
+        if (cells != null) return cells;
+
+        cells = chunks.get(key);
+        if (cells == null) {
+            cells = generateChunk(chunkRow, chunkCol);
+            chunks.put(key, cells);
+            evictIfNeeded();
+        }
+        return cells;
+    }
+
+    private byte[] generateChunk(int chunkRow, int chunkCol) {
+        // The stream depends only on the world seed and chunk position
+        RandomGenerator random = new RandomGenerator(seed ^ (key(chunkRow, chunkCol) * 0x9E3779B97F4A7C15L));
+        byte[] cells = new byte[CHUNK_AREA];
+
+        int top = chunkRow << CHUNK_SHIFT;
+        int left = chunkCol << CHUNK_SHIFT;
+        for (int r = 0; r < CHUNK_SIZE; r++) {
+            for (int c = 0; c < CHUNK_SIZE; c++) {
+                cells[r * CHUNK_SIZE + c] = (byte) generateCell(top + r, left + c, random.nextDouble()).ordinal();
+            }
+        }
+        chunksGenerated++;
+        return cells;
+    }
+
+    private static CellType generateCell(int r, int c, double roll) {
+        // START POSITION (0,0) and its right/down neighbours are always Common
+        if ((r == 0 && c <= 1) || (r == 1 && c == 0)) return CellType.COMMON;
+
+        if (roll < 0.20) return CellType.INACCESSIBLE;
+        else if (roll < 0.50) return CellType.MARKET;
+        else return CellType.COMMON;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Long, byte[]>> it = chunks.entrySet().iterator();
+        while (chunks.size() > maxLoadedChunks && it.hasNext()) {
+            long key = it.next().getKey();
+            if (isNearParty(key)) continue;
+            it.remove();
+            chunksEvicted++;
+        }
+    }
+
+    private boolean isNearParty(long key) {
+        int chunkRow = (int) (key >> 32);
+        int chunkCol = (int) key;
+        for (Party p : parties) {
+            if (Math.abs((p.getRow() >> CHUNK_SHIFT) - chunkRow) <= KEEP_RADIUS
+                    && Math.abs((p.getCol() >> CHUNK_SHIFT) - chunkCol) <= KEEP_RADIUS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long key(int chunkRow, int chunkCol) {
+        return ((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+    }
+
+    // MEMORY REPORTING
+
+    public int getLoadedChunkCount() {
+        return chunks.size() + modifiedChunks.size();
+    }
+
+    /**
+     * @return Chunks generated so far, counting regenerations after eviction.
+     */
+    public long getChunksGenerated() {
+        return chunksGenerated;
+    }
+
+    public long getChunksEvicted() {
+        return chunksEvicted;
+    }
+
+    /**
+     * @return Approximate heap bytes used by one loaded chunk.
+     */
+    public static int getBytesPerChunk() {
+        return CHUNK_AREA + CHUNK_OVERHEAD_BYTES;
+    }
+
+    /**
+     * @return Approximate heap bytes used by all loaded chunks.
+     */
+    public long getLoadedBytes() {
+        return (long) getLoadedChunkCount() * getBytesPerChunk();
+    }
+
+    // RENDERING
+
+    /**
+     * Prints a window of up to 20x20 cells around the first tracked party (or the top-left corner).
+     */
+    @Override
+    public void printBoard(PrintStream out) {
+        Party focus = parties.isEmpty() ? null : parties.get(0);
+        int rows = Math.min(VIEW_SIZE, height);
+        int cols = Math.min(VIEW_SIZE, width);
+        int top = (focus == null) ? 0 : clamp(focus.getRow() - rows / 2, height - rows);
+        int left = (focus == null) ? 0 : clamp(focus.getCol() - cols / 2, width - cols);
+
+        frame.setLength(0);
+        appendBorder(cols);
+        for (int r = top; r < top + rows; r++) {
+            frame.append(SEPARATOR);
+            for (int c = left; c < left + cols; c++) {
+                boolean hero = false;
+                for (Party p : parties) {
+                    if (p.getRow() == r && p.getCol() == c) hero = true;
+                }
+                frame.append(hero ? HERO_GLYPH : getCellType(r, c).getSymbol()).append(SEPARATOR);
+            }
+            frame.append(System.lineSeparator());
+            appendBorder(cols);
+        }
+        out.print(frame);
+    }
+
+    private void appendBorder(int cols) {
+        frame.append("\u001B[35m+");
+        for (int c = 0; c < cols; c++) frame.append("---+");
+        frame.append("\u001B[0m").append(System.lineSeparator());
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+}
@@ -1,99 +1,166 @@
 package board;
 
+import common.RandomGenerator;
 import entities.Party;
-import java.util.Random;
+
+import java.io.PrintStream;
 
 /**
  * Concrete implementation of the Board for Legends: Monsters and Heroes.
  * Manages the grid of Cells, procedural generation, and rendering.
  */
 public class LegendsBoard extends Board {
-    private final Cell[][] grid;
-    private final Random random;
+    private static final CellType[] CELL_TYPES = CellType.values();
+
+    // One CellType ordinal per cell, row-major
+    private final byte[] cells;
+    private final RandomGenerator random;
+    private BoardConnectivity connectivity;
+    private MarketDistanceField marketDistances;
+    private PathFinder pathFinder;
+    private int version;    // bumped on every cell change
     private Party party;
-
-    // Visual styling
-    private static final String HERO_SYMBOL = " P ";
-    private static final String ANSI_HERO_COLOR = "\u001B[36m"; // Cyan (to contrast with Purple grid)
-    private static final String ANSI_BORDER_COLOR = "\u001B[35m"; // Purple
-    private static final String ANSI_RESET = "\u001B[0m";
+    private BoardRenderer renderer;
 
     public LegendsBoard(int n) {
+        this(n, RandomGenerator.getInstance());
+    }
+
+    /**
+     * @param random Random source for world generation (lets each session own its stream).
+     */
+    public LegendsBoard(int n, RandomGenerator random) {
         super(n, n);
         if (n < 4 || n > 20) {
             throw new IllegalArgumentException("Board size must be between 4 and 20.");
         }
-        this.grid = new Cell[n][n];
-        this.random = new Random();
+        this.cells = new byte[n * n];
+        this.random = random;
         initializeBoard();
     }
 
+    /**
+     * Recreates a saved board from its cells, as copied by {@link #copyCells(byte[])}.
+     */
+    public static LegendsBoard restore(int n, byte[] cells) {
+        return new LegendsBoard(n, cells);
+    }
+
+    private LegendsBoard(int n, byte[] cells) {
+        super(n, n);
+        if (cells.length != n * n) {
+            throw new IllegalArgumentException("Expected " + (n * n) + " cells, got " + cells.length);
+        }
+        for (byte cell : cells) {
+            if (cell < 0 || cell >= CELL_TYPES.length) {
+                throw new IllegalArgumentException("Invalid cell type: " + cell);
+            }
+        }
+        this.cells = cells.clone();
+        this.random = null;
+        this.connectivity = BoardConnectivity.build(this.cells, width, height);
+        this.marketDistances = new MarketDistanceField(this.cells, width, height);
+    }
+
+    /**
+     * Copies every cell (CellType ordinal, row-major) into {@code dest}, which must hold width * height bytes.
+     */
+    public void copyCells(byte[] dest) {
+        System.arraycopy(cells, 0, dest, 0, cells.length);
+    }
+
     public void setParty(Party party) {
         this.party = party;
     }
 
+    public Party getParty() {
+        return party;
+    }
+
     private void initializeBoard() {
         for (int r = 0; r < height; r++) {
             for (int c = 0; c < width; c++) {
-                grid[r][c] = createCell(r, c);
+                cells[r * width + c] = (byte) createCell(r, c).ordinal();
             }
         }
+        // 4. CONNECTIVITY: Open passages so no accessible cell is walled off from the start
+        this.connectivity = BoardConnectivity.connect(cells, width, height, 0);
+        this.marketDistances = new MarketDistanceField(cells, width, height);
     }
 
-    private Cell createCell(int r, int c) {
+    private CellType createCell(int r, int c) {
         // 1. START POSITION (0,0) -> Always Common
-        if (r == 0 && c == 0) return new Cell(CellType.COMMON);
+        if (r == 0 && c == 0) return CellType.COMMON;
 
         // 2. SAFE ZONE: Ensure (0,1) AND (1,0) are never blocked
         // This allows movement Right (0,1) and Down (1,0) from start
         if ((r == 0 && c == 1) || (r == 1 && c == 0)) {
-            return new Cell(CellType.COMMON);
+            return CellType.COMMON;
         }
 
         // 3. RANDOM GENERATION
         double roll = random.nextDouble();
-        if (roll < 0.20) return new Cell(CellType.INACCESSIBLE);
-        else if (roll < 0.50) return new Cell(CellType.MARKET);
-        else return new Cell(CellType.COMMON);
+        if (roll < 0.20) return CellType.INACCESSIBLE;
+        else if (roll < 0.50) return CellType.MARKET;
+        else return CellType.COMMON;
     }
 
     public Cell getCell(int row, int col) {
         if (!isValidCoordinate(row, col)) {
             throw new IndexOutOfBoundsException("Invalid coordinate: " + row + "," + col);
         }
-        return grid[row][col];
+        return Cell.of(CELL_TYPES[cells[row * width + col]]);
     }
 
-    @Override
-    public void printBoard() {
-        // Top Border
-        printHorizontalBorder();
+    /**
+     * Changes the terrain of one cell and updates the connectivity index and market distances.
+     */
+    public void setCellType(int row, int col, CellType type) {
+        if (!isValidCoordinate(row, col)) {
+            throw new IndexOutOfBoundsException("Invalid coordinate: " + row + "," + col);
+        }
+        int i = row * width + col;
+        if (cells[i] == type.ordinal()) return;
+
+        cells[i] = (byte) type.ordinal();
+        version++;
+        // Union-find cannot split components, so re-index (cheap at these board sizes)
+        this.connectivity = BoardConnectivity.build(cells, width, height);
+        marketDistances.update(cells, i);
+    }
 
-        for (int r = 0; r < height; r++) {
-            // Left Border for the row
-            System.out.print(ANSI_BORDER_COLOR + "|" + ANSI_RESET);
+    /**
+     * @return Distance to the nearest market from every cell, with a next-step lookup for bots.
+     */
+    public MarketDistanceField getMarketDistances() {
+        return marketDistances;
+    }
 
-            for (int c = 0; c < width; c++) {
-                // Render Logic
-                if (party != null && party.getRow() == r && party.getCol() == c) {
-                    System.out.print(ANSI_HERO_COLOR + HERO_SYMBOL + ANSI_RESET);
-                } else {
-                    System.out.print(grid[r][c].toString());
-                }
-
-                System.out.print(ANSI_BORDER_COLOR + "|" + ANSI_RESET); // Column separator
-            }
-            System.out.println(); // New line after row
+    /**
+     * @return Shortest-path search over this board; its cached paths are dropped whenever a cell changes.
+     */
+    public PathFinder getPathFinder() {
+        if (pathFinder == null) pathFinder = new PathFinder(cells, width, height, () -> version, 64);
+        return pathFinder;
+    }
 
-            printHorizontalBorder();
-        }
+    /**
+     * @return Component index of the board: O(1) reachability and reachable-market checks.
+     */
+    public BoardConnectivity getConnectivity() {
+        return connectivity;
     }
 
-    private void printHorizontalBorder() {
-        System.out.print(ANSI_BORDER_COLOR + "+");
-        for (int c = 0; c < width; c++) {
-            System.out.print("---+");
-        }
-        System.out.println(ANSI_RESET);
+    @Override
+    public void printBoard(PrintStream out) {
+        getRenderer().renderFrame(out);
+    }
+
+    /**
+     * @return This board's renderer, which also offers a diff mode for full-screen clients.
+     */
+    public BoardRenderer getRenderer() {
+        if (renderer == null) renderer = new BoardRenderer(this);
+        return renderer;
     }
-}
\ No newline at end of file
+}
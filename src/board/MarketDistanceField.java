@@ -0,0 +1,178 @@
+package board;
+
+import java.util.Arrays;
+
+/**
+ * Walking distance from every cell to its nearest market, for bot navigation.
+ *
+ * <p>Computed once by a multi-source BFS seeded from all markets, then read in O(1): a party
+ * heads for a market by repeatedly taking {@link #nextStep(int, int)}. Distances are kept as
+ * unsigned 16-bit values in a {@code short[]} (2 bytes per cell) and are exact up to 65,534 steps.
+ * When a cell changes type, {@link #update(byte[], int)} repairs only the affected area.</p>
+ *
+ * <p>Reads are safe from many threads as long as no update runs concurrently.</p>
+ */
+public final class MarketDistanceField {
+
+    /** Distance of cells that cannot reach any market (and of inaccessible cells). */
+    public static final int UNREACHABLE = 0xFFFF;
+    private static final int MAX_DISTANCE = UNREACHABLE - 1;
+
+    private static final byte INACCESSIBLE = (byte) CellType.INACCESSIBLE.ordinal();
+    private static final byte MARKET = (byte) CellType.MARKET.ordinal();
+
+    private final int width;
+    private final int height;
+    private final short[] distance;
+
+    // Scratch space reused by BFS passes
+    private final int[] queue;
+    private final boolean[] queued;
+    private final int[] neighbourScratch = new int[4];
+
+    MarketDistanceField(byte[] cells, int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.distance = new short[cells.length];
+        this.queue = new int[cells.length];
+        this.queued = new boolean[cells.length];
+        recompute(cells);
+    }
+
+    private void recompute(byte[] cells) {
+        Arrays.fill(distance, (short) UNREACHABLE);
+        int tail = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == MARKET) {
+                distance[i] = 0;
+                queue[tail++] = i;
+            }
+        }
+        relax(cells, 0, tail);
+    }
+
+    // QUERIES
+
+    /**
+     * @return Steps to the nearest market, or {@link #UNREACHABLE}.
+     */
+    public int getDistance(int row, int col) {
+        return distance[row * width + col] & 0xFFFF;
+    }
+
+    /**
+     * @return Index ({@code row * width + col}) of the neighbour one step closer to a market,
+     *         or -1 if the cell is a market or no market can be reached.
+     */
+    public int nextStep(int row, int col) {
+        int here = getDistance(row, col);
+        if (here == 0 || here == UNREACHABLE) return -1;
+
+        int i = row * width + col;
+        // Fixed order (up, down, left, right) keeps bot routes deterministic
+        if (row > 0 && (distance[i - width] & 0xFFFF) < here) return i - width;
+        if (row < height - 1 && (distance[i + width] & 0xFFFF) < here) return i + width;
+        if (col > 0 && (distance[i - 1] & 0xFFFF) < here) return i - 1;
+        if (col < width - 1 && (distance[i + 1] & 0xFFFF) < here) return i + 1;
+        return -1;
+    }
+
+    // INCREMENTAL UPDATE
+
+    /**
+     * Repairs the field after the cell at {@code changed} changed type in {@code cells}.
+     *
+     * <p>Distances can only have grown for cells whose shortest route ran through the changed
+     * cell, i.e. cells reachable from it along strictly increasing distances. Those are cleared
+     * and re-seeded from their intact neighbours; then improvements are propagated outwards.</p>
+     */
+    void update(byte[] cells, int changed) {
+        int tail = 0;
+
+        // 1. Clear everything that may have depended on the changed cell
+        int cleared = 0;
+        queue[cleared++] = changed;
+        queued[changed] = true;
+        for (int head = 0; head < cleared; head++) {
+            int i = queue[head];
+            int d = distance[i] & 0xFFFF;
+            if (d == UNREACHABLE) continue;
+            for (int n : neighbours(i)) {
+                if (n >= 0 && !queued[n] && (distance[n] & 0xFFFF) == d + 1) {
+                    queued[n] = true;
+                    queue[cleared++] = n;
+                }
+            }
+        }
+        for (int k = 0; k < cleared; k++) {
+            distance[queue[k]] = (short) UNREACHABLE;
+        }
+
+        // 2. Re-seed the cleared cells from markets and intact neighbours
+        for (int k = 0; k < cleared; k++) {
+            int i = queue[k];
+            queued[i] = false;
+            int d = seedDistance(cells, i);
+            if (d != UNREACHABLE) {
+                distance[i] = (short) d;
+                queue[tail++] = i;
+            }
+        }
+
+        // 3. A newly opened cell or new market can also shorten routes outside the cleared area
+        relax(cells, 0, tail);
+    }
+
+    private int seedDistance(byte[] cells, int i) {
+        if (cells[i] == INACCESSIBLE) return UNREACHABLE;
+        if (cells[i] == MARKET) return 0;
+        int best = UNREACHABLE;
+        for (int n : neighbours(i)) {
+            if (n >= 0) best = Math.min(best, distance[n] & 0xFFFF);
+        }
+        return (best >= MAX_DISTANCE) ? UNREACHABLE : best + 1;
+    }
+
+    /**
+     * Propagates distances outwards from the queued cells until nothing improves. Starting from
+     * markets only this is a plain BFS; with mixed seeds a cell may be improved more than once.
+     */
+    private void relax(byte[] cells, int head, int tail) {
+        int size = queue.length;
+        int count = tail - head;
+        for (int k = head; k < tail; k++) queued[queue[k]] = true;
+        if (tail == size) tail = 0;
+
+        while (count > 0) {
+            int i = queue[head];
+            head = (head + 1 == size) ? 0 : head + 1;
+            count--;
+            queued[i] = false;
+
+            int next = Math.min((distance[i] & 0xFFFF) + 1, MAX_DISTANCE);
+            for (int n : neighbours(i)) {
+                if (n < 0 || cells[n] == INACCESSIBLE || (distance[n] & 0xFFFF) <= next) continue;
+                distance[n] = (short) next;
+                if (!queued[n]) {
+                    queued[n] = true;
+                    queue[tail] = n;
+                    tail = (tail + 1 == size) ? 0 : tail + 1;
+                    count++;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The four neighbour indices of a cell, -1 where off the board. Reuses one array.
+     */
+    private int[] neighbours(int i) {
+        int r = i / width;
+        int c = i % width;
+        neighbourScratch[0] = (r > 0) ? i - width : -1;
+        neighbourScratch[1] = (r < height - 1) ? i + width : -1;
+        neighbourScratch[2] = (c > 0) ? i - 1 : -1;
+        neighbourScratch[3] = (c < width - 1) ? i + 1 : -1;
+        return neighbourScratch;
+    }
+}
@@ -0,0 +1,347 @@
+package board;
+
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+
+/**
+ * Shortest paths between any two cells of a packed grid, moving in 4 directions.
+ *
+ * <p>Two searches are available: plain A* and jump point search (JPS), both with the
+ * Manhattan heuristic (exact lower bound for 4-connected moves). JPS skips over straight runs
+ * of open cells and only queues "jump points" where the path may need to turn, which makes it
+ * much faster on open maps; both return paths of the same length.</p>
+ *
+ * <p>All scratch state (scores, parents, the open-set heap) lives in primitive arrays reused across
+ * queries, and results are written into a caller-supplied array, so a query allocates nothing
+ * once the scratch arrays have grown to fit. Recent paths are cached by (start, goal) in a small direct-mapped table; the cache is dropped
+ * whenever the board's version changes. Not thread-safe: use one PathFinder per thread.</p>
+ */
+public final class PathFinder {
+
+    public enum Algorithm { A_STAR, JUMP_POINT }
+
+    private static final byte INACCESSIBLE = (byte) CellType.INACCESSIBLE.ordinal();
+    private static final int NO_PARENT = -1;
+
+    private final byte[] cells;
+    private final int width;
+    private final int height;
+    private final IntSupplier version;
+
+    // Per-cell search state; a cell's entries are valid only when stamp == current query
+    private final int[] gScore;
+    private final int[] parent;
+    private final int[] stamp;      // 2 * query when seen, 2 * query + 1 when closed
+    private int query;
+
+    // Binary min-heap keyed by (f << 32 | h): ties on f go to the node nearest the goal
+    private long[] heap = new long[256];
+    private int[] heapCells = new int[256];
+    private int heapSize;
+
+    // Path reconstruction scratch (jump points in reverse order)
+    private int[] trace = new int[64];
+
+    // Direct-mapped path cache
+    private final long[] cacheKeys;
+    private final int[] cacheLengths;   // -1 for "no path"
+    private final int[][] cachePaths;   // reused per slot, grown when needed
+    private int cachedVersion;
+
+    /**
+     * @param cells     One CellType ordinal per cell, row-major. Read live, not copied.
+     * @param version   Changes whenever a cell changes, so cached paths can be dropped.
+     * @param cacheSize Number of cached paths (rounded up to a power of two); 0 disables caching.
+     */
+    PathFinder(byte[] cells, int width, int height, IntSupplier version, int cacheSize) {
+        this.cells = cells;
+        this.width = width;
+        this.height = height;
+        this.version = version;
+
+        this.gScore = new int[cells.length];
+        this.parent = new int[cells.length];
+        this.stamp = new int[cells.length];
+
+        int slots = 0;
+        if (cacheSize > 0) {
+            slots = 1;
+            while (slots < cacheSize) slots <<= 1;
+        }
+        this.cacheKeys = new long[slots];
+        this.cacheLengths = new int[slots];
+        this.cachePaths = new int[slots][];
+        Arrays.fill(cacheKeys, -1L);
+        this.cachedVersion = version.getAsInt();
+    }
+
+    /**
+     * Finds a shortest path with jump point search.
+     *
+     * @see #findPath(int, int, int, int, Algorithm, int[])
+     */
+    public int findPath(int startRow, int startCol, int goalRow, int goalCol, int[] path) {
+        return findPath(startRow, startCol, goalRow, goalCol, Algorithm.JUMP_POINT, path);
+    }
+
+    /**
+     * Finds a shortest path and writes its cells ({@code row * width + col}), start and goal included.
+     *
+     * @param path Output array. If it is too short, only its first {@code path.length} cells are written.
+     * @return Number of cells on the path (steps + 1), or -1 if the goal cannot be reached.
+     */
+    public int findPath(int startRow, int startCol, int goalRow, int goalCol, Algorithm algorithm, int[] path) {
+        if (!inBounds(startRow, startCol) || !inBounds(goalRow, goalCol)) {
+            throw new IndexOutOfBoundsException("Invalid coordinate");
+        }
+        int start = startRow * width + startCol;
+        int goal = goalRow * width + goalCol;
+        if (cells[start] == INACCESSIBLE || cells[goal] == INACCESSIBLE) return -1;
+
+        long key = ((long) start << 32) | goal;
+        int slot = cacheSlot(key);
+        if (slot >= 0 && cacheKeys[slot] == key) {
+            int length = cacheLengths[slot];
+            if (length > 0) System.arraycopy(cachePaths[slot], 0, path, 0, Math.min(length, path.length));
+            return length;
+        }
+
+        boolean found = (algorithm == Algorithm.A_STAR) ? aStar(start, goal) : jumpPointSearch(start, goal);
+        int length = found ? writePath(goal, path) : -1;
+
+        // A path longer than the caller's array was only partly written, so it is not cached
+        if (slot >= 0 && length <= path.length) {
+            if (length > 0) {
+                if (cachePaths[slot] == null || cachePaths[slot].length < length) {
+                    cachePaths[slot] = new int[Math.max(length, 16)];
+                }
+                System.arraycopy(path, 0, cachePaths[slot], 0, length);
+            }
+            cacheKeys[slot] = key;
+            cacheLengths[slot] = length;
+        }
+        return length;
+    }
+
+    private int cacheSlot(long key) {
+        if (cacheKeys.length == 0) return -1;
+        int current = version.getAsInt();
+        if (current != cachedVersion) {
+            Arrays.fill(cacheKeys, -1L);
+            cachedVersion = current;
+        }
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (cacheKeys.length - 1);
+    }
+
+    // A*
+
+    private boolean aStar(int start, int goal) {
+        beginQuery(start, goal);
+        while (heapSize > 0) {
+            int current = pollHeap();
+            if (current == goal) return true;
+            if (isClosed(current)) continue;
+            close(current);
+
+            int r = current / width;
+            int c = current % width;
+            if (r > 0) relax(current, current - width, 1, goal);
+            if (r < height - 1) relax(current, current + width, 1, goal);
+            if (c > 0) relax(current, current - 1, 1, goal);
+            if (c < width - 1) relax(current, current + 1, 1, goal);
+        }
+        return false;
+    }
+
+    // JUMP POINT SEARCH (4-connected: vertical moves first, horizontal moves turn only when forced)
+
+    private boolean jumpPointSearch(int start, int goal) {
+        beginQuery(start, goal);
+        while (heapSize > 0) {
+            int current = pollHeap();
+            if (current == goal) return true;
+            if (isClosed(current)) continue;
+            close(current);
+
+            int r = current / width;
+            int c = current % width;
+            int from = parent[current];
+            if (from == NO_PARENT) {
+                jumpAndRelax(current, r, c, -1, 0, goal);
+                jumpAndRelax(current, r, c, 1, 0, goal);
+                jumpAndRelax(current, r, c, 0, -1, goal);
+                jumpAndRelax(current, r, c, 0, 1, goal);
+                continue;
+            }
+
+            int dr = Integer.signum(r - from / width);
+            int dc = Integer.signum(c - from % width);
+            if (dr != 0) {
+                // Arrived vertically: keep going, and branch sideways
+                jumpAndRelax(current, r, c, dr, 0, goal);
+                jumpAndRelax(current, r, c, 0, -1, goal);
+                jumpAndRelax(current, r, c, 0, 1, goal);
+            } else {
+                // Arrived horizontally: keep going, and turn where a wall behind forces it
+                jumpAndRelax(current, r, c, 0, dc, goal);
+                if (isOpen(r - 1, c) && !isOpen(r - 1, c - dc)) jumpAndRelax(current, r, c, -1, 0, goal);
+                if (isOpen(r + 1, c) && !isOpen(r + 1, c - dc)) jumpAndRelax(current, r, c, 1, 0, goal);
+            }
+        }
+        return false;
+    }
+
+    private void jumpAndRelax(int from, int r, int c, int dr, int dc, int goal) {
+        int jumpPoint = (dr != 0) ? jumpVertical(r, c, dr, goal) : jumpHorizontal(r, c, dc, goal);
+        if (jumpPoint >= 0) {
+            int distance = Math.abs(jumpPoint / width - r) + Math.abs(jumpPoint % width - c);
+            relax(from, jumpPoint, distance, goal);
+        }
+    }
+
+    private int jumpHorizontal(int r, int c, int dc, int goal) {
+        while (true) {
+            c += dc;
+            if (!isOpen(r, c)) return -1;
+            int cell = r * width + c;
+            if (cell == goal) return cell;
+            // Forced neighbour: an opening above or below that was walled off one step back
+            if ((isOpen(r - 1, c) && !isOpen(r - 1, c - dc)) || (isOpen(r + 1, c) && !isOpen(r + 1, c - dc))) {
+                return cell;
+            }
+        }
+    }
+
+    private int jumpVertical(int r, int c, int dr, int goal) {
+        while (true) {
+            r += dr;
+            if (!isOpen(r, c)) return -1;
+            int cell = r * width + c;
+            if (cell == goal) return cell;
+            // A vertical run stops wherever a sideways branch leads somewhere interesting
+            if (jumpHorizontal(r, c, -1, goal) >= 0 || jumpHorizontal(r, c, 1, goal) >= 0) return cell;
+        }
+    }
+
+    // SHARED SEARCH STATE
+
+    private void beginQuery(int start, int goal) {
+        query++;
+        if (query == Integer.MAX_VALUE / 2) {
+            // Stamps are about to wrap: reset once
+            Arrays.fill(stamp, 0);
+            query = 1;
+        }
+        heapSize = 0;
+        stamp[start] = 2 * query;
+        gScore[start] = 0;
+        parent[start] = NO_PARENT;
+        pushHeap(0, heuristic(start, goal), start);
+    }
+
+    private void relax(int from, int to, int cost, int goal) {
+        if (cells[to] == INACCESSIBLE) return;
+        int g = gScore[from] + cost;
+        boolean seen = stamp[to] >= 2 * query;
+        if (seen && (isClosed(to) || g >= gScore[to])) return;
+
+        stamp[to] = 2 * query;
+        gScore[to] = g;
+        parent[to] = from;
+        pushHeap(g, heuristic(to, goal), to);
+    }
+
+    private boolean isClosed(int cell) {
+        return stamp[cell] == 2 * query + 1;
+    }
+
+    private void close(int cell) {
+        stamp[cell] = 2 * query + 1;
+    }
+
+    private int heuristic(int cell, int goal) {
+        return Math.abs(cell / width - goal / width) + Math.abs(cell % width - goal % width);
+    }
+
+    private boolean inBounds(int r, int c) {
+        return r >= 0 && r < height && c >= 0 && c < width;
+    }
+
+    private boolean isOpen(int r, int c) {
+        return inBounds(r, c) && cells[r * width + c] != INACCESSIBLE;
+    }
+
+    /**
+     * Follows parents from the goal back to the start, filling in the cells between jump points.
+     */
+    private int writePath(int goal, int[] path) {
+        int points = 0;
+        for (int cell = goal; cell != NO_PARENT; cell = parent[cell]) {
+            if (points == trace.length) trace = Arrays.copyOf(trace, points * 2);
+            trace[points++] = cell;
+        }
+
+        int length = 0;
+        for (int p = points - 1; p >= 0; p--) {
+            int cell = trace[p];
+            if (p == points - 1) {
+                if (length < path.length) path[length] = cell;
+                length++;
+                continue;
+            }
+            // Walk the straight segment from the previous point, excluding it
+            int prev = trace[p + 1];
+            int step = (cell / width != prev / width) ? Integer.signum(cell / width - prev / width) * width
+                    : Integer.signum(cell % width - prev % width);
+            for (int i = prev + step; ; i += step) {
+                if (length < path.length) path[length] = i;
+                length++;
+                if (i == cell) break;
+            }
+        }
+        return length;
+    }
+
+    // MIN-HEAP
+
+    private void pushHeap(int g, int h, int cell) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+            heapCells = Arrays.copyOf(heapCells, heapSize * 2);
+        }
+        long key = ((long) (g + h) << 32) | h;
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heap[up] <= key) break;
+            heap[i] = heap[up];
+            heapCells[i] = heapCells[up];
+            i = up;
+        }
+        heap[i] = key;
+        heapCells[i] = cell;
+    }
+
+    /**
+     * @return The cell with the lowest f, preferring the lowest h among equals.
+     */
+    private int pollHeap() {
+        int top = heapCells[0];
+        long lastKey = heap[--heapSize];
+        int lastCell = heapCells[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) child++;
+            if (heap[child] >= lastKey) break;
+            heap[i] = heap[child];
+            heapCells[i] = heapCells[child];
+            i = child;
+        }
+        heap[i] = lastKey;
+        heapCells[i] = lastCell;
+        return top;
+    }
+}
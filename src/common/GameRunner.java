@@ -1,6 +1,11 @@
 package common;
 
+import game.EconomyJournal;
+import game.GameOptions;
 import game.LegendsGame;
+import game.SaveFile;
+
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 /**
@@ -9,14 +14,20 @@ import java.util.Scanner;
  */
 public class GameRunner {
 
+    /** The local game autosaves here and offers to continue from it on the next start. */
+    private static final String SAVE_FILE = "legends.save";
+    /** Purchases, sales and rewards since the last autosave; replayed into the save on the next start. */
+    private static final String JOURNAL_FILE = "legends.journal";
+
     /**
      * Safely starts the game loop.
      * Any unhandled exceptions during the game's lifecycle will be caught here.
      */
     public static void run() {
-        try (Scanner scanner = new Scanner(System.in)) {
+        try (Scanner scanner = new Scanner(System.in); SaveFile saveFile = SaveFile.open(Paths.get(SAVE_FILE));
+             EconomyJournal journal = EconomyJournal.open(Paths.get(JOURNAL_FILE))) {
             // Instantiate and play the specific game implementation
-            new LegendsGame().play(scanner);
+            new LegendsGame(GameOptions.builder().saveFile(saveFile).journal(journal).build()).play(scanner);
         } catch (Exception e) {
             // Delegate critical failure handling to the dedicated ErrorHandler
             ErrorHandler.handleFatalError(e);
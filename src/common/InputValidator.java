@@ -1,5 +1,6 @@
 package common;
 
+import java.io.PrintStream;
 import java.util.Scanner;
 import java.util.function.Predicate;
 
@@ -10,6 +11,15 @@ import java.util.function.Predicate;
  */
 public class InputValidator {
 
+    /**
+     * Notified of every answer accepted by the calls it is passed to (e.g. to record a session for replay).
+     * Rejected input is not reported: it only produced an error message.
+     */
+    public interface InputListener {
+        void intAccepted(int value);
+        void textAccepted(String value);
+    }
+
     /**
      * Prompts the user for an integer within a specific range [min, max].
      * Loops until valid input is received.
@@ -21,19 +31,38 @@ public class InputValidator {
      * @return A valid integer within the range.
      */
     public static int getValidInt(Scanner scanner, String prompt, int min, int max) {
+        return getValidInt(scanner, System.out, prompt, min, max);
+    }
+
+    /**
+     * Same as {@link #getValidInt(Scanner, String, int, int)}, writing prompts to the given stream.
+     * The prompt is flushed before reading so it reaches buffered or remote terminals.
+     */
+    public static int getValidInt(Scanner scanner, PrintStream out, String prompt, int min, int max) {
+        return getValidInt(scanner, out, null, prompt, min, max);
+    }
+
+    /**
+     * Same as {@link #getValidInt(Scanner, PrintStream, String, int, int)}, reporting the answer to the
+     * listener (null to report nothing).
+     */
+    public static int getValidInt(Scanner scanner, PrintStream out, InputListener listener, String prompt,
+                                  int min, int max) {
         while (true) {
-            System.out.print(prompt);
+            out.print(prompt);
+            out.flush();
             String input = scanner.nextLine().trim();
 
             try {
                 int value = Integer.parseInt(input);
                 if (value >= min && value <= max) {
+                    if (listener != null) listener.intAccepted(value);
                     return value;
                 } else {
-                    System.out.println("Invalid input. Please enter a number between " + min + " and " + max + ".");
+                    out.println("Invalid input. Please enter a number between " + min + " and " + max + ".");
                 }
             } catch (NumberFormatException e) {
-                System.out.println("Invalid input. Please enter a valid integer.");
+                out.println("Invalid input. Please enter a valid integer.");
             }
         }
     }
@@ -46,14 +75,30 @@ public class InputValidator {
      * @return A non-empty, trimmed string.
      */
     public static String getValidString(Scanner scanner, String prompt) {
+        return getValidString(scanner, System.out, prompt);
+    }
+
+    /**
+     * Same as {@link #getValidString(Scanner, String)}, writing prompts to the given stream.
+     */
+    public static String getValidString(Scanner scanner, PrintStream out, String prompt) {
+        return getValidString(scanner, out, null, prompt);
+    }
+
+    /**
+     * Same as {@link #getValidString(Scanner, PrintStream, String)}, reporting the answer to the listener.
+     */
+    public static String getValidString(Scanner scanner, PrintStream out, InputListener listener, String prompt) {
         while (true) {
-            System.out.print(prompt);
+            out.print(prompt);
+            out.flush();
             String input = scanner.nextLine().trim();
 
             if (!input.isEmpty()) {
+                if (listener != null) listener.textAccepted(input);
                 return input;
             }
-            System.out.println("Input cannot be empty. Please try again.");
+            out.println("Input cannot be empty. Please try again.");
         }
     }
 
@@ -67,16 +112,33 @@ public class InputValidator {
      * @return The valid string entered by the user (normalized to lowercase).
      */
     public static String getValidOption(Scanner scanner, String prompt, String... validOptions) {
+        return getValidOption(scanner, System.out, prompt, validOptions);
+    }
+
+    /**
+     * Same as {@link #getValidOption(Scanner, String, String...)}, writing prompts to the given stream.
+     */
+    public static String getValidOption(Scanner scanner, PrintStream out, String prompt, String... validOptions) {
+        return getValidOption(scanner, out, null, prompt, validOptions);
+    }
+
+    /**
+     * Same as {@link #getValidOption(Scanner, PrintStream, String, String...)}, reporting the answer to the listener.
+     */
+    public static String getValidOption(Scanner scanner, PrintStream out, InputListener listener, String prompt,
+                                        String... validOptions) {
         while (true) {
-            System.out.print(prompt);
+            out.print(prompt);
+            out.flush();
             String input = scanner.nextLine().trim().toLowerCase();
 
             for (String option : validOptions) {
                 if (input.equals(option.toLowerCase())) {
+                    if (listener != null) listener.textAccepted(input);
                     return input;
                 }
             }
-            System.out.println("Invalid command. Accepted options: " + String.join(", ", validOptions));
+            out.println("Invalid command. Accepted options: " + String.join(", ", validOptions));
         }
     }
-}
\ No newline at end of file
+}
@@ -1,24 +1,44 @@
 package common;
 
-import java.util.Random;
+import java.security.SecureRandom;
 
 /**
- * Singleton utility for random number generation.
+ * Utility for random number generation.
  * Centralizes randomness to allow for deterministic seeding during testing.
+ *
+ * <p>The shared instance from {@link #getInstance()} serves the interactive game. A single
+ * generator is not thread-safe: concurrent code should give each worker its own stream,
+ * either from {@link #RandomGenerator(long)} or by calling {@link #split()}.</p>
+ *
+ * <p>Implements the SplitMix64 algorithm of {@link java.util.SplittableRandom} (same sequence for
+ * the same seed), keeping its two-word state in fields so a saved game can store and restore it.</p>
  */
 public class RandomGenerator {
-    private static RandomGenerator instance;
-    private final Random random;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final RandomGenerator INSTANCE = new RandomGenerator();
+
+    private long state;
+    private long gamma;
 
     private RandomGenerator() {
-        this.random = new Random();
+        this(new SecureRandom().nextLong());
+    }
+
+    /**
+     * Creates an independent generator with a fixed seed (reproducible sequence).
+     * @param seed The long seed value.
+     */
+    public RandomGenerator(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private RandomGenerator(long state, long gamma) {
+        this.state = state;
+        this.gamma = gamma;
     }
 
     public static RandomGenerator getInstance() {
-        if (instance == null) {
-            instance = new RandomGenerator();
-        }
-        return instance;
+        return INSTANCE;
     }
 
     /**
@@ -26,21 +46,90 @@ public class RandomGenerator {
      * @param seed The long seed value.
      */
     public void setSeed(long seed) {
-        this.random.setSeed(seed);
+        this.state = seed;
+        this.gamma = GOLDEN_GAMMA;
+    }
+
+    /**
+     * @return The current position in the sequence; with {@link #getGamma()}, all the generator's state.
+     */
+    public long getState() {
+        return state;
+    }
+
+    public long getGamma() {
+        return gamma;
+    }
+
+    /**
+     * Continues the sequence from a state saved with {@link #getState()} and {@link #getGamma()}.
+     */
+    public void restoreState(long state, long gamma) {
+        if ((gamma & 1) == 0) {
+            throw new IllegalArgumentException("Gamma must be odd");
+        }
+        this.state = state;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Creates a new generator whose sequence is statistically independent of this one.
+     * The result depends only on this generator's state, so a fixed seed and split order
+     * always produce the same streams.
+     */
+    public RandomGenerator split() {
+        return new RandomGenerator(nextLong(), mixGamma(nextSeed()));
     }
 
     public int nextInt(int bound) {
-        return random.nextInt(bound);
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        int r = mix32(nextSeed());
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        // Reject the few values that would bias the result toward small numbers
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) { }
+        return r;
+    }
+
+    public long nextLong() {
+        return mix64(nextSeed());
     }
 
     public double nextDouble() {
-        return random.nextDouble();
+        return (nextLong() >>> 11) * 0x1.0p-53;
     }
 
     /**
      * Returns a random integer in the range [min, max].
      */
     public int nextInt(int min, int max) {
-        return random.nextInt((max - min) + 1) + min;
+        return nextInt((max - min) + 1) + min;
+    }
+
+    private long nextSeed() {
+        return state += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
     }
-}
\ No newline at end of file
+}
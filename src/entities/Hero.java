@@ -52,12 +52,18 @@ public class Hero extends RPGCharacter {
         this.hp = this.level * 100;
     }
 
-    public void gainExperience(int amount) {
+    /**
+     * Adds experience and levels up once the threshold is reached.
+     * @return true if the hero leveled up.
+     */
+    public boolean gainExperience(int amount) {
         this.experience += amount;
         // Experience points to level up = hero_current_level * 10
         if (this.experience >= this.level * 10) {
             levelUp();
+            return true;
         }
+        return false;
     }
 
     private void levelUp() {
@@ -91,8 +97,6 @@ public class Hero extends RPGCharacter {
             agility *= standardFactor;
             dexterity *= favoredFactor;
         }
-
-        System.out.println(this.name + " leveled up to " + this.level + "!");
     }
 
     public void revive() {
@@ -102,12 +106,10 @@ public class Hero extends RPGCharacter {
 
     public void equipWeapon(Weapon weapon) {
         this.equippedWeapon = weapon;
-        System.out.println(this.name + " equipped " + weapon.getName());
     }
 
     public void equipArmor(Armor armor) {
         this.equippedArmor = armor;
-        System.out.println(this.name + " equipped " + armor.getName());
     }
 
     public Weapon getEquippedWeapon() {
@@ -151,6 +153,17 @@ public class Hero extends RPGCharacter {
 
     public int getExperience() { return experience; }
 
+    /**
+     * Sets level and experience directly, without level-up bonuses (used when loading a saved game).
+     */
+    public void restoreProgress(int level, int experience) {
+        if (level < 1) {
+            throw new IllegalArgumentException("Level must be at least 1.");
+        }
+        this.level = level;
+        this.experience = experience;
+    }
+
     @Override
     public String toString() {
         return String.format(
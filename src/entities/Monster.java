@@ -44,6 +44,24 @@ public class Monster extends RPGCharacter {
         return dodgeChance * 0.01;
     }
 
+    /**
+     * @return The dodge chance as loaded (0-100), for copying a monster exactly; scaling it back
+     *         from {@link #getDodgeChance()} does not round-trip.
+     */
+    public double getRawDodgeChance() {
+        return dodgeChance;
+    }
+
+    /**
+     * Restores a reused monster to freshly spawned stats at its level (full HP, no debuffs).
+     */
+    public void reset(double baseDamage, double defense, double dodgeChance) {
+        this.baseDamage = baseDamage;
+        this.defense = defense;
+        this.dodgeChance = dodgeChance;
+        this.hp = level * 100;
+    }
+
     public void reduceDefense(double amount) {
         this.defense = Math.max(0, this.defense - amount);
     }
@@ -45,6 +45,17 @@ public class Party {
         return heroes.size();
     }
 
+    /**
+     * @return The level of the party's highest-level hero (1 for an empty party).
+     */
+    public int getHighestLevel() {
+        int level = 1;
+        for (Hero h : heroes) {
+            level = Math.max(level, h.getLevel());
+        }
+        return level;
+    }
+
     // Location Management
     public void setLocation(int row, int col) {
         this.row = row;
@@ -0,0 +1,52 @@
+package game;
+
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import items.Item;
+import items.Spell;
+
+import java.util.List;
+
+/**
+ * Non-interactive BattlePolicy for bots and simulations.
+ * Casts the first affordable spell if one exists, otherwise attacks; always targets the weakest monster.
+ */
+public class AutoBattlePolicy implements BattlePolicy {
+
+    @Override
+    public Action chooseAction(Hero hero, Party party, List<Monster> enemies) {
+        return (findAffordableSpell(hero) != null) ? Action.CAST_SPELL : Action.ATTACK;
+    }
+
+    @Override
+    public Monster chooseTarget(Hero hero, List<Monster> aliveEnemies) {
+        Monster weakest = aliveEnemies.get(0);
+        for (int i = 1; i < aliveEnemies.size(); i++) {
+            Monster m = aliveEnemies.get(i);
+            if (m.getHp() < weakest.getHp()) weakest = m;
+        }
+        return weakest;
+    }
+
+    @Override
+    public ItemChoice chooseEquipmentType(Hero hero) {
+        return ItemChoice.WEAPON;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Item> T chooseItem(Hero hero, ItemChoice kind, List<T> options) {
+        if (kind == ItemChoice.SPELL) {
+            return (T) findAffordableSpell(hero);
+        }
+        return options.get(0);
+    }
+
+    private Spell findAffordableSpell(Hero hero) {
+        for (Spell s : hero.getInventory().getSpells()) {
+            if (s.getManaCost() <= hero.getMana()) return s;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,372 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import items.*;
+import items.Spell.SpellType;
+import utils.SpawnTables;
+import game.BattleEventSink.Rejection;
+import game.BattlePolicy.ItemChoice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless turn-based combat engine.
+ * Holds all battle rules (spawning, damage, dodging, rewards) with no console I/O:
+ * decisions come from a {@link BattlePolicy} and outcomes are reported to a {@link BattleEventSink}.
+ */
+public class BattleEngine {
+
+    private final SpawnTables spawnTables;
+    private final RandomGenerator rng;
+    private final int roundLimit;
+
+    // Battles started here reuse their monsters and enemy list
+    private final MonsterPool monsterPool;
+    private final List<Monster> spawned = new ArrayList<>();
+
+    public BattleEngine(List<Monster> monsterCatalog) {
+        this(monsterCatalog, RandomGenerator.getInstance());
+    }
+
+    public BattleEngine(List<Monster> monsterCatalog, RandomGenerator rng) {
+        this(monsterCatalog, rng, 0);
+    }
+
+    /**
+     * @param roundLimit Maximum number of rounds before the battle is called a stalemate (0 = unlimited).
+     *                   Bots can get stuck when neither side can deal damage, so simulations should set one.
+     */
+    public BattleEngine(List<Monster> monsterCatalog, RandomGenerator rng, int roundLimit) {
+        this(SpawnTables.uniform(monsterCatalog), rng, roundLimit);
+    }
+
+    /**
+     * @param spawnTables Which template to spawn at each level (e.g. {@link utils.AssetCatalog#getSpawnTables()}).
+     */
+    public BattleEngine(SpawnTables spawnTables, RandomGenerator rng, int roundLimit) {
+        this.spawnTables = spawnTables;
+        this.rng = rng;
+        this.roundLimit = roundLimit;
+        this.monsterPool = new MonsterPool(spawnTables.getTemplates());
+    }
+
+    /**
+     * Spawns monsters scaled to the party and fights until one side is defeated.
+     * The monsters are pooled: they are reused by the next battle, so sinks must not keep them.
+     */
+    public BattleResult startBattle(Party party, BattlePolicy policy, BattleEventSink sink) {
+        spawned.clear();
+        spawnInto(party, spawned, true);
+        try {
+            return fight(party, spawned, policy, sink);
+        } finally {
+            monsterPool.releaseAll();
+        }
+    }
+
+    /**
+     * Fights a specific group of monsters.
+     *
+     * @param party   The heroes taking part.
+     * @param enemies The monsters to fight (modified in place).
+     * @param policy  Decides each hero's action.
+     * @param sink    Receives battle events; use {@link BattleEventSink#NONE} for silent runs.
+     * @return The outcome of the battle.
+     */
+    public BattleResult fight(Party party, List<Monster> enemies, BattlePolicy policy, BattleEventSink sink) {
+        BattleResult result = new BattleResult(enemies.size());
+        sink.battleStarted(enemies);
+
+        int round = 1;
+        while (true) {
+            sink.roundStarted(round);
+
+            if (!processHeroesTurn(party, enemies, policy, sink, result)) {
+                sink.battleAbandoned();
+                result.finish(BattleResult.Outcome.QUIT, round);
+                return result;
+            }
+
+            if (allFainted(enemies)) {
+                processVictory(party, enemies, sink, result);
+                result.finish(BattleResult.Outcome.VICTORY, round);
+                return result;
+            }
+
+            processMonstersTurn(party, enemies, sink, result);
+
+            if (party.isPartyWipedOut()) {
+                sink.partyDefeated();
+                result.finish(BattleResult.Outcome.DEFEAT, round);
+                return result;
+            }
+
+            performRegeneration(party, sink);
+
+            if (roundLimit > 0 && round >= roundLimit) {
+                result.finish(BattleResult.Outcome.STALEMATE, round);
+                return result;
+            }
+            round++;
+        }
+    }
+
+    /**
+     * @return New monsters scaled to the party, owned by the caller.
+     */
+    public List<Monster> spawnMonsters(Party party) {
+        List<Monster> enemies = new ArrayList<>();
+        spawnInto(party, enemies, false);
+        return enemies;
+    }
+
+    /**
+     * One template per hero from the level's spawn table, scaled to the party's highest level.
+     * Scaled stats come from the pool's cache; pooled monsters go back to it after the battle.
+     */
+    private void spawnInto(Party party, List<Monster> enemies, boolean pooled) {
+        int partySize = party.getSize();
+
+        int targetLevel = 1;
+        for (Hero h : party.getHeroes()) {
+            targetLevel = Math.max(targetLevel, h.getLevel());
+        }
+
+        SpawnTables.Table table = spawnTables.forLevel(targetLevel);
+        for (int i = 0; i < partySize; i++) {
+            int template = table.pick(rng);
+            enemies.add(pooled ? monsterPool.acquire(template, targetLevel) : monsterPool.create(template, targetLevel));
+        }
+    }
+
+    private boolean processHeroesTurn(Party party, List<Monster> enemies, BattlePolicy policy,
+                                      BattleEventSink sink, BattleResult result) {
+        for (Hero hero : party.getHeroes()) {
+            if (hero.isFainted()) continue;
+            if (allFainted(enemies)) break;
+
+            sink.heroTurn(hero);
+
+            boolean actionTaken = false;
+            while (!actionTaken) {
+                switch (policy.chooseAction(hero, party, enemies)) {
+                    case ATTACK: actionTaken = performAttack(hero, enemies, policy, sink, result); break;
+                    case CAST_SPELL: actionTaken = performSpell(hero, enemies, policy, sink, result); break;
+                    case USE_POTION: actionTaken = performPotion(hero, policy, sink); break;
+                    case EQUIP: performEquip(hero, policy, sink); break;
+                    case INFO: sink.battleStatus(party, enemies); break;
+                    case QUIT: return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    boolean performAttack(Hero hero, List<Monster> enemies, BattlePolicy policy,
+                          BattleEventSink sink, BattleResult result) {
+        Monster target = selectMonster(hero, enemies, policy);
+        if (target == null) return false;
+
+        // CAP MONSTER DODGE AT 30% (Making it 70% chance to hit at worst)
+        double monsterDodge = Math.min(0.30, target.getDodgeChance());
+
+        if (rng.nextDouble() < monsterDodge) {
+            sink.monsterDodged(hero, target);
+            return true;
+        }
+
+        double weaponDmg = (hero.getEquippedWeapon() != null) ? hero.getEquippedWeapon().getDamage() : 0;
+        double rawDamage = (hero.getStrength() + weaponDmg) * 0.05;
+
+        double actualDamage = Math.max(0, rawDamage - (target.getDefense() * 0.05));
+
+        target.setHp(target.getHp() - actualDamage);
+        result.addDamageDealt(actualDamage);
+        sink.heroAttacked(hero, target, actualDamage);
+
+        if (target.isFainted()) sink.monsterDefeated(target);
+
+        return true;
+    }
+
+    boolean performSpell(Hero hero, List<Monster> enemies, BattlePolicy policy,
+                         BattleEventSink sink, BattleResult result) {
+        List<Spell> spells = hero.getInventory().getSpells();
+        if (spells.isEmpty()) {
+            sink.actionRejected(hero, Rejection.NO_SPELLS);
+            return false;
+        }
+
+        Spell spell = policy.chooseItem(hero, ItemChoice.SPELL, spells);
+        if (spell == null) return false;
+
+        if (hero.getMana() < spell.getManaCost()) {
+            sink.actionRejected(hero, Rejection.NOT_ENOUGH_MANA);
+            return false;
+        }
+
+        Monster target = selectMonster(hero, enemies, policy);
+        if (target == null) return false;
+
+        hero.setMana(hero.getMana() - spell.getManaCost());
+
+        double damage = spell.getDamage() + ((hero.getDexterity() / 10000.0) * spell.getDamage());
+        target.setHp(target.getHp() - damage);
+        result.addDamageDealt(damage);
+
+        if (!target.isFainted()) {
+            if (spell.getType() == SpellType.ICE) {
+                target.reduceDamage(target.getBaseDamage() * 0.1);
+            } else if (spell.getType() == SpellType.FIRE) {
+                target.reduceDefense(target.getDefense() * 0.1);
+            } else if (spell.getType() == SpellType.LIGHTNING) {
+                target.reduceDodgeChance(target.getDodgeChance() * 0.1);
+            }
+            sink.spellDebuff(target, spell.getType());
+        }
+
+        sink.spellCast(hero, spell, target, damage);
+        hero.getInventory().removeItem(spell);
+        return true;
+    }
+
+    boolean performPotion(Hero hero, BattlePolicy policy, BattleEventSink sink) {
+        List<Potion> potions = hero.getInventory().getPotions();
+        if (potions.isEmpty()) {
+            sink.actionRejected(hero, Rejection.NO_POTIONS);
+            return false;
+        }
+
+        Potion potion = policy.chooseItem(hero, ItemChoice.POTION, potions);
+        if (potion == null) return false;
+
+        double val = potion.getAttributeIncrease();
+        if (potion.affects("Health")) hero.setHp(hero.getHp() + val);
+        if (potion.affects("Mana")) hero.setMana(hero.getMana() + val);
+        if (potion.affects("Strength")) hero.setStrength(hero.getStrength() + val);
+        if (potion.affects("Dexterity")) hero.setDexterity(hero.getDexterity() + val);
+        if (potion.affects("Agility")) hero.setAgility(hero.getAgility() + val);
+
+        sink.potionUsed(hero, potion);
+        hero.getInventory().removeItem(potion);
+        return true;
+    }
+
+    void performEquip(Hero hero, BattlePolicy policy, BattleEventSink sink) {
+        if (policy.chooseEquipmentType(hero) == ItemChoice.WEAPON) {
+            List<Weapon> weps = hero.getInventory().getWeapons();
+            if (weps.isEmpty()) { sink.actionRejected(hero, Rejection.NO_WEAPONS); return; }
+            Weapon weapon = policy.chooseItem(hero, ItemChoice.WEAPON, weps);
+            if (weapon == null) return;
+            hero.equipWeapon(weapon);
+            sink.itemEquipped(hero, weapon);
+        } else {
+            List<Armor> arms = hero.getInventory().getArmor();
+            if (arms.isEmpty()) { sink.actionRejected(hero, Rejection.NO_ARMOR); return; }
+            Armor armor = policy.chooseItem(hero, ItemChoice.ARMOR, arms);
+            if (armor == null) return;
+            hero.equipArmor(armor);
+            sink.itemEquipped(hero, armor);
+        }
+    }
+
+    void processMonstersTurn(Party party, List<Monster> enemies, BattleEventSink sink, BattleResult result) {
+        List<Hero> heroes = party.getHeroes();
+
+        for (Monster monster : enemies) {
+            if (monster.isFainted()) continue;
+
+            // Count the living heroes instead of collecting them into a new list
+            int aliveCount = 0;
+            for (Hero h : heroes) {
+                if (!h.isFainted()) aliveCount++;
+            }
+            if (aliveCount == 0) break;
+
+            Hero target = nthAlive(heroes, rng.nextInt(aliveCount));
+
+            // CAP HERO DODGE AT 75% (Heroes can be very dodgy, but not invincible)
+            double heroDodgeChance = target.getAgility() / (target.getAgility() + 1000.0);
+            heroDodgeChance = Math.min(0.75, heroDodgeChance);
+
+            if (rng.nextDouble() < heroDodgeChance) {
+                sink.heroDodged(monster, target);
+                continue;
+            }
+
+            double rawDmg = monster.getBaseDamage();
+            double mitigation = (target.getEquippedArmor() != null) ? target.getEquippedArmor().getDamageReduction() : 0;
+            double finalDmg = Math.max(0, rawDmg - (mitigation * 0.2));
+
+            target.setHp(target.getHp() - finalDmg);
+            result.addDamageTaken(finalDmg);
+            sink.monsterAttacked(monster, target, finalDmg);
+
+            if (target.isFainted()) {
+                sink.heroFainted(target);
+            }
+        }
+    }
+
+    private void performRegeneration(Party party, BattleEventSink sink) {
+        for (Hero h : party.getHeroes()) {
+            if (!h.isFainted()) {
+                h.setHp(h.getHp() * 1.1);
+                h.setMana(h.getMana() * 1.1);
+            }
+        }
+        sink.regenerated(party);
+    }
+
+    private void processVictory(Party party, List<Monster> enemies, BattleEventSink sink, BattleResult result) {
+        double levelSum = 0;
+        for (Monster m : enemies) {
+            levelSum += m.getLevel();
+        }
+        double goldReward = levelSum * 100;
+        int xpReward = enemies.size() * 2;
+
+        result.setRewards(goldReward, xpReward);
+        sink.victory(goldReward, xpReward);
+
+        for (Hero h : party.getHeroes()) {
+            if (h.isFainted()) {
+                sink.heroRevived(h);
+                h.revive();
+            } else {
+                h.addMoney(goldReward);
+                if (h.gainExperience(xpReward)) {
+                    sink.heroLeveledUp(h);
+                }
+            }
+        }
+    }
+
+    private Monster selectMonster(Hero hero, List<Monster> enemies, BattlePolicy policy) {
+        List<Monster> alive = new ArrayList<>(enemies.size());
+        for (Monster m : enemies) {
+            if (!m.isFainted()) alive.add(m);
+        }
+        if (alive.isEmpty()) return null;
+
+        return policy.chooseTarget(hero, alive);
+    }
+
+    private static boolean allFainted(List<Monster> enemies) {
+        for (Monster m : enemies) {
+            if (!m.isFainted()) return false;
+        }
+        return true;
+    }
+
+    private static Hero nthAlive(List<Hero> heroes, int n) {
+        for (Hero h : heroes) {
+            if (!h.isFainted() && n-- == 0) return h;
+        }
+        throw new IllegalStateException("No living hero at index " + n);
+    }
+}
@@ -0,0 +1,59 @@
+package game;
+
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import items.Item;
+import items.Potion;
+import items.Spell;
+import items.Spell.SpellType;
+
+import java.util.List;
+
+/**
+ * Receives everything that happens during a battle.
+ * The BattleEngine only passes raw values; formatting is left to the implementation,
+ * so headless runs using {@link #NONE} do no string work at all.
+ */
+public interface BattleEventSink {
+
+    /**
+     * Sink that ignores every event. Used for simulations.
+     */
+    BattleEventSink NONE = new BattleEventSink() { };
+
+    /**
+     * Reasons a chosen action could not be carried out.
+     */
+    enum Rejection {
+        NO_SPELLS, NOT_ENOUGH_MANA, NO_POTIONS, NO_WEAPONS, NO_ARMOR
+    }
+
+    default void battleStarted(List<Monster> enemies) { }
+    default void roundStarted(int round) { }
+    default void heroTurn(Hero hero) { }
+    default void actionRejected(Hero hero, Rejection reason) { }
+    default void battleStatus(Party party, List<Monster> enemies) { }
+    default void battleAbandoned() { }
+
+    // Hero actions
+    default void heroAttacked(Hero hero, Monster target, double damage) { }
+    default void monsterDodged(Hero hero, Monster target) { }
+    default void monsterDefeated(Monster monster) { }
+    default void spellDebuff(Monster target, SpellType type) { }
+    default void spellCast(Hero hero, Spell spell, Monster target, double damage) { }
+    default void potionUsed(Hero hero, Potion potion) { }
+    default void itemEquipped(Hero hero, Item item) { }
+
+    // Monster actions
+    default void monsterAttacked(Monster monster, Hero target, double damage) { }
+    default void heroDodged(Monster monster, Hero target) { }
+    default void heroFainted(Hero hero) { }
+
+    // End of round / battle
+    default void regenerated(Party party) { }
+    default void partyDefeated() { }
+    default void victory(double goldReward, int xpReward) { }
+    default void heroRevived(Hero hero) { }
+    default void heroLeveledUp(Hero hero) { }
+}
@@ -0,0 +1,51 @@
+package game;
+
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import items.Item;
+
+import java.util.List;
+
+/**
+ * Strategy interface deciding what each Hero does during a battle.
+ * Replaces direct Scanner prompts so the BattleEngine can be driven by a human, a bot, or a replay.
+ */
+public interface BattlePolicy {
+
+    /**
+     * The top-level menu options available to a Hero on their turn.
+     */
+    enum Action {
+        ATTACK, CAST_SPELL, USE_POTION, EQUIP, INFO, QUIT
+    }
+
+    /**
+     * The kind of item the engine is asking the policy to pick.
+     */
+    enum ItemChoice {
+        SPELL, POTION, WEAPON, ARMOR
+    }
+
+    /**
+     * Picks the action for the current Hero.
+     */
+    Action chooseAction(Hero hero, Party party, List<Monster> enemies);
+
+    /**
+     * Picks a target from the living monsters (never empty).
+     * @return the chosen monster, or null to cancel the action.
+     */
+    Monster chooseTarget(Hero hero, List<Monster> aliveEnemies);
+
+    /**
+     * Picks which equipment slot to change (WEAPON or ARMOR).
+     */
+    ItemChoice chooseEquipmentType(Hero hero);
+
+    /**
+     * Picks an item of the requested kind from a non-empty list.
+     * @return the chosen item, or null to cancel the action.
+     */
+    <T extends Item> T chooseItem(Hero hero, ItemChoice kind, List<T> options);
+}
@@ -0,0 +1,52 @@
+package game;
+
+/**
+ * Summary of a finished battle, returned by the BattleEngine instead of console output.
+ */
+public class BattleResult {
+
+    public enum Outcome {
+        VICTORY, DEFEAT, QUIT, STALEMATE
+    }
+
+    private Outcome outcome;
+    private int rounds;
+    private int monsterCount;
+    private double damageDealt;
+    private double damageTaken;
+    private double goldReward;
+    private int xpReward;
+
+    BattleResult(int monsterCount) {
+        this.monsterCount = monsterCount;
+    }
+
+    // Accumulators used by the engine while the battle runs
+    void finish(Outcome outcome, int rounds) {
+        this.outcome = outcome;
+        this.rounds = rounds;
+    }
+
+    void addDamageDealt(double amount) { this.damageDealt += amount; }
+    void addDamageTaken(double amount) { this.damageTaken += amount; }
+
+    void setRewards(double goldReward, int xpReward) {
+        this.goldReward = goldReward;
+        this.xpReward = xpReward;
+    }
+
+    public Outcome getOutcome() { return outcome; }
+    public boolean isVictory() { return outcome == Outcome.VICTORY; }
+    public int getRounds() { return rounds; }
+    public int getMonsterCount() { return monsterCount; }
+    public double getDamageDealt() { return damageDealt; }
+    public double getDamageTaken() { return damageTaken; }
+    public double getGoldReward() { return goldReward; }
+    public int getXpReward() { return xpReward; }
+
+    @Override
+    public String toString() {
+        return String.format("%s after %d rounds | Dealt: %.0f | Taken: %.0f | Gold: %.0f | XP: %d",
+                outcome, rounds, damageDealt, damageTaken, goldReward, xpReward);
+    }
+}
@@ -0,0 +1,124 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Monster;
+import entities.Party;
+import utils.SpawnTables;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Monte Carlo battle simulator with no console I/O.
+ * Spreads N battles for one party/monster matchup across a ForkJoinPool and aggregates the results.
+ *
+ * <p>The battle range is split recursively into fixed-size shards and the random stream is split
+ * alongside it. Since the split tree depends only on the battle count, a given seed yields the same
+ * report whatever the pool's parallelism.</p>
+ */
+public class BattleSimulator {
+
+    private static final int SHARD_SIZE = 256;
+    private static final int DEFAULT_ROUND_LIMIT = 200;
+
+    private final SpawnTables spawnTables;
+    private final Supplier<Party> partyFactory;
+    private final Supplier<? extends BattlePolicy> policyFactory;
+    private final ForkJoinPool pool;
+    private final int roundLimit;
+
+    /**
+     * Simulator using {@link AutoBattlePolicy} on the common pool.
+     *
+     * @param monsterCatalog Monster templates to spawn from (read-only, shared by all workers).
+     * @param partyFactory   Must return a fresh Party for every battle, since battles modify heroes.
+     */
+    public BattleSimulator(List<Monster> monsterCatalog, Supplier<Party> partyFactory) {
+        this(monsterCatalog, partyFactory, AutoBattlePolicy::new, ForkJoinPool.commonPool(), DEFAULT_ROUND_LIMIT);
+    }
+
+    /**
+     * @param policyFactory Called once per shard, so policies may keep per-worker state.
+     * @param pool          Pool to run on; owned by the caller.
+     * @param roundLimit    Rounds after which a battle counts as a stalemate.
+     */
+    public BattleSimulator(List<Monster> monsterCatalog, Supplier<Party> partyFactory,
+                           Supplier<? extends BattlePolicy> policyFactory, ForkJoinPool pool, int roundLimit) {
+        this(SpawnTables.uniform(monsterCatalog), partyFactory, policyFactory, pool, roundLimit);
+    }
+
+    /**
+     * @param spawnTables Which monsters to spawn at each level (read-only, shared by all workers).
+     */
+    public BattleSimulator(SpawnTables spawnTables, Supplier<Party> partyFactory,
+                           Supplier<? extends BattlePolicy> policyFactory, ForkJoinPool pool, int roundLimit) {
+        if (spawnTables.getTemplates().isEmpty()) {
+            throw new IllegalArgumentException("Monster catalog cannot be empty.");
+        }
+        if (roundLimit < 1) {
+            throw new IllegalArgumentException("Round limit must be at least 1.");
+        }
+        this.spawnTables = spawnTables;
+        this.partyFactory = partyFactory;
+        this.policyFactory = policyFactory;
+        this.pool = pool;
+        this.roundLimit = roundLimit;
+    }
+
+    /**
+     * Runs the given number of battles.
+     *
+     * @param battles Number of battles to simulate.
+     * @param seed    Root seed; the same seed and battle count always give the same report.
+     * @return Aggregated statistics.
+     */
+    public SimulationReport run(int battles, long seed) {
+        if (battles < 0) {
+            throw new IllegalArgumentException("Battle count cannot be negative.");
+        }
+        return pool.invoke(new ShardTask(0, battles, new RandomGenerator(seed)));
+    }
+
+    private SimulationReport runShard(int count, RandomGenerator rng) {
+        SimulationReport report = new SimulationReport();
+        BattleEngine engine = new BattleEngine(spawnTables, rng, roundLimit);
+        BattlePolicy policy = policyFactory.get();
+
+        for (int i = 0; i < count; i++) {
+            report.record(engine.startBattle(partyFactory.get(), policy, BattleEventSink.NONE));
+        }
+        return report;
+    }
+
+    @SuppressWarnings("serial") // Never serialized; RecursiveTask is Serializable only by inheritance
+    private final class ShardTask extends RecursiveTask<SimulationReport> {
+        private final int from;
+        private final int to;
+        private final RandomGenerator rng;
+
+        ShardTask(int from, int to, RandomGenerator rng) {
+            this.from = from;
+            this.to = to;
+            this.rng = rng;
+        }
+
+        @Override
+        protected SimulationReport compute() {
+            if (to - from <= SHARD_SIZE) {
+                return runShard(to - from, rng);
+            }
+
+            int mid = (from + to) >>> 1;
+            // Split before either half consumes any numbers so the tree of streams is fixed
+            ShardTask right = new ShardTask(mid, to, rng.split());
+            ShardTask left = new ShardTask(from, mid, rng);
+
+            right.fork();
+            SimulationReport report = left.compute();
+            report.merge(right.join());
+            return report;
+        }
+    }
+}
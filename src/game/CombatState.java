@@ -0,0 +1,178 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Monster;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Struct-of-arrays view of one battle, for raids with hundreds of combatants.
+ * Every stat the monster phase touches lives in a parallel primitive array indexed by
+ * combatant, so resolving a round is a loop over contiguous doubles with no object lookups.
+ *
+ * <p>Built from entities with {@link #of(List, List)} and copied back with
+ * {@link #applyTo(List, List)}. Rules and random number consumption match
+ * {@link BattleEngine}, so both give the same outcome for the same random stream.</p>
+ */
+public final class CombatState {
+
+    // CAP HERO DODGE AT 75% (Heroes can be very dodgy, but not invincible)
+    static final double MAX_HERO_DODGE = 0.75;
+    static final double ARMOR_FACTOR = 0.2;
+
+    final int heroCount;
+    final double[] heroHp;
+    final double[] heroAgility;
+    final double[] heroArmor;       // Damage reduction of equipped armor, 0 if none
+    final BitSet heroAlive;
+
+    // Living hero indices in party order, so target n matches BattleEngine's nthAlive
+    final int[] aliveHeroes;
+    int aliveHeroCount;
+
+    final int monsterCount;
+    final double[] monsterHp;
+    final double[] monsterDamage;
+    final double[] monsterDefense;
+    final double[] monsterDodge;    // Probability in [0, 1]
+    final BitSet monsterAlive;
+
+    private CombatState(int heroCount, int monsterCount) {
+        this.heroCount = heroCount;
+        this.heroHp = new double[heroCount];
+        this.heroAgility = new double[heroCount];
+        this.heroArmor = new double[heroCount];
+        this.heroAlive = new BitSet(heroCount);
+        this.aliveHeroes = new int[heroCount];
+
+        this.monsterCount = monsterCount;
+        this.monsterHp = new double[monsterCount];
+        this.monsterDamage = new double[monsterCount];
+        this.monsterDefense = new double[monsterCount];
+        this.monsterDodge = new double[monsterCount];
+        this.monsterAlive = new BitSet(monsterCount);
+    }
+
+    /**
+     * Copies the combat stats of heroes and monsters into a new state. The entities are not retained.
+     */
+    public static CombatState of(List<Hero> heroes, List<Monster> monsters) {
+        CombatState state = new CombatState(heroes.size(), monsters.size());
+
+        for (int i = 0; i < state.heroCount; i++) {
+            Hero h = heroes.get(i);
+            state.heroHp[i] = h.getHp();
+            state.heroAgility[i] = h.getAgility();
+            state.heroArmor[i] = (h.getEquippedArmor() != null) ? h.getEquippedArmor().getDamageReduction() : 0;
+            if (!h.isFainted()) {
+                state.heroAlive.set(i);
+                state.aliveHeroes[state.aliveHeroCount++] = i;
+            }
+        }
+
+        for (int i = 0; i < state.monsterCount; i++) {
+            Monster m = monsters.get(i);
+            state.monsterHp[i] = m.getHp();
+            state.monsterDamage[i] = m.getBaseDamage();
+            state.monsterDefense[i] = m.getDefense();
+            state.monsterDodge[i] = m.getDodgeChance();
+            if (!m.isFainted()) state.monsterAlive.set(i);
+        }
+        return state;
+    }
+
+    /**
+     * Writes HP and monster debuffs back to the entities this state was built from.
+     */
+    public void applyTo(List<Hero> heroes, List<Monster> monsters) {
+        for (int i = 0; i < heroCount; i++) {
+            heroes.get(i).setHp(heroHp[i]);
+        }
+        for (int i = 0; i < monsterCount; i++) {
+            Monster m = monsters.get(i);
+            m.setHp(monsterHp[i]);
+            // Monsters only expose reductions; combat never raises these stats
+            m.reduceDamage(m.getBaseDamage() - monsterDamage[i]);
+            m.reduceDefense(m.getDefense() - monsterDefense[i]);
+            m.reduceDodgeChance((m.getDodgeChance() - monsterDodge[i]) * 100);
+        }
+    }
+
+    /**
+     * Every living monster attacks a random living hero, as in BattleEngine.processMonstersTurn.
+     *
+     * @return Total damage dealt to heroes.
+     */
+    public double resolveMonstersTurn(RandomGenerator rng) {
+        double damageTaken = 0;
+
+        for (int m = monsterAlive.nextSetBit(0); m >= 0; m = monsterAlive.nextSetBit(m + 1)) {
+            if (aliveHeroCount == 0) break;
+
+            int target = aliveHeroes[rng.nextInt(aliveHeroCount)];
+
+            double agility = heroAgility[target];
+            double dodge = Math.min(MAX_HERO_DODGE, agility / (agility + 1000.0));
+            if (rng.nextDouble() < dodge) continue;
+
+            double damage = Math.max(0, monsterDamage[m] - heroArmor[target] * ARMOR_FACTOR);
+            double hp = Math.max(0, heroHp[target] - damage);
+            heroHp[target] = hp;
+            damageTaken += damage;
+
+            if (hp <= 0) heroFainted(target);
+        }
+        return damageTaken;
+    }
+
+    /**
+     * Deals damage to a monster (e.g. from a hero's attack), marking it fainted at 0 HP.
+     */
+    public void damageMonster(int monster, double damage) {
+        double hp = Math.max(0, monsterHp[monster] - damage);
+        monsterHp[monster] = hp;
+        if (hp <= 0) monsterAlive.clear(monster);
+    }
+
+    /**
+     * Applies end-of-round regeneration to every living hero's HP (mana is not tracked here).
+     */
+    public void regenerateHeroes() {
+        for (int i = heroAlive.nextSetBit(0); i >= 0; i = heroAlive.nextSetBit(i + 1)) {
+            heroHp[i] *= 1.1;
+        }
+    }
+
+    /**
+     * Sets a hero's HP from an external resolver (e.g. a MonsterTurnBatch), keeping alive flags in sync.
+     */
+    void setHeroHp(int hero, double hp) {
+        heroHp[hero] = hp;
+        if (hp <= 0 && heroAlive.get(hero)) heroFainted(hero);
+    }
+
+    private void heroFainted(int hero) {
+        heroAlive.clear(hero);
+        // Keep the remaining indices in party order
+        int pos = 0;
+        while (aliveHeroes[pos] != hero) pos++;
+        System.arraycopy(aliveHeroes, pos + 1, aliveHeroes, pos, aliveHeroCount - pos - 1);
+        aliveHeroCount--;
+    }
+
+    // QUERIES
+
+    public int getHeroCount() { return heroCount; }
+    public int getMonsterCount() { return monsterCount; }
+
+    public int getAliveHeroCount() { return aliveHeroCount; }
+    public int getAliveMonsterCount() { return monsterAlive.cardinality(); }
+
+    public boolean isPartyWipedOut() { return aliveHeroCount == 0; }
+    public boolean allMonstersFainted() { return monsterAlive.isEmpty(); }
+
+    public double getHeroHp(int hero) { return heroHp[hero]; }
+    public double getMonsterHp(int monster) { return monsterHp[monster]; }
+}
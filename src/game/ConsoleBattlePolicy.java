@@ -0,0 +1,107 @@
+package game;
+
+import common.InputValidator;
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import items.Item;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Interactive BattlePolicy that asks the player for every decision through the console.
+ */
+public class ConsoleBattlePolicy implements BattlePolicy {
+
+    private final Scanner scanner;
+    private final PrintStream out;
+    private final InputValidator.InputListener input;
+
+    // ANSI Colors
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_WHITE_BOLD = "\033[1;37m";
+
+    public ConsoleBattlePolicy(Scanner scanner) {
+        this(scanner, System.out);
+    }
+
+    public ConsoleBattlePolicy(Scanner scanner, PrintStream out) {
+        this(scanner, out, null);
+    }
+
+    /**
+     * @param input Receives every accepted answer (e.g. a replay recorder; null to report nothing).
+     */
+    public ConsoleBattlePolicy(Scanner scanner, PrintStream out, InputValidator.InputListener input) {
+        this.scanner = scanner;
+        this.out = out;
+        this.input = input;
+    }
+
+    @Override
+    public Action chooseAction(Hero hero, Party party, List<Monster> enemies) {
+        out.println("1. Attack");
+        out.println("2. Cast Spell");
+        out.println("3. Use Potion");
+        out.println("4. Equip Gear");
+        out.println("5. Info");
+        out.println("6. Quit Game");
+
+        int choice = InputValidator.getValidInt(scanner, out, input, ANSI_CYAN + "Action: " + ANSI_RESET, 1, 6);
+        return Action.values()[choice - 1];
+    }
+
+    @Override
+    public Monster chooseTarget(Hero hero, List<Monster> aliveEnemies) {
+        out.println(ANSI_CYAN + "Select Target:" + ANSI_RESET);
+        for (int i = 0; i < aliveEnemies.size(); i++) {
+            out.println((i + 1) + ". " + aliveEnemies.get(i));
+        }
+        int choice = InputValidator.getValidInt(scanner, out, input, ANSI_CYAN + "Target: " + ANSI_RESET, 1, aliveEnemies.size());
+        return aliveEnemies.get(choice - 1);
+    }
+
+    @Override
+    public ItemChoice chooseEquipmentType(Hero hero) {
+        out.println("1. Weapons");
+        out.println("2. Armor");
+        int type = InputValidator.getValidInt(scanner, out, input, ANSI_CYAN + "Type: " + ANSI_RESET, 1, 2);
+        return (type == 1) ? ItemChoice.WEAPON : ItemChoice.ARMOR;
+    }
+
+    @Override
+    public <T extends Item> T chooseItem(Hero hero, ItemChoice kind, List<T> options) {
+        switch (kind) {
+            case SPELL: {
+                out.println(ANSI_WHITE_BOLD + "--- Spellbook ---" + ANSI_RESET);
+                printOptions(options);
+                out.println((options.size() + 1) + ". Cancel");
+
+                int choice = InputValidator.getValidInt(scanner, out, input, ANSI_CYAN + "Select Spell: " + ANSI_RESET, 1, options.size() + 1);
+                if (choice == options.size() + 1) return null;
+                return options.get(choice - 1);
+            }
+            case POTION: {
+                out.println(ANSI_WHITE_BOLD + "--- Potions ---" + ANSI_RESET);
+                printOptions(options);
+
+                int choice = InputValidator.getValidInt(scanner, out, input, ANSI_CYAN + "Use Potion: " + ANSI_RESET, 1, options.size());
+                return options.get(choice - 1);
+            }
+            default: {
+                printOptions(options);
+                int sel = InputValidator.getValidInt(scanner, out, input, "Equip: ", 1, options.size());
+                return options.get(sel - 1);
+            }
+        }
+    }
+
+    private void printOptions(List<? extends Item> options) {
+        for (int i = 0; i < options.size(); i++) {
+            out.println((i + 1) + ". " + options.get(i));
+        }
+    }
+}
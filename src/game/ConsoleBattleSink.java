@@ -0,0 +1,160 @@
+package game;
+
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import items.Item;
+import items.Potion;
+import items.Spell;
+import items.Spell.SpellType;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * BattleEventSink that renders battle events to the terminal with ANSI colors.
+ */
+public class ConsoleBattleSink implements BattleEventSink {
+
+    private final PrintStream out;
+
+    // ANSI Colors
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_RED = "\u001B[31m";
+    private static final String ANSI_GREEN = "\u001B[32m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_PURPLE = "\u001B[35m";
+    private static final String ANSI_WHITE_BOLD = "\033[1;37m";
+
+    public ConsoleBattleSink() {
+        this(System.out);
+    }
+
+    public ConsoleBattleSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void battleStarted(List<Monster> enemies) {
+        out.println(ANSI_RED + "\n*** Battle Started! Enemies approaching: ***" + ANSI_RESET);
+        for (Monster m : enemies) out.println("- " + m);
+    }
+
+    @Override
+    public void roundStarted(int round) {
+        out.println("\n" + ANSI_YELLOW + "=== Round " + round + " ===" + ANSI_RESET);
+    }
+
+    @Override
+    public void heroTurn(Hero hero) {
+        out.println("\nIt is " + ANSI_PURPLE + hero.getName() + ANSI_RESET + "'s turn.");
+        out.println(hero);
+    }
+
+    @Override
+    public void actionRejected(Hero hero, Rejection reason) {
+        switch (reason) {
+            case NO_SPELLS: out.println(ANSI_YELLOW + "You have no spells!" + ANSI_RESET); break;
+            case NOT_ENOUGH_MANA: out.println(ANSI_RED + "Not enough Mana!" + ANSI_RESET); break;
+            case NO_POTIONS: out.println(ANSI_YELLOW + "No potions in inventory." + ANSI_RESET); break;
+            case NO_WEAPONS: out.println(ANSI_YELLOW + "No weapons." + ANSI_RESET); break;
+            case NO_ARMOR: out.println(ANSI_YELLOW + "No armor." + ANSI_RESET); break;
+        }
+    }
+
+    @Override
+    public void battleStatus(Party party, List<Monster> enemies) {
+        out.println("\n" + ANSI_WHITE_BOLD + "--- Battle Status ---" + ANSI_RESET);
+        out.println(ANSI_PURPLE + "HEROES:" + ANSI_RESET);
+        party.getHeroes().forEach(out::println);
+        out.println(ANSI_RED + "MONSTERS:" + ANSI_RESET);
+        enemies.forEach(out::println);
+        out.println("---------------------");
+    }
+
+    @Override
+    public void battleAbandoned() {
+        out.println(ANSI_RED + "Quitting Game..." + ANSI_RESET);
+    }
+
+    @Override
+    public void heroAttacked(Hero hero, Monster target, double damage) {
+        out.printf("%s attacks %s for " + ANSI_RED + "%.0f damage!" + ANSI_RESET + "\n", hero.getName(), target.getName(), damage);
+    }
+
+    @Override
+    public void monsterDodged(Hero hero, Monster target) {
+        out.println(target.getName() + " dodged the attack!");
+    }
+
+    @Override
+    public void monsterDefeated(Monster monster) {
+        out.println(ANSI_GREEN + monster.getName() + " has been defeated!" + ANSI_RESET);
+    }
+
+    @Override
+    public void spellDebuff(Monster target, SpellType type) {
+        switch (type) {
+            case ICE: out.println(target.getName() + "'s damage reduced by Ice!"); break;
+            case FIRE: out.println(target.getName() + "'s defense melted by Fire!"); break;
+            case LIGHTNING: out.println(target.getName() + "'s dodge reduced by Lightning!"); break;
+        }
+    }
+
+    @Override
+    public void spellCast(Hero hero, Spell spell, Monster target, double damage) {
+        out.printf("%s casts %s on %s for " + ANSI_RED + "%.0f damage!" + ANSI_RESET + "\n", hero.getName(), spell.getName(), target.getName(), damage);
+    }
+
+    @Override
+    public void potionUsed(Hero hero, Potion potion) {
+        out.println(ANSI_GREEN + hero.getName() + " used " + potion.getName() + "!" + ANSI_RESET);
+    }
+
+    @Override
+    public void itemEquipped(Hero hero, Item item) {
+        out.println(hero.getName() + " equipped " + item.getName());
+    }
+
+    @Override
+    public void monsterAttacked(Monster monster, Hero target, double damage) {
+        out.printf("%s attacks %s for " + ANSI_RED + "%.0f damage!" + ANSI_RESET + "\n", monster.getName(), target.getName(), damage);
+    }
+
+    @Override
+    public void heroDodged(Monster monster, Hero target) {
+        out.println(target.getName() + " dodged " + monster.getName() + "'s attack!");
+    }
+
+    @Override
+    public void heroFainted(Hero hero) {
+        out.println(ANSI_RED + hero.getName() + " has fainted!" + ANSI_RESET);
+    }
+
+    @Override
+    public void regenerated(Party party) {
+        out.println(ANSI_CYAN + "Heroes regain some health and mana." + ANSI_RESET);
+    }
+
+    @Override
+    public void partyDefeated() {
+        out.println(ANSI_RED + "The party has been defeated!" + ANSI_RESET);
+    }
+
+    @Override
+    public void victory(double goldReward, int xpReward) {
+        out.println(ANSI_GREEN + "\n*** VICTORY! ***" + ANSI_RESET);
+        out.printf("Party gains %.0f Gold and %d XP!\n", goldReward, xpReward);
+    }
+
+    @Override
+    public void heroRevived(Hero hero) {
+        out.println(hero.getName() + " is revived.");
+    }
+
+    @Override
+    public void heroLeveledUp(Hero hero) {
+        out.println(hero.getName() + " leveled up to " + hero.getLevel() + "!");
+    }
+}
@@ -0,0 +1,803 @@
+package game;
+
+import entities.Hero;
+import entities.Party;
+import items.Item;
+import utils.AssetCatalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead journal of economy and progression events (purchases, sales, battle rewards),
+ * shared by every session of a process.
+ *
+ * <p>Layout:</p>
+ * <pre>
+ *   Header   magic:int  version:byte  baseLsn:long  baseSession:long
+ *   Records  length:int  crc32c:int  payload
+ *   Payload  lsn  session  kind:byte  hero  itemId + 1  gold  experience     (varints as in ReplayLog)
+ * </pre>
+ *
+ * <p>A session appends an entry and waits until it is on disk before changing any gold, item or
+ * experience, so a crash can lose a change only if it never happened. Appends from all sessions
+ * go into one buffer; a single flusher thread writes whatever gathered while its previous flush
+ * was running and makes it durable with one {@code force()}, then wakes every session it covered.
+ * Many sessions therefore share each disk flush (one per few milliseconds on a real disk), and a
+ * session waits for at most two flushes. An optional commit interval makes each batch wait longer
+ * to cap the flush rate on devices where flushes are cheap.</p>
+ *
+ * <p>Opening the journal is its recovery: every record is checked, and a record torn by a crash
+ * is cut off with everything after it. A restored save names its journal session and the last
+ * entry it already reflects; {@link Session#redo} re-applies the entries after that one.</p>
+ *
+ * <p>Once a save reflecting a session's entries is on disk, the session appends a CHECKPOINT and
+ * nothing needs those entries any more. Whenever the file has doubled since it was last rewritten,
+ * the flusher drops the prefix before the oldest entry some save may still need: it copies the rest
+ * behind a new header (whose base sequence number and session id keep both increasing) to a
+ * temporary file and moves it into place. A session whose game keeps no save flags its entries,
+ * since nothing will ever redo them, so they never hold the journal back. Version 1 files (a
+ * header without bases, no checkpoints) are rewritten this way when opened.</p>
+ */
+public final class EconomyJournal implements Closeable {
+
+    /** Default extra time a batch waits for more entries: none, the previous flush is wait enough. */
+    public static final long DEFAULT_COMMIT_INTERVAL_MICROS = 0;
+
+    private static final int MAGIC = 0x4C474A4E; // "LGJN"
+    private static final int VERSION = 2;
+    private static final int V1_HEADER_SIZE = 5;
+    private static final int HEADER_SIZE = V1_HEADER_SIZE + 16;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_PAYLOAD_SIZE = 1 + 6 * ReplayLog.MAX_VARINT_BYTES;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SCAN_WINDOW_SIZE = 64 * 1024;
+    /** Flush without waiting out the interval once this much is pending. */
+    private static final int EAGER_FLUSH_BYTES = BUFFER_SIZE / 2;
+    /** Smallest file the flusher considers rewriting without its reflected prefix. */
+    private static final long ROTATE_BYTES = 1 << 20;
+    /** Kind-byte flag of an entry no save will redo. */
+    private static final int UNSAVED = 0x80;
+
+    /**
+     * What an entry changed. START only reserves a new session id and changes nothing; CHECKPOINT
+     * changes nothing either, but marks the session's earlier entries as no longer needed.
+     */
+    public enum Kind { START, PURCHASE, SALE, REWARD, CHECKPOINT }
+
+    /**
+     * One journaled change to one hero.
+     */
+    public static final class Entry {
+        private final long lsn;
+        private final long session;
+        private final Kind kind;
+        private final int heroIndex;
+        private final int itemId;
+        private final double gold;
+        private final int experience;
+        private final boolean saved;
+
+        Entry(long lsn, long session, Kind kind, int heroIndex, int itemId, double gold, int experience,
+              boolean saved) {
+            this.lsn = lsn;
+            this.session = session;
+            this.kind = kind;
+            this.heroIndex = heroIndex;
+            this.itemId = itemId;
+            this.gold = gold;
+            this.experience = experience;
+            this.saved = saved;
+        }
+
+        /** @return The entry's sequence number; numbers increase by one across all sessions. */
+        public long getLsn() { return lsn; }
+        public long getSession() { return session; }
+        public Kind getKind() { return kind; }
+        public int getHeroIndex() { return heroIndex; }
+        /** @return Catalog id of the item bought or sold, or -1 for a reward. */
+        public int getItemId() { return itemId; }
+        /** @return Gold paid (purchase) or received (sale, reward). */
+        public double getGold() { return gold; }
+        public int getExperience() { return experience; }
+        /** @return false if the entry's game keeps no save, so nothing will ever redo it. */
+        public boolean isSaved() { return saved; }
+    }
+
+    /**
+     * Receives each valid record of a scan and the file offset it starts at.
+     */
+    private interface Visitor {
+        void visit(Entry entry, long offset);
+    }
+
+    private final Path path;
+    private final long commitIntervalNanos;
+    private final AtomicLong lastSession;
+    private final Thread flusher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingReady = lock.newCondition();
+    private final Condition committed = lock.newCondition();
+
+    // Written only by the flusher; readers hold the read lock, a rotation swaps it under the write lock
+    private FileChannel channel;
+    private final ReentrantReadWriteLock fileLock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private long nextLsn;
+    private long durableLsn;
+    private long durableEnd;
+    private long commitCount;
+    private IOException error;
+    private boolean closed;
+    private final Map<Long, Long> pins; // Session -> its first entry some save may still need
+
+    // Owned by the flusher thread
+    private ByteBuffer writing = ByteBuffer.allocate(BUFFER_SIZE);
+    private long rotateAt;
+
+    private EconomyJournal(Path path, FileChannel channel, long commitIntervalNanos,
+                           long lastLsn, long lastSession, long end, Map<Long, Long> pins) {
+        this.path = path;
+        this.channel = channel;
+        this.commitIntervalNanos = commitIntervalNanos;
+        this.lastSession = new AtomicLong(lastSession);
+        this.nextLsn = lastLsn + 1;
+        this.durableLsn = lastLsn;
+        this.durableEnd = end;
+        this.pins = pins;
+        this.rotateAt = Math.max(ROTATE_BYTES, 2 * end);
+        this.flusher = new Thread(this::runFlusher, "economy-journal");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public static EconomyJournal open(Path path) throws IOException {
+        return open(path, DEFAULT_COMMIT_INTERVAL_MICROS);
+    }
+
+    /**
+     * Opens (or creates) a journal, dropping any torn record at its end and rewriting a version 1 file.
+     *
+     * @param commitIntervalMicros Extra time a batch gathers entries before its flush (0 = flush as soon
+     *                             as the previous flush ends). A session blocks for it on every entry.
+     */
+    public static EconomyJournal open(Path path, long commitIntervalMicros) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long[] state = new long[4]; // lastLsn, lastSession, end, version
+            Map<Long, Long> pins = new HashMap<>();
+            if (channel.size() == 0) {
+                writeHeader(channel, 0, 0);
+                channel.force(true);
+                state[2] = HEADER_SIZE;
+            } else {
+                scan(path, channel, channel.size(), (entry, offset) ->
+                        pin(pins, entry.session, entry.kind, entry.saved, entry.lsn), state);
+                if (state[3] == 1) {
+                    state[2] = rewrite(path, channel, V1_HEADER_SIZE, state[2], 0, state[1]);
+                    FileChannel old = channel;
+                    channel = null;
+                    old.close();
+                    channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                } else if (state[2] < channel.size()) {
+                    channel.truncate(state[2]);
+                    channel.force(true);
+                }
+            }
+            channel.position(state[2]);
+            return new EconomyJournal(path, channel, TimeUnit.MICROSECONDS.toNanos(commitIntervalMicros),
+                    state[0], state[1], state[2], pins);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts a session with an id no earlier session in this journal has used. The id is made
+     * durable before it is returned, so it is never handed out again after a crash.
+     *
+     * @param saved Whether the session's game keeps a save that may need its entries redone.
+     */
+    public Session newSession(AssetCatalog assets, boolean saved) {
+        long id = lastSession.incrementAndGet();
+        long lsn = append(id, saved, Kind.START, 0, -1, 0, 0);
+        awaitDurable(lsn);
+        return new Session(id, lsn, saved, false, assets);
+    }
+
+    /**
+     * Continues a session restored from a save.
+     *
+     * @param checkpointLsn The last entry the save already reflects.
+     */
+    public Session resumeSession(long id, long checkpointLsn, AssetCatalog assets) {
+        lastSession.accumulateAndGet(id, Math::max);
+        return new Session(id, checkpointLsn, true, true, assets);
+    }
+
+    /**
+     * Records that nothing will redo a session's entries so far: a save reflecting them is on disk,
+     * or its save was discarded. Until then they are kept through every rotation. Does not wait for
+     * the disk; if a crash loses the record, the entries are only kept longer.
+     */
+    public void release(long session) {
+        append(session, true, Kind.CHECKPOINT, 0, -1, 0, 0);
+    }
+
+    /**
+     * @return Every durable entry of a session after the given sequence number, in order.
+     */
+    public List<Entry> read(long session, long afterLsn) throws IOException {
+        fileLock.readLock().lock();
+        try {
+            long end;
+            lock.lock();
+            try {
+                end = durableEnd;
+            } finally {
+                lock.unlock();
+            }
+            List<Entry> entries = new ArrayList<>();
+            scan(path, channel, end, (entry, offset) -> {
+                if (entry.session == session && entry.lsn > afterLsn) entries.add(entry);
+            }, new long[4]);
+            return entries;
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of flushes so far; each makes one batch of entries durable.
+     */
+    public long getCommitCount() {
+        lock.lock();
+        try {
+            return commitCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Sequence number of the last durable entry (0 if there is none).
+     */
+    public long getDurableLsn() {
+        lock.lock();
+        try {
+            return durableLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // APPENDING
+
+    /**
+     * Adds an entry to the pending batch.
+     * @return The entry's sequence number, for {@link #awaitDurable}.
+     */
+    long append(long session, boolean saved, Kind kind, int heroIndex, int itemId, double gold, int experience) {
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Economy journal is closed: " + path);
+            if (error != null) throw new UncheckedIOException("Economy journal failed: " + path, error);
+            if (pending.remaining() < RECORD_HEADER_SIZE + MAX_PAYLOAD_SIZE) {
+                pending = ByteBuffer.allocate(pending.capacity() * 2).put(pending.flip());
+            }
+            boolean wasEmpty = pending.position() == 0;
+            long lsn = nextLsn++;
+
+            int start = pending.position();
+            pending.position(start + RECORD_HEADER_SIZE);
+            ReplayLog.putVarint(pending, lsn);
+            ReplayLog.putVarint(pending, session);
+            pending.put((byte) (saved ? kind.ordinal() : kind.ordinal() | UNSAVED));
+            ReplayLog.putVarint(pending, heroIndex);
+            ReplayLog.putVarint(pending, itemId + 1);
+            ReplayLog.putVarint(pending, ReplayLog.encodeDouble(gold));
+            ReplayLog.putVarint(pending, experience);
+            int end = pending.position();
+
+            crc.reset();
+            crc.update(pending.duplicate().position(start + RECORD_HEADER_SIZE).limit(end));
+            pending.putInt(start, end - start - RECORD_HEADER_SIZE);
+            pending.putInt(start + 4, (int) crc.getValue());
+            pin(pins, session, kind, saved, lsn);
+
+            if (wasEmpty || end >= EAGER_FLUSH_BYTES) pendingReady.signal();
+            return lsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the entry with the given sequence number is on disk.
+     * @throws UncheckedIOException if the journal can no longer write.
+     */
+    void awaitDurable(long lsn) {
+        lock.lock();
+        try {
+            while (durableLsn < lsn && error == null) committed.awaitUninterruptibly();
+            if (durableLsn < lsn) throw new UncheckedIOException("Economy journal failed: " + path, error);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            long batchLsn;
+            lock.lock();
+            try {
+                while (pending.position() == 0 && !closed) pendingReady.awaitUninterruptibly();
+                if (pending.position() == 0) return;
+
+                // Let other sessions join the batch
+                long deadline = System.nanoTime() + commitIntervalNanos;
+                long remaining;
+                while (!closed && pending.position() < EAGER_FLUSH_BYTES
+                        && (remaining = deadline - System.nanoTime()) > 0) {
+                    try {
+                        pendingReady.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+
+                ByteBuffer batch = pending;
+                pending = writing.clear();
+                writing = batch;
+                batchLsn = nextLsn - 1;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException failure = null;
+            writing.flip();
+            try {
+                while (writing.hasRemaining()) channel.write(writing);
+                channel.force(false);
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            lock.lock();
+            try {
+                if (failure == null) {
+                    durableLsn = batchLsn;
+                    durableEnd += writing.limit();
+                    commitCount++;
+                } else {
+                    error = failure;
+                }
+                committed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (failure != null || !rotateIfDue()) return;
+        }
+    }
+
+    // ROTATION
+
+    /**
+     * Tracks which entries some save may still need: from a session's first saved change after its
+     * latest CHECKPOINT on. START changes nothing, so it never needs keeping.
+     */
+    private static void pin(Map<Long, Long> pins, long session, Kind kind, boolean saved, long lsn) {
+        switch (kind) {
+            case CHECKPOINT:
+                pins.remove(session);
+                break;
+            case PURCHASE:
+            case SALE:
+            case REWARD:
+                if (saved) pins.putIfAbsent(session, lsn);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Once the file has doubled since it was last rewritten, rewrites it without the entries no save
+     * needs, if that at least halves it. Runs on the flusher between batches, so nothing is appended
+     * to the file meanwhile; sessions waiting on a commit wait for the rewrite too.
+     *
+     * @return false if the journal can no longer write.
+     */
+    private boolean rotateIfDue() {
+        long end;
+        long floor;
+        long baseSession;
+        lock.lock();
+        try {
+            if (durableEnd < rotateAt) return true;
+            end = durableEnd;
+            floor = pins.isEmpty() ? durableLsn + 1 : Math.min(Collections.min(pins.values()), durableLsn + 1);
+            baseSession = lastSession.get();
+        } finally {
+            lock.unlock();
+        }
+
+        long newEnd;
+        try {
+            long[] cut = {end};
+            scan(path, channel, end, (entry, offset) -> {
+                if (entry.lsn >= floor && cut[0] == end) cut[0] = offset;
+            }, new long[4]);
+            if (2 * (cut[0] - HEADER_SIZE) < end - HEADER_SIZE) {
+                rotateAt = 2 * end; // Too little to drop yet
+                return true;
+            }
+            newEnd = rewrite(path, channel, cut[0], end, floor - 1, baseSession);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Economy journal rotation failed, keeping " + path + ": " + e);
+            rotateAt = 2 * end;
+            return true;
+        }
+
+        // The file was replaced: appending to the old channel now would lose entries
+        IOException failure = null;
+        fileLock.writeLock().lock();
+        try {
+            FileChannel old = channel;
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channel.position(newEnd);
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                try {
+                    old.close();
+                } catch (IOException e) {
+                    if (failure == null) failure = e;
+                }
+            }
+            lock.lock();
+            try {
+                if (failure == null) {
+                    durableEnd = newEnd;
+                } else {
+                    error = failure;
+                    committed.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+        rotateAt = Math.max(ROTATE_BYTES, 2 * newEnd);
+        return failure == null;
+    }
+
+    /**
+     * Copies the records in {@code [start, end)} of a journal behind a new header to a temporary
+     * file, then moves it over the journal. On failure the journal is left as it was.
+     *
+     * @return The end of the new file.
+     */
+    private static long rewrite(Path path, FileChannel from, long start, long end, long baseLsn, long baseSession)
+            throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(out, baseLsn, baseSession);
+            long position = start;
+            while (position < end) position += from.transferTo(position, end - position, out);
+            out.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return HEADER_SIZE + (end - start);
+    }
+
+    private static void writeHeader(FileChannel channel, long baseLsn, long baseSession) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).put((byte) VERSION)
+                .putLong(baseLsn).putLong(baseSession).flip();
+        while (header.hasRemaining()) channel.write(header);
+    }
+
+    // READING
+
+    /**
+     * Walks the valid records of the first {@code size} bytes of a journal, stopping at the first
+     * torn, corrupt or out-of-sequence one. Reads through a small sliding window, so memory use does
+     * not grow with the journal.
+     *
+     * @param visitor Receives every valid entry (may be null).
+     * @param state   Receives the last sequence number, the highest session id, the end of the last
+     *                valid record and the file's version.
+     */
+    private static void scan(Path path, FileChannel channel, long size, Visitor visitor, long[] state)
+            throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(SCAN_WINDOW_SIZE).limit(0);
+        long windowStart = 0; // File offset of window[0]
+        fill(channel, window, windowStart, size);
+        if (window.remaining() < HEADER_SIZE || window.getInt() != MAGIC) {
+            throw new IOException("Not an economy journal: " + path);
+        }
+        int version = window.get();
+        if (version != 1 && version != VERSION) {
+            throw new IOException("Unsupported economy journal version " + version + ": " + path);
+        }
+        long lastLsn = 0;
+        long lastSession = 0;
+        if (version != 1) {
+            if (window.remaining() < HEADER_SIZE - V1_HEADER_SIZE) throw new IOException("Not an economy journal: " + path);
+            lastLsn = window.getLong();
+            lastSession = window.getLong();
+        }
+
+        CRC32C crc = new CRC32C();
+        long end = window.position();
+        while (true) {
+            if (window.remaining() < RECORD_HEADER_SIZE + MAX_PAYLOAD_SIZE && windowStart + window.limit() < size) {
+                // Slide so the window holds at least one whole record if the file does
+                windowStart += window.position();
+                window.compact();
+                fill(channel, window.flip(), windowStart, size);
+            }
+            if (window.remaining() < RECORD_HEADER_SIZE) break;
+            int length = window.getInt();
+            int checksum = window.getInt();
+            if (length <= 0 || length > MAX_PAYLOAD_SIZE || length > window.remaining()) break;
+
+            ByteBuffer payload = window.slice().limit(length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) break;
+
+            Entry entry;
+            try {
+                entry = decode(payload);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                break;
+            }
+            if (entry == null || (lastLsn != 0 && entry.lsn != lastLsn + 1)) break;
+
+            lastLsn = entry.lsn;
+            lastSession = Math.max(lastSession, entry.session);
+            if (visitor != null) visitor.visit(entry, end);
+            window.position(window.position() + length);
+            end = windowStart + window.position();
+        }
+        state[0] = lastLsn;
+        state[1] = lastSession;
+        state[2] = end;
+        state[3] = version;
+    }
+
+    /**
+     * Appends file bytes from {@code windowStart + window.limit()} up to {@code size} to the flipped
+     * window, as many as fit, leaving it flipped.
+     */
+    private static void fill(FileChannel channel, ByteBuffer window, long windowStart, long size) throws IOException {
+        int position = window.position();
+        long from = windowStart + window.limit();
+        window.position(window.limit()).limit((int) Math.min(window.capacity(), window.limit() + (size - from)));
+        while (window.hasRemaining() && channel.read(window, windowStart + window.position()) >= 0) { }
+        window.limit(window.position()).position(position);
+    }
+
+    /**
+     * @return The entry, or null if its kind is unknown.
+     */
+    private static Entry decode(ByteBuffer payload) {
+        ReplayLog.Reader in = new ReplayLog.Reader(payload);
+        long lsn = in.readVarint();
+        long session = in.readVarint();
+        int flags = payload.get() & 0xFF;
+        int kind = flags & ~UNSAVED;
+        if (kind >= Kind.values().length) return null;
+        int heroIndex = (int) in.readVarint();
+        int itemId = (int) in.readVarint() - 1;
+        double gold = ReplayLog.decodeDouble(in.readVarint());
+        int experience = (int) in.readVarint();
+        return new Entry(lsn, session, Kind.values()[kind], heroIndex, itemId, gold, experience,
+                (flags & UNSAVED) == 0);
+    }
+
+    /**
+     * Flushes the pending batch and closes the file. Sessions must not append afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            pendingReady.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (error != null) throw error;
+    }
+
+    /**
+     * One game's view of the journal. Heroes are journaled as their index in the party and items
+     * as catalog ids. As a battle sink it journals each surviving hero's victory reward before the
+     * battle engine pays it out.
+     */
+    public final class Session implements BattleEventSink {
+        private final long id;
+        private final boolean saved;
+        private final AssetCatalog assets;
+        private Party party;
+        private long lastLsn;
+        private boolean needsCheckpoint;
+
+        private Session(long id, long lastLsn, boolean saved, boolean needsCheckpoint, AssetCatalog assets) {
+            this.id = id;
+            this.lastLsn = lastLsn;
+            this.saved = saved;
+            this.needsCheckpoint = needsCheckpoint;
+            this.assets = assets;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * @return Sequence number of this session's last entry (or of the checkpoint it resumed from).
+         */
+        public long getLastLsn() {
+            return lastLsn;
+        }
+
+        /**
+         * @return true if the session has journaled changes since its last {@link #checkpoint}
+         *         (a resumed session may have some from before a crash).
+         */
+        public boolean needsCheckpoint() {
+            return needsCheckpoint;
+        }
+
+        /**
+         * Records that a save reflecting every entry so far is on disk, so the journal may drop them.
+         */
+        public void checkpoint() {
+            release(id);
+            needsCheckpoint = false;
+        }
+
+        /**
+         * Sets the party whose heroes later entries refer to.
+         */
+        public void setParty(Party party) {
+            this.party = party;
+        }
+
+        /**
+         * Journals a purchase; returns once it is durable. The caller applies it afterwards.
+         */
+        public void purchase(Hero hero, Item item, double price) {
+            commit(append(id, saved, Kind.PURCHASE, heroIndex(hero), itemId(item), price, 0));
+        }
+
+        /**
+         * Journals a basket of purchases (prices[i] for items.get(i)) with one flush; returns once
+         * all are durable. Each entry is a whole purchase, so a crash mid-basket recovers a prefix of it.
+         */
+        public void purchases(Hero hero, List<Item> items, double[] prices) {
+            long lsn = 0;
+            int heroIndex = heroIndex(hero);
+            for (int i = 0; i < items.size(); i++) {
+                lsn = append(id, saved, Kind.PURCHASE, heroIndex, itemId(items.get(i)), prices[i], 0);
+            }
+            if (lsn != 0) commit(lsn);
+        }
+
+        /**
+         * Journals a sale; returns once it is durable. The caller applies it afterwards.
+         */
+        public void sale(Hero hero, Item item, double price) {
+            commit(append(id, saved, Kind.SALE, heroIndex(hero), itemId(item), price, 0));
+        }
+
+        @Override
+        public void victory(double goldReward, int xpReward) {
+            long lsn = 0;
+            List<Hero> heroes = party.getHeroes();
+            for (int i = 0; i < heroes.size(); i++) {
+                if (!heroes.get(i).isFainted()) lsn = append(id, saved, Kind.REWARD, i, -1, goldReward, xpReward);
+            }
+            if (lsn != 0) commit(lsn);
+        }
+
+        private void commit(long lsn) {
+            awaitDurable(lsn);
+            lastLsn = lsn;
+            needsCheckpoint = true;
+        }
+
+        /**
+         * Re-applies this session's entries after its checkpoint to the (restored) party.
+         * @return The number of entries applied.
+         */
+        public int redo(Party party) throws IOException {
+            List<Entry> entries = read(id, lastLsn);
+            int applied = 0;
+            for (Entry entry : entries) {
+                Hero hero = party.getHero(entry.heroIndex);
+                switch (entry.kind) {
+                    case START:
+                    case CHECKPOINT:
+                        break;
+                    case PURCHASE:
+                        hero.deductMoney(entry.gold);
+                        hero.getInventory().addItem(assets.getItem(entry.itemId));
+                        break;
+                    case SALE:
+                        hero.getInventory().removeItem(assets.getItem(entry.itemId));
+                        hero.addMoney(entry.gold);
+                        break;
+                    case REWARD:
+                        hero.addMoney(entry.gold);
+                        hero.gainExperience(entry.experience);
+                        break;
+                }
+                if (entry.kind != Kind.START && entry.kind != Kind.CHECKPOINT) applied++;
+                lastLsn = entry.lsn;
+            }
+            return applied;
+        }
+
+        private int heroIndex(Hero hero) {
+            List<Hero> heroes = party.getHeroes();
+            for (int i = 0; i < heroes.size(); i++) {
+                if (heroes.get(i) == hero) return i;
+            }
+            throw new IllegalStateException("Hero is not in the journaled party: " + hero.getName());
+        }
+
+        private int itemId(Item item) {
+            int itemId = assets.getItemId(item);
+            if (itemId < 0) throw new IllegalStateException("Item is not from the asset catalog: " + item.getName());
+            return itemId;
+        }
+    }
+}
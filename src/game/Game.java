@@ -1,5 +1,6 @@
 package game;
 
+import java.io.PrintStream;
 import java.util.Scanner;
 
 /**
@@ -10,6 +11,13 @@ import java.util.Scanner;
  */
 public abstract class Game {
 
+    /** Destination for all of this game's output (stdout for the local console, a socket for hosted sessions). */
+    protected final PrintStream out;
+
+    protected Game(PrintStream out) {
+        this.out = out;
+    }
+
     /**
      * The Template Method. This defines the algorithm for playing the game.
      * It is 'final' to prevent subclasses from altering the structural flow.
@@ -17,31 +25,34 @@ public abstract class Game {
      * @param scanner Shared scanner resource for input.
      */
     public final void play(Scanner scanner) {
-        System.out.println("Initializing Game Engine...");
-
-        // Configuration & Setup
-        initializeGame(scanner);
-
-        // Main Game Loop
-        boolean isRunning = true;
-        while (isRunning) {
-            // Check for game over conditions before the turn
-            if (isGameOver()) {
-                System.out.println("Game Over Condition Met.");
-                break;
-            }
+        boolean playAgain = true;
+        while (playAgain) {
+            out.println("Initializing Game Engine...");
 
-            // Execute a single turn
-            processTurn(scanner);
+            // Configuration & Setup
+            initializeGame(scanner);
 
-            // Check if user quit or game ended during the turn
-            if (shouldQuit()) {
-                break;
+            // Main Game Loop
+            boolean isRunning = true;
+            while (isRunning) {
+                // Check for game over conditions before the turn
+                if (isGameOver()) {
+                    out.println("Game Over Condition Met.");
+                    break;
+                }
+
+                // Execute a single turn
+                processTurn(scanner);
+
+                // Check if user quit or game ended during the turn
+                if (shouldQuit()) {
+                    break;
+                }
             }
-        }
 
-        // Cleanup & Final Stats
-        endGame();
+            // Cleanup & Final Stats
+            playAgain = endGame(scanner);
+        }
     }
 
     // --- Abstract Hooks (To be implemented by LegendsGame) ---
@@ -70,6 +81,7 @@ public abstract class Game {
 
     /**
      * Displays final score, goodbye messages, or cleanup logic.
+     * @return true to start a new game, false to return to the caller.
      */
-    protected abstract void endGame();
+    protected abstract boolean endGame(Scanner scanner);
 }
\ No newline at end of file
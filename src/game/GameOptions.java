@@ -0,0 +1,150 @@
+package game;
+
+import common.RandomGenerator;
+import utils.AssetCatalog;
+
+import java.io.PrintStream;
+
+/**
+ * Everything a LegendsGame is wired to besides its input: where it writes, its random source,
+ * its assets, and the optional recorder, save file, journal and shared economy.
+ * Immutable; build one with {@link #builder()}. Unset optional parts are null (not used).
+ *
+ * <p>The caller owns the recorder, save file, journal, prices and market, and closes them
+ * after {@link LegendsGame#play} returns.</p>
+ */
+public final class GameOptions {
+
+    private final PrintStream out;
+    private final RandomGenerator rng;
+    private final AssetCatalog assets;
+    private final ReplayRecorder recorder;
+    private final SaveFile saveFile;
+    private final EconomyJournal journal;
+    private final PriceEngine prices;
+    private final SharedMarket market;
+
+    private GameOptions(Builder b) {
+        this.out = (b.out != null) ? b.out : System.out;
+        this.rng = (b.rng != null) ? b.rng : RandomGenerator.getInstance();
+        this.assets = (b.assets != null) ? b.assets : AssetCatalog.getShared();
+        this.recorder = b.recorder;
+        this.saveFile = b.saveFile;
+        this.journal = b.journal;
+        this.prices = b.prices;
+        this.market = b.market;
+    }
+
+    /**
+     * @return A builder for a console game with the shared generator and catalog.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return A builder starting from these options, e.g. to give a server-wide template a session's own streams.
+     */
+    public Builder toBuilder() {
+        return new Builder().out(out).rng(rng).assets(assets).recorder(recorder).saveFile(saveFile)
+                .journal(journal).prices(prices).market(market);
+    }
+
+    /** Where all game output is written. */
+    public PrintStream getOut() {
+        return out;
+    }
+
+    /** Random source owned by this game (world generation, ambushes, combat, markets). */
+    public RandomGenerator getRandom() {
+        return rng;
+    }
+
+    /** Shared, read-only game data. */
+    public AssetCatalog getAssets() {
+        return assets;
+    }
+
+    /** Receives the game's accepted inputs and battle events for replay. */
+    public ReplayRecorder getRecorder() {
+        return recorder;
+    }
+
+    /** Where the game autosaves after every turn, and offers to continue from. */
+    public SaveFile getSaveFile() {
+        return saveFile;
+    }
+
+    /** Write-ahead journal of purchases, sales and battle rewards, possibly shared with other games. */
+    public EconomyJournal getJournal() {
+        return journal;
+    }
+
+    /** Prices shared with other games; without them each game keeps its own, decaying per turn. */
+    public PriceEngine getPrices() {
+        return prices;
+    }
+
+    /** Markets shared with other games on the same board; without them each game keeps its own. */
+    public SharedMarket getMarket() {
+        return market;
+    }
+
+    public static final class Builder {
+        private PrintStream out;
+        private RandomGenerator rng;
+        private AssetCatalog assets;
+        private ReplayRecorder recorder;
+        private SaveFile saveFile;
+        private EconomyJournal journal;
+        private PriceEngine prices;
+        private SharedMarket market;
+
+        private Builder() {
+        }
+
+        public Builder out(PrintStream out) {
+            this.out = out;
+            return this;
+        }
+
+        public Builder rng(RandomGenerator rng) {
+            this.rng = rng;
+            return this;
+        }
+
+        public Builder assets(AssetCatalog assets) {
+            this.assets = assets;
+            return this;
+        }
+
+        public Builder recorder(ReplayRecorder recorder) {
+            this.recorder = recorder;
+            return this;
+        }
+
+        public Builder saveFile(SaveFile saveFile) {
+            this.saveFile = saveFile;
+            return this;
+        }
+
+        public Builder journal(EconomyJournal journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        public Builder prices(PriceEngine prices) {
+            this.prices = prices;
+            return this;
+        }
+
+        public Builder market(SharedMarket market) {
+            this.market = market;
+            return this;
+        }
+
+        public GameOptions build() {
+            return new GameOptions(this);
+        }
+    }
+}
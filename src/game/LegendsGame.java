@@ -3,39 +3,48 @@ package game;
 import board.Cell;
 import board.LegendsBoard;
 import common.InputValidator;
+import common.RandomGenerator;
 import entities.Hero;
 import entities.Hero.HeroType;
-import entities.Monster;
-import entities.Monster.MonsterType;
 import entities.Party;
 import items.Item;
 import items.Weapon;
 import items.Armor;
 import items.Potion;
 import items.Spell;
-import utils.GameDataLoader;
+import utils.AssetCatalog;
 
+import java.io.IOException;
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.Scanner;
 
 public class LegendsGame extends Game {
 
     private LegendsBoard board;
     private Party party;
-    private final Random random = new Random();
+    private final GameOptions options;
+    private final RandomGenerator rng;
+    private final AssetCatalog assets;
+    private final ReplayRecorder recorder;
+    private final SaveFile saveFile;
+    private final EconomyJournal journal;
+    private final PriceEngine sharedPrices;
+    private PriceEngine prices; // This game's: the shared engine, or its own decaying per turn
+    private EconomyJournal.Session journalSession;
     private boolean quitGame = false;
+    private long turn; // Game ticks (one per turn) that drive market restocks
 
     private boolean skipNextRender = false;
 
     private MarketController marketController;
     private BattleController battleController;
 
+    // Hero templates not yet picked in this game (copies of the shared catalog lists)
     private List<Hero> availableWarriors;
     private List<Hero> availableSorcerers;
     private List<Hero> availablePaladins;
-    private List<Monster> allMonsters;
 
     // ANSI Color Constants
     private static final String ANSI_RESET = "\u001B[0m";
@@ -47,30 +56,158 @@ public class LegendsGame extends Game {
     private static final String ANSI_PURPLE = "\u001B[35m";
     private static final String ANSI_WHITE_BOLD = "\033[1;37m";
 
+    /**
+     * Creates a game on the local console using the shared random generator.
+     */
+    public LegendsGame() {
+        this(GameOptions.builder().build());
+    }
+
+    /**
+     * Creates a self-contained game session wired as the options say (see {@link GameOptions}).
+     */
+    public LegendsGame(GameOptions options) {
+        super(options.getOut());
+        this.options = options;
+        this.rng = options.getRandom();
+        this.assets = options.getAssets();
+        this.recorder = options.getRecorder();
+        this.saveFile = options.getSaveFile();
+        this.journal = options.getJournal();
+        this.sharedPrices = options.getPrices();
+    }
+
     @Override
     protected void initializeGame(Scanner scanner) {
-        System.out.println(ANSI_CYAN + "Loading Game Data..." + ANSI_RESET);
+        out.println(ANSI_CYAN + "Loading Game Data..." + ANSI_RESET);
         loadAssets();
 
-        this.marketController = new MarketController();
-        this.battleController = new BattleController(allMonsters);
+        if (saveFile == null || !saveFile.hasSnapshot()
+                || InputValidator.getValidOption(scanner, out, recorder, "Continue saved game? (y/n): ", "y", "n").equals("n")
+                || !loadSavedGame()) {
+            clearSave();
+            setupNewSession(scanner);
+            this.turn = 0;
+            startEconomy();
+        }
+        if (!quitGame) autosave();
+    }
+
+    /**
+     * Builds the controllers per game, since each game journals under its own session and keeps its own markets.
+     */
+    private void startEconomy() {
+        this.prices = (sharedPrices != null) ? sharedPrices
+                : new PriceEngine(assets, () -> turn, PriceEngine.SESSION_HALF_LIFE_TURNS);
+        this.marketController = new MarketController(options, journalSession, prices);
+        this.battleController = new BattleController(assets.getSpawnTables(), rng, out,
+                TeeBattleSink.of(recorder, journalSession), recorder);
+    }
+
+    private boolean loadSavedGame() {
+        try {
+            saveFile.restore(this);
+            if (journalSession != null) {
+                // Re-apply what was journaled after the last autosave (e.g. before a crash)
+                int redone = journalSession.redo(party);
+                if (redone > 0) {
+                    out.println(ANSI_YELLOW + "Recovered " + redone + " transactions made after the last save." + ANSI_RESET);
+                }
+            } else if (journal != null) {
+                startJournalSession(); // Saved without a journal
+            }
+            startEconomy();
+            saveFile.restoreEconomy(this);
+            out.println(ANSI_GREEN + "\nWelcome back! The party resumes its journey..." + ANSI_RESET);
+            return true;
+        } catch (IOException e) {
+            out.println(ANSI_RED + "Could not load the saved game: " + e.getMessage() + ANSI_RESET);
+            return false;
+        }
+    }
+
+    /**
+     * Installs a restored board, party and turn (called by {@link SaveFile#restore}).
+     */
+    void restore(LegendsBoard board, Party party, long turn) {
+        this.board = board;
+        this.party = party;
+        this.turn = turn;
+        this.quitGame = false;
+        this.journalSession = null;
+        board.setParty(party);
+        if (recorder != null) recorder.setParty(party);
+
+        // Heroes already in the party can no longer be picked
+        if (availableWarriors == null) loadAssets();
+        for (Hero hero : party.getHeroes()) {
+            List<Hero> available = (hero.getType() == HeroType.WARRIOR) ? availableWarriors :
+                    (hero.getType() == HeroType.SORCERER) ? availableSorcerers : availablePaladins;
+            available.removeIf(template -> template.getName().equals(hero.getName()));
+        }
+    }
+
+    /**
+     * Continues the journal session named by a restored save (called by {@link SaveFile#restore}).
+     *
+     * @param checkpointLsn The last journal entry the save already reflects.
+     */
+    void resumeJournal(long sessionId, long checkpointLsn) {
+        if (journal == null) return;
+        journalSession = journal.resumeSession(sessionId, checkpointLsn, assets);
+        journalSession.setParty(party);
+    }
+
+    private void startJournalSession() {
+        journalSession = journal.newSession(assets, saveFile != null);
+        journalSession.setParty(party);
+    }
 
-        setupNewSession(scanner);
+    private void autosave() {
+        if (saveFile == null || party == null || party.getSize() == 0) return;
+        try {
+            saveFile.save(this);
+            if (journalSession != null && journalSession.needsCheckpoint()) {
+                // The journal may drop what the checkpoint covers, so the save must be on disk first
+                saveFile.force();
+                journalSession.checkpoint();
+            }
+        } catch (IOException e) {
+            out.println(ANSI_RED + "Autosave failed: " + e.getMessage() + ANSI_RESET);
+        }
+    }
+
+    private void clearSave() {
+        if (saveFile == null) return;
+        try {
+            long savedSession = saveFile.getJournalSessionId();
+            saveFile.clear();
+            if (journal != null && savedSession >= 0) {
+                // Nothing will redo the discarded game's entries any more
+                saveFile.force();
+                journal.release(savedSession);
+            }
+        } catch (IOException e) {
+            out.println(ANSI_RED + "Could not clear the saved game: " + e.getMessage() + ANSI_RESET);
+        }
     }
 
     private void setupNewSession(Scanner scanner) {
         quitGame = false; // Reset quit flag for new session
 
-        System.out.println("\n" + ANSI_YELLOW + "--- World Generation ---" + ANSI_RESET);
-        int boardSize = InputValidator.getValidInt(scanner, "Enter board size (4-20): ", 4, 20);
-        this.board = new LegendsBoard(boardSize);
+        out.println("\n" + ANSI_YELLOW + "--- World Generation ---" + ANSI_RESET);
+        int boardSize = InputValidator.getValidInt(scanner, out, recorder, "Enter board size (4-20): ", 4, 20);
+        this.board = new LegendsBoard(boardSize, rng);
 
-        System.out.println("\n" + ANSI_YELLOW + "--- Hero Selection ---" + ANSI_RESET);
-        int partySize = InputValidator.getValidInt(scanner, "Enter party size (1-3): ", 1, 3);
+        out.println("\n" + ANSI_YELLOW + "--- Hero Selection ---" + ANSI_RESET);
+        int partySize = InputValidator.getValidInt(scanner, out, recorder, "Enter party size (1-3): ", 1, 3);
 
         this.party = new Party();
+        if (recorder != null) recorder.setParty(party);
+        journalSession = null;
+        if (journal != null) startJournalSession();
         for (int i = 0; i < partySize; i++) {
-            System.out.println("\nSelect Hero #" + (i + 1) + ":");
+            out.println("\nSelect Hero #" + (i + 1) + ":");
             Hero selectedHero = selectHero(scanner);
             if (selectedHero == null) {
                 quitGame = true;
@@ -80,54 +217,50 @@ public class LegendsGame extends Game {
         }
 
         this.board.setParty(party);
-        System.out.println(ANSI_GREEN + "\nThe party enters the world..." + ANSI_RESET);
+        out.println(ANSI_GREEN + "\nThe party enters the world..." + ANSI_RESET);
     }
 
     private void loadAssets() {
-        availableWarriors = GameDataLoader.loadHeroes("Warriors.txt", HeroType.WARRIOR);
-        availableSorcerers = GameDataLoader.loadHeroes("Sorcerers.txt", HeroType.SORCERER);
-        availablePaladins = GameDataLoader.loadHeroes("Paladins.txt", HeroType.PALADIN);
-
-        allMonsters = new ArrayList<>();
-        allMonsters.addAll(GameDataLoader.loadMonsters("Dragons.txt", MonsterType.DRAGON));
-        allMonsters.addAll(GameDataLoader.loadMonsters("Exoskeletons.txt", MonsterType.EXOSKELETON));
-        allMonsters.addAll(GameDataLoader.loadMonsters("Spirits.txt", MonsterType.SPIRIT));
-
-        if (availableWarriors.isEmpty() && availableSorcerers.isEmpty() && availablePaladins.isEmpty()) {
+        if (!assets.hasHeroes()) {
             throw new RuntimeException("CRITICAL ERROR: No heroes could be loaded. Check data/ directory.");
         }
+
+        // Per-game copies so picking a hero never changes the shared catalog
+        availableWarriors = new ArrayList<>(assets.getHeroTemplates(HeroType.WARRIOR));
+        availableSorcerers = new ArrayList<>(assets.getHeroTemplates(HeroType.SORCERER));
+        availablePaladins = new ArrayList<>(assets.getHeroTemplates(HeroType.PALADIN));
     }
 
     private Hero selectHero(Scanner scanner) {
-        System.out.println("1. " + ANSI_RED + "Warrior" + ANSI_RESET + " (Favors Strength/Agility)");
-        System.out.println("2. " + ANSI_BLUE + "Sorcerer" + ANSI_RESET + " (Favors Dexterity/Agility)");
-        System.out.println("3. " + ANSI_GREEN + "Paladin" + ANSI_RESET + " (Favors Strength/Dexterity)");
+        out.println("1. " + ANSI_RED + "Warrior" + ANSI_RESET + " (Favors Strength/Agility)");
+        out.println("2. " + ANSI_BLUE + "Sorcerer" + ANSI_RESET + " (Favors Dexterity/Agility)");
+        out.println("3. " + ANSI_GREEN + "Paladin" + ANSI_RESET + " (Favors Strength/Dexterity)");
 
-        int typeChoice = InputValidator.getValidInt(scanner, "Choose class: ", 1, 3);
+        int typeChoice = InputValidator.getValidInt(scanner, out, recorder, "Choose class: ", 1, 3);
         List<Hero> choiceList = (typeChoice == 1) ? availableWarriors :
                 (typeChoice == 2) ? availableSorcerers : availablePaladins;
 
-        System.out.println("\n" + ANSI_WHITE_BOLD + "Available Heroes:" + ANSI_RESET);
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+------+------+------+------+------+" + ANSI_RESET);
-        System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2s " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|\n" + ANSI_RESET,
+        out.println("\n" + ANSI_WHITE_BOLD + "Available Heroes:" + ANSI_RESET);
+        out.println(ANSI_CYAN + "+----+----------------------+-----+------+------+------+------+------+" + ANSI_RESET);
+        out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2s " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|\n" + ANSI_RESET,
                 "ID", "NAME", "LVL", "HP", "MP", "STR", "DEX", "AGI");
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+------+------+------+------+------+" + ANSI_RESET);
+        out.println(ANSI_CYAN + "+----+----------------------+-----+------+------+------+------+------+" + ANSI_RESET);
 
         for (int i = 0; i < choiceList.size(); i++) {
             Hero h = choiceList.get(i);
-            System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2d " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3d " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|\n" + ANSI_RESET,
+            out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2d " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3d " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|\n" + ANSI_RESET,
                     (i + 1), h.getName(), h.getLevel(), h.getHp(), h.getMana(), h.getStrength(), h.getDexterity(), h.getAgility());
         }
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+------+------+------+------+------+" + ANSI_RESET);
-        System.out.println((choiceList.size() + 1) + ". Quit Game");
+        out.println(ANSI_CYAN + "+----+----------------------+-----+------+------+------+------+------+" + ANSI_RESET);
+        out.println((choiceList.size() + 1) + ". Quit Game");
 
-        int heroIndex = InputValidator.getValidInt(scanner, "Select hero ID: ", 1, choiceList.size() + 1) - 1;
+        int heroIndex = InputValidator.getValidInt(scanner, out, recorder, "Select hero ID: ", 1, choiceList.size() + 1) - 1;
 
         if (heroIndex == choiceList.size()) {
             return null;
         }
 
-        return choiceList.remove(heroIndex);
+        return assets.newHero(choiceList.remove(heroIndex));
     }
 
     @Override
@@ -135,13 +268,13 @@ public class LegendsGame extends Game {
         if (quitGame) return;
 
         if (!skipNextRender) {
-            board.printBoard();
+            board.printBoard(out);
             printDashboard();
             printControls();
         }
         skipNextRender = false;
 
-        String input = InputValidator.getValidOption(scanner, "Action: ", "w", "a", "s", "d", "m", "i", "q");
+        String input = InputValidator.getValidOption(scanner, out, recorder, "Action: ", "w", "a", "s", "d", "m", "i", "q");
 
         switch (input) {
             case "w": moveParty(scanner, -1, 0); break;
@@ -155,28 +288,30 @@ public class LegendsGame extends Game {
                 break;
             case "q": quitGame = true; break;
         }
+        marketController.advanceTime(++turn, party);
+        autosave();
     }
 
     private void printDashboard() {
-        System.out.println(ANSI_CYAN + "\n+------------------------------------------------------------+" + ANSI_RESET);
-        System.out.println(ANSI_CYAN + "|" + ANSI_RESET + ANSI_WHITE_BOLD + "                        PARTY STATUS                        " + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET);
-        System.out.println(ANSI_CYAN + "+----------------------+-------+--------+--------+-----------+" + ANSI_RESET);
-        System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-5s " + ANSI_CYAN + "|" + ANSI_RESET + " %-6s " + ANSI_CYAN + "|" + ANSI_RESET + " %-6s " + ANSI_CYAN + "|" + ANSI_RESET + " %-9s " + ANSI_CYAN + "|\n" + ANSI_RESET, "NAME", "LVL", "HP", "MP", "GOLD");
-        System.out.println(ANSI_CYAN + "+----------------------+-------+--------+--------+-----------+" + ANSI_RESET);
+        out.println(ANSI_CYAN + "\n+------------------------------------------------------------+" + ANSI_RESET);
+        out.println(ANSI_CYAN + "|" + ANSI_RESET + ANSI_WHITE_BOLD + "                        PARTY STATUS                        " + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET);
+        out.println(ANSI_CYAN + "+----------------------+-------+--------+--------+-----------+" + ANSI_RESET);
+        out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-5s " + ANSI_CYAN + "|" + ANSI_RESET + " %-6s " + ANSI_CYAN + "|" + ANSI_RESET + " %-6s " + ANSI_CYAN + "|" + ANSI_RESET + " %-9s " + ANSI_CYAN + "|\n" + ANSI_RESET, "NAME", "LVL", "HP", "MP", "GOLD");
+        out.println(ANSI_CYAN + "+----------------------+-------+--------+--------+-----------+" + ANSI_RESET);
 
         for (Hero h : party.getHeroes()) {
             String hp = String.format("%.0f", h.getHp());
             String mp = String.format("%.0f", h.getMana());
 
-            System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-5d " + ANSI_CYAN + "|" + ANSI_RESET + " %-6.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-6.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-9.0f " + ANSI_CYAN + "|\n" + ANSI_RESET,
+            out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-5d " + ANSI_CYAN + "|" + ANSI_RESET + " %-6.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-6.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-9.0f " + ANSI_CYAN + "|\n" + ANSI_RESET,
                     h.getName(), h.getLevel(), h.getHp(), h.getMana(), h.getMoney());
         }
-        System.out.println(ANSI_CYAN + "+------------------------------------------------------------+" + ANSI_RESET);
+        out.println(ANSI_CYAN + "+------------------------------------------------------------+" + ANSI_RESET);
     }
 
     private void printControls() {
-        System.out.println(" CONTROLS: [" + ANSI_YELLOW + "W" + ANSI_RESET + "]Up [" + ANSI_YELLOW + "A" + ANSI_RESET + "]Left [" + ANSI_YELLOW + "S" + ANSI_RESET + "]Down [" + ANSI_YELLOW + "D" + ANSI_RESET + "]Right  [" + ANSI_YELLOW + "M" + ANSI_RESET + "]Market [" + ANSI_YELLOW + "I" + ANSI_RESET + "]Info [" + ANSI_YELLOW + "Q" + ANSI_RESET + "]Quit");
-        System.out.println("--------------------------------------------------------------");
+        out.println(" CONTROLS: [" + ANSI_YELLOW + "W" + ANSI_RESET + "]Up [" + ANSI_YELLOW + "A" + ANSI_RESET + "]Left [" + ANSI_YELLOW + "S" + ANSI_RESET + "]Down [" + ANSI_YELLOW + "D" + ANSI_RESET + "]Right  [" + ANSI_YELLOW + "M" + ANSI_RESET + "]Market [" + ANSI_YELLOW + "I" + ANSI_RESET + "]Info [" + ANSI_YELLOW + "Q" + ANSI_RESET + "]Quit");
+        out.println("--------------------------------------------------------------");
     }
 
     private void moveParty(Scanner scanner, int dRow, int dCol) {
@@ -184,13 +319,13 @@ public class LegendsGame extends Game {
         int newCol = party.getCol() + dCol;
 
         if (!board.isValidCoordinate(newRow, newCol)) {
-            System.out.println(ANSI_RED + "You cannot move off the edge of the world!" + ANSI_RESET);
+            out.println(ANSI_RED + "You cannot move off the edge of the world!" + ANSI_RESET);
             return;
         }
 
         Cell targetCell = board.getCell(newRow, newCol);
         if (!targetCell.isAccessible()) {
-            System.out.println(ANSI_RED + "That path is blocked (Inaccessible)." + ANSI_RESET);
+            out.println(ANSI_RED + "That path is blocked (Inaccessible)." + ANSI_RESET);
             return;
         }
 
@@ -202,50 +337,52 @@ public class LegendsGame extends Game {
     }
 
     private void checkForBattle(Scanner scanner) {
-        if (random.nextDouble() < 0.50) {
-            System.out.println(ANSI_RED + "\n*** AMBUSH! You have encountered monsters! ***" + ANSI_RESET);
-            battleController.startBattle(scanner, party);
+        if (rng.nextDouble() < 0.50) {
+            out.println(ANSI_RED + "\n*** AMBUSH! You have encountered monsters! ***" + ANSI_RESET);
+            if (!battleController.startBattle(scanner, party)) {
+                quitGame = true;
+            }
         }
     }
 
     private void handleMarketInteraction(Scanner scanner) {
         Cell currentCell = board.getCell(party.getRow(), party.getCol());
         if (!currentCell.isMarket()) {
-            System.out.println(ANSI_YELLOW + "There is no market here." + ANSI_RESET);
+            out.println(ANSI_YELLOW + "There is no market here." + ANSI_RESET);
             return;
         }
         marketController.enterMarket(scanner, party);
     }
 
     private void showDetailedInfo() {
-        System.out.println(ANSI_WHITE_BOLD + "\n=== DETAILED HERO INFORMATION ===" + ANSI_RESET);
+        out.println(ANSI_WHITE_BOLD + "\n=== DETAILED HERO INFORMATION ===" + ANSI_RESET);
 
         for (Hero h : party.getHeroes()) {
-            System.out.println("\n" + ANSI_PURPLE + "+ " + String.format("[%s] %s (Lvl %d)", h.getType(), h.getName(), h.getLevel()) + ANSI_RESET);
+            out.println("\n" + ANSI_PURPLE + "+ " + String.format("[%s] %s (Lvl %d)", h.getType(), h.getName(), h.getLevel()) + ANSI_RESET);
 
-            System.out.println(ANSI_CYAN + "+----------+----------+----------+----------+----------+------------+------------+" + ANSI_RESET);
-            System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " HP: " + ANSI_GREEN + "%-5.0f" + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET + " MP: " + ANSI_BLUE + "%-5.0f" + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET + " STR: %-4.0f" + ANSI_CYAN + "|" + ANSI_RESET + " DEX: %-4.0f" + ANSI_CYAN + "|" + ANSI_RESET + " AGI: %-4.0f" + ANSI_CYAN + "|" + ANSI_RESET + " GOLD: " + ANSI_YELLOW + "%-5.0f" + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET + " XP: %-5d " + ANSI_CYAN + "|\n" + ANSI_RESET,
+            out.println(ANSI_CYAN + "+----------+----------+----------+----------+----------+------------+------------+" + ANSI_RESET);
+            out.printf(ANSI_CYAN + "|" + ANSI_RESET + " HP: " + ANSI_GREEN + "%-5.0f" + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET + " MP: " + ANSI_BLUE + "%-5.0f" + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET + " STR: %-4.0f" + ANSI_CYAN + "|" + ANSI_RESET + " DEX: %-4.0f" + ANSI_CYAN + "|" + ANSI_RESET + " AGI: %-4.0f" + ANSI_CYAN + "|" + ANSI_RESET + " GOLD: " + ANSI_YELLOW + "%-5.0f" + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET + " XP: %-5d " + ANSI_CYAN + "|\n" + ANSI_RESET,
                     h.getHp(), h.getMana(), h.getStrength(), h.getDexterity(), h.getAgility(), h.getMoney(), h.getExperience());
-            System.out.println(ANSI_CYAN + "+----------+----------+----------+----------+----------+------------+------------+" + ANSI_RESET);
+            out.println(ANSI_CYAN + "+----------+----------+----------+----------+----------+------------+------------+" + ANSI_RESET);
 
-            System.out.println(ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_WHITE_BOLD + "INVENTORY" + ANSI_RESET + "                                                                    " + ANSI_CYAN + "|" + ANSI_RESET);
-            System.out.println(ANSI_CYAN + "+----------------------+--------+----------+--------------------------------------+" + ANSI_RESET);
+            out.println(ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_WHITE_BOLD + "INVENTORY" + ANSI_RESET + "                                                                    " + ANSI_CYAN + "|" + ANSI_RESET);
+            out.println(ANSI_CYAN + "+----------------------+--------+----------+--------------------------------------+" + ANSI_RESET);
 
             List<Item> items = h.getInventory().getItems();
             if (items.isEmpty()) {
-                System.out.println(ANSI_CYAN + "|" + ANSI_RESET + " (Empty)              " + ANSI_CYAN + "|" + ANSI_RESET + "        " + ANSI_CYAN + "|" + ANSI_RESET + "          " + ANSI_CYAN + "|" + ANSI_RESET + "                                      " + ANSI_CYAN + "|" + ANSI_RESET);
+                out.println(ANSI_CYAN + "|" + ANSI_RESET + " (Empty)              " + ANSI_CYAN + "|" + ANSI_RESET + "        " + ANSI_CYAN + "|" + ANSI_RESET + "          " + ANSI_CYAN + "|" + ANSI_RESET + "                                      " + ANSI_CYAN + "|" + ANSI_RESET);
             } else {
                 for (Item item : items) {
                     String stats = extractItemStats(item);
                     if (stats.length() > 40) stats = stats.substring(0, 37) + "...";
 
-                    System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " Lv%-4d " + ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_YELLOW + "%-8.0f" + ANSI_RESET + " " + ANSI_CYAN + "|" + ANSI_RESET + " %-36s " + ANSI_CYAN + "|\n" + ANSI_RESET,
+                    out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " Lv%-4d " + ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_YELLOW + "%-8.0f" + ANSI_RESET + " " + ANSI_CYAN + "|" + ANSI_RESET + " %-36s " + ANSI_CYAN + "|\n" + ANSI_RESET,
                             item.getName(), item.getMinLevel(), item.getPrice(), stats);
                 }
             }
-            System.out.println(ANSI_CYAN + "+----------------------+--------+----------+--------------------------------------+" + ANSI_RESET);
+            out.println(ANSI_CYAN + "+----------------------+--------+----------+--------------------------------------+" + ANSI_RESET);
         }
-        System.out.println("Press Enter to continue...");
+        out.println("Press Enter to continue...");
     }
 
     private String extractItemStats(Item item) {
@@ -261,6 +398,46 @@ public class LegendsGame extends Game {
         return "";
     }
 
+    // STATE ACCESS (for SaveFile)
+
+    LegendsBoard getBoard() {
+        return board;
+    }
+
+    Party getParty() {
+        return party;
+    }
+
+    RandomGenerator getRandom() {
+        return rng;
+    }
+
+    AssetCatalog getAssets() {
+        return assets;
+    }
+
+    EconomyJournal.Session getJournalSession() {
+        return journalSession;
+    }
+
+    long getTurn() {
+        return turn;
+    }
+
+    /**
+     * @return The game's own markets, or null if it shops at shared ones.
+     */
+    MarketRegistry getOwnMarkets() {
+        return (marketController == null) ? null : marketController.getRegistry();
+    }
+
+    /**
+     * @return The game's own prices, or null if it trades at shared ones.
+     */
+    PriceEngine getOwnPrices() {
+        return (prices != sharedPrices) ? prices : null;
+    }
+
     @Override
     protected boolean isGameOver() {
         return (party != null && party.isPartyWipedOut()) || quitGame;
@@ -272,30 +449,29 @@ public class LegendsGame extends Game {
     }
 
     @Override
-    protected void endGame() {
-        System.out.println(ANSI_RED + "\nGame Over. Thanks for playing Legends: Monsters and Heroes!" + ANSI_RESET);
+    protected boolean endGame(Scanner scanner) {
+        out.println(ANSI_RED + "\nGame Over. Thanks for playing Legends: Monsters and Heroes!" + ANSI_RESET);
         if (party != null) {
-            System.out.println(ANSI_WHITE_BOLD + "Final Status:" + ANSI_RESET);
+            out.println(ANSI_WHITE_BOLD + "Final Status:" + ANSI_RESET);
             printDashboard();
         }
+        if (party != null && party.isPartyWipedOut()) {
+            clearSave(); // A defeated party cannot be continued
+        }
 
-        // --- NEW: Restart Logic ---
-        Scanner scanner = new Scanner(System.in); // Use a fresh scanner or pass it down if possible
-        // Note: System.in should not be closed if we want to read again, but here we are at end of app lifecycle usually.
-
-        String input = InputValidator.getValidOption(scanner, "\n" + ANSI_YELLOW + "Do you want to play again? (y/n): " + ANSI_RESET, "y", "n");
+        // --- Restart Logic ---
+        String input = InputValidator.getValidOption(scanner, out, recorder, "\n" + ANSI_YELLOW + "Do you want to play again? (y/n): " + ANSI_RESET, "y", "n");
 
         if (input.equals("y")) {
             // Restart the game
-            System.out.println(ANSI_GREEN + "Starting a new game..." + ANSI_RESET);
+            out.println(ANSI_GREEN + "Starting a new game..." + ANSI_RESET);
 
             quitGame = false;
             skipNextRender = false;
-
-            play(scanner);
-        } else {
-            System.out.println(ANSI_CYAN + "Goodbye!" + ANSI_RESET);
-            System.exit(0);
+            return true;
         }
+
+        out.println(ANSI_CYAN + "Goodbye!" + ANSI_RESET);
+        return false;
     }
-}
\ No newline at end of file
+}
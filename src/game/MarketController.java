@@ -5,14 +5,12 @@ import common.RandomGenerator;
 import entities.Hero;
 import entities.Party;
 import items.*;
-import items.Spell.SpellType;
-import utils.GameDataLoader;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Scanner;
-import java.util.stream.Collectors;
 
 /**
  * Controller responsible for managing Market interactions.
@@ -20,7 +18,18 @@ import java.util.stream.Collectors;
  */
 public class MarketController {
 
-    private final List<Item> globalItemCatalog;
+    private final ItemIndex catalog;
+    private final PrintStream out;
+    private final RandomGenerator rng;
+    private final EconomyJournal.Session journal;
+    private final MarketRegistry markets;
+    private final PriceEngine prices;
+    private final SharedMarket sharedMarket;
+    private final InputValidator.InputListener input; // Records the player's answers (null if not recorded)
+    private final PurchasePlanner planner = new PurchasePlanner();
+
+    // Plans retried when other shoppers move prices or stock between planning and buying
+    private static final int MAX_PLAN_ATTEMPTS = 3;
 
     // ANSI Colors
     private static final String ANSI_RESET = "\u001B[0m";
@@ -31,43 +40,45 @@ public class MarketController {
     private static final String ANSI_WHITE_BOLD = "\033[1;37m";
 
     public MarketController() {
-        this.globalItemCatalog = new ArrayList<>();
-        initializeCatalog();
+        this(GameOptions.builder().build(), null, null);
     }
 
     /**
-     * Loads all possible items into a master catalog.
-     * In a larger app, this might be injected rather than loaded here.
+     * @param options Where the market writes, its random source, items and shared markets.
+     * @param journal Makes every purchase and sale durable before it is applied (null to journal nothing).
+     * @param prices  Supply and demand prices, possibly shared with other sessions
+     *                (null for fixed catalog prices and 50% resale).
      */
-    private void initializeCatalog() {
-        globalItemCatalog.addAll(GameDataLoader.loadWeapons("Weaponry.txt"));
-        globalItemCatalog.addAll(GameDataLoader.loadArmor("Armory.txt"));
-        globalItemCatalog.addAll(GameDataLoader.loadPotions("Potions.txt"));
-        globalItemCatalog.addAll(GameDataLoader.loadSpells("FireSpells.txt", SpellType.FIRE));
-        globalItemCatalog.addAll(GameDataLoader.loadSpells("IceSpells.txt", SpellType.ICE));
-        globalItemCatalog.addAll(GameDataLoader.loadSpells("LightningSpells.txt", SpellType.LIGHTNING));
-
-        if (globalItemCatalog.isEmpty()) {
+    public MarketController(GameOptions options, EconomyJournal.Session journal, PriceEngine prices) {
+        this.catalog = options.getAssets().getItemIndex();
+        this.out = options.getOut();
+        this.rng = options.getRandom();
+        this.journal = journal;
+        this.markets = new MarketRegistry(catalog, rng);
+        this.prices = prices;
+        this.sharedMarket = options.getMarket();
+        this.input = options.getRecorder();
+
+        if (catalog.isEmpty()) {
             System.err.println("Warning: Market initialized with no items. Check data files.");
         }
     }
 
     /**
-     * Starts the market interaction loop.
-     * Generates a random subset of items for this specific market visit.
+     * Starts the market interaction loop for the market on the party's cell.
+     * Its stock is drawn on the first visit and kept until it restocks (see {@link #advanceTime}).
      */
     public void enterMarket(Scanner scanner, Party party) {
-        // Generate a unique inventory for this market session (e.g., 5-10 random items)
-        List<Item> marketInventory = generateMarketInventory();
+        MarketStock marketInventory = visit(party);
 
         boolean inMarket = true;
         while (inMarket) {
-            System.out.println("\n" + ANSI_YELLOW + "--- Market Menu ---" + ANSI_RESET);
-            System.out.println("1. Buy Items");
-            System.out.println("2. Sell Items");
-            System.out.println("3. Exit Market");
+            out.println("\n" + ANSI_YELLOW + "--- Market Menu ---" + ANSI_RESET);
+            out.println("1. Buy Items");
+            out.println("2. Sell Items");
+            out.println("3. Exit Market");
 
-            int choice = InputValidator.getValidInt(scanner, "Choose action: ", 1, 3);
+            int choice = InputValidator.getValidInt(scanner, out, input, "Choose action: ", 1, 3);
 
             switch (choice) {
                 case 1: buyLoop(scanner, party, marketInventory); break;
@@ -75,61 +86,178 @@ public class MarketController {
                 case 3: inMarket = false; break;
             }
         }
-        System.out.println(ANSI_GREEN + "You leave the market." + ANSI_RESET);
+        out.println(ANSI_GREEN + "You leave the market." + ANSI_RESET);
     }
 
-    private List<Item> generateMarketInventory() {
-        List<Item> inventory = new ArrayList<>();
-        if (globalItemCatalog.isEmpty()) return inventory;
+    /**
+     * Buys the most useful basket the hero can afford at the market on the party's cell, without
+     * asking anything (see {@link PurchasePlanner}). The basket is bought as one transaction: all
+     * of it or none.
+     *
+     * @return The items bought (a potion once per unit), empty if nothing was worth buying.
+     */
+    public List<Item> buyBest(Party party, Hero hero) {
+        MarketStock stock = visit(party);
+        for (int attempt = 1; attempt <= MAX_PLAN_ATTEMPTS; attempt++) {
+            PurchasePlanner.Plan plan = planner.plan(hero, stock.getInStock(), stock::getQuantity, this::buyPrice);
+            if (plan.isEmpty()) break;
+
+            String failure = buyAll(hero, plan.getItems(), stock);
+            if (failure == null) {
+                out.println(ANSI_GREEN + hero.getName() + " bought " + plan.getItems().size() + " items for "
+                        + Math.round(plan.getCost()) + " gold." + ANSI_RESET);
+                return plan.getItems();
+            }
+            // Someone else bought first or moved a price: plan again from what is there now
+        }
+        return Collections.emptyList();
+    }
 
-        // Create a shuffled copy of the catalog to pick unique random items
-        List<Item> shuffledCatalog = new ArrayList<>(globalItemCatalog);
-        Collections.shuffle(shuffledCatalog);
+    /**
+     * @return This game's own markets, or null if it shops at shared ones (for {@link SaveFile}).
+     */
+    MarketRegistry getRegistry() {
+        return (sharedMarket == null) ? markets : null;
+    }
 
-        // Select the first N items (e.g., 10)
-        int stockSize = Math.min(10, shuffledCatalog.size());
-        for (int i = 0; i < stockSize; i++) {
-            inventory.add(shuffledCatalog.get(i));
-        }
+    /**
+     * Advances game time to the tick (one per turn): markets due a restock get fresh stock on
+     * their next visit, and markets long unvisited or far from the party are forgotten.
+     */
+    public void advanceTime(long tick, Party party) {
+        markets.advance(tick, party);
+    }
 
-        return inventory;
+    /**
+     * @return The items in the stock the hero can buy right now (level and gold), in stock order.
+     */
+    List<Item> affordableFor(Hero hero, List<Item> stock) {
+        List<Item> affordable = new ArrayList<>();
+        for (Item item : stock) {
+            if (hero.getLevel() >= item.getMinLevel() && hero.getMoney() >= buyPrice(item)) {
+                affordable.add(item);
+            }
+        }
+        return affordable;
     }
 
     // BUYING LOGIC
-    private void buyLoop(Scanner scanner, Party party, List<Item> marketInventory) {
+    private void buyLoop(Scanner scanner, Party party, MarketStock marketInventory) {
         Hero shopper = selectHero(scanner, party, "Who is buying?");
         if (shopper == null) return;
 
+        boolean affordableOnly = false;
         while (true) {
-            System.out.println("\n" + ANSI_WHITE_BOLD + "--- Items for Sale (Shopper: " + shopper.getName() + " | Gold: " + shopper.getMoney() + ") ---" + ANSI_RESET);
-            printItemTable(marketInventory);
-            System.out.println((marketInventory.size() + 1) + ". Back");
-
-            int choice = InputValidator.getValidInt(scanner, "Select item to buy: ", 1, marketInventory.size() + 1);
-            if (choice == marketInventory.size() + 1) break;
+            List<Item> inStock = marketInventory.getInStock();
+            List<Item> shown = affordableOnly ? affordableFor(shopper, inStock) : inStock;
+            out.println("\n" + ANSI_WHITE_BOLD + "--- Items for Sale (Shopper: " + shopper.getName() + " | Gold: " + shopper.getMoney() + ") ---" + ANSI_RESET);
+            if (shown.isEmpty()) {
+                out.println(ANSI_YELLOW + (inStock.isEmpty() ? "The market is sold out." :
+                        "Nothing here that " + shopper.getName() + " can afford.") + ANSI_RESET);
+            } else {
+                printItemTable(shown, marketInventory);
+            }
+            out.println((shown.size() + 1) + (affordableOnly ? ". Show all items" : ". Show only what I can afford"));
+            out.println((shown.size() + 2) + ". Back");
+
+            int choice = InputValidator.getValidInt(scanner, out, input, "Select item to buy: ", 1, shown.size() + 2);
+            if (choice == shown.size() + 2) break;
+            if (choice == shown.size() + 1) {
+                affordableOnly = !affordableOnly;
+                continue;
+            }
 
-            Item item = marketInventory.get(choice - 1);
-            processPurchase(shopper, item);
+            Item item = shown.get(choice - 1);
+            processPurchase(shopper, item, marketInventory);
         }
     }
 
-    private void processPurchase(Hero hero, Item item) {
+    private void processPurchase(Hero hero, Item item, MarketStock stock) {
         // Rule: Hero cannot buy item if level is too low
         if (hero.getLevel() < item.getMinLevel()) {
-            System.out.println(ANSI_RED + "Cannot buy! Required Level: " + item.getMinLevel() + ANSI_RESET);
+            out.println(ANSI_RED + "Cannot buy! Required Level: " + item.getMinLevel() + ANSI_RESET);
             return;
         }
 
-        // Rule: Hero cannot buy if insufficient gold
-        if (hero.getMoney() < item.getPrice()) {
-            System.out.println(ANSI_RED + "Insufficient Gold! Cost: " + item.getPrice() + ANSI_RESET);
+        String failure = buyAll(hero, Collections.singletonList(item), stock);
+        if (failure != null) {
+            out.println(ANSI_RED + failure + ANSI_RESET);
             return;
         }
+        out.println(ANSI_GREEN + "Purchase successful! " + item.getName() + " added to inventory." + ANSI_RESET);
+    }
 
-        // Transaction
-        hero.deductMoney(item.getPrice());
-        hero.getInventory().addItem(item);
-        System.out.println(ANSI_GREEN + "Purchase successful! " + item.getName() + " added to inventory." + ANSI_RESET);
+    /**
+     * Buys the items for the hero as one transaction: all of them or none.
+     *
+     * @return null once bought, or why nothing was.
+     */
+    private String buyAll(Hero hero, List<Item> items, MarketStock stock) {
+        // Claim each unit before paying, so two shoppers at a shared market can't both get the last one.
+        // Rule: Hero cannot buy if insufficient gold (checked and priced in one step, since other
+        // shoppers may move a shared price at any time)
+        List<MarketStock.Claim> claims = new ArrayList<>(items.size());
+        double[] paid = new double[items.size()];
+        double[] moved = new double[items.size()];
+        double total = 0;
+        int priced = 0;
+        String failure = null;
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            MarketStock.Claim claim = stock.reserve(item);
+            if (claim == null) {
+                failure = "Sold out! Someone else bought the last " + item.getName() + ".";
+                break;
+            }
+            claims.add(claim);
+
+            double budget = hero.getMoney() - total;
+            double price;
+            if (prices == null) {
+                price = (budget >= item.getPrice()) ? item.getPrice() : -1;
+            } else {
+                PriceEngine.Trade trade = prices.buy(item, budget);
+                price = (trade == null) ? -1 : trade.getPrice();
+                if (trade != null) moved[i] = trade.getMoved();
+            }
+            if (price < 0) {
+                failure = "Insufficient Gold! Cost: " + buyPrice(item);
+                break;
+            }
+            paid[i] = price;
+            total += price;
+            priced++;
+        }
+
+        // Transaction (journaled first, so a crash can't lose or duplicate it). The hero belongs to
+        // this session's thread, so once the items are claimed nothing can come between debit and grant.
+        if (failure == null && journal != null) {
+            try {
+                journal.purchases(hero, items, paid);
+            } catch (RuntimeException e) {
+                rollBack(items, claims, moved, priced);
+                throw e;
+            }
+        }
+        if (failure != null) {
+            rollBack(items, claims, moved, priced);
+            return failure;
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            hero.deductMoney(paid[i]);
+            hero.getInventory().addItem(items.get(i));
+        }
+        return null;
+    }
+
+    /**
+     * Puts back the claimed units and takes back the price rises (moved[i]) of the first {@code priced} items.
+     */
+    private void rollBack(List<Item> items, List<MarketStock.Claim> claims, double[] moved, int priced) {
+        for (MarketStock.Claim claim : claims) claim.release();
+        if (prices == null) return;
+        for (int i = 0; i < priced; i++) prices.cancelBuy(items.get(i), moved[i]);
     }
 
     // SELLING LOGIC
@@ -140,16 +268,16 @@ public class MarketController {
         while (true) {
             List<Item> sellableItems = seller.getInventory().getItems();
             if (sellableItems.isEmpty()) {
-                System.out.println(ANSI_YELLOW + seller.getName() + " has nothing to sell." + ANSI_RESET);
+                out.println(ANSI_YELLOW + seller.getName() + " has nothing to sell." + ANSI_RESET);
                 break;
             }
 
-            System.out.println("\n" + ANSI_WHITE_BOLD + "--- Your Inventory (Seller: " + seller.getName() + ") ---" + ANSI_RESET);
-            // Show items with their resale value (50% of price)
+            out.println("\n" + ANSI_WHITE_BOLD + "--- Your Inventory (Seller: " + seller.getName() + ") ---" + ANSI_RESET);
+            // Show items with what the market pays for them now
             printSellableItemTable(sellableItems);
-            System.out.println((sellableItems.size() + 1) + ". Back");
+            out.println((sellableItems.size() + 1) + ". Back");
 
-            int choice = InputValidator.getValidInt(scanner, "Select item to sell: ", 1, sellableItems.size() + 1);
+            int choice = InputValidator.getValidInt(scanner, out, input, "Select item to sell: ", 1, sellableItems.size() + 1);
             if (choice == sellableItems.size() + 1) break;
 
             Item itemToSell = sellableItems.get(choice - 1);
@@ -158,56 +286,84 @@ public class MarketController {
     }
 
     private void processSale(Hero hero, Item item) {
-        double resaleValue = item.getPrice() * 0.5;
-
+        PriceEngine.Trade trade = (prices == null) ? null : prices.sell(item);
+        double resaleValue = (trade == null) ? item.getPrice() * PriceEngine.SELL_RATIO : trade.getPrice();
+
+        // Journaled before it is applied, like a purchase; a sale that can't be journaled never happened
+        if (journal != null) {
+            try {
+                journal.sale(hero, item, resaleValue);
+            } catch (RuntimeException e) {
+                if (trade != null) prices.cancelSell(item, trade.getMoved());
+                throw e;
+            }
+        }
         hero.getInventory().removeItem(item);
         hero.addMoney(resaleValue);
 
-        System.out.println(ANSI_GREEN + "Sold " + item.getName() + " for " + resaleValue + " gold." + ANSI_RESET);
+        out.println(ANSI_GREEN + "Sold " + item.getName() + " for " + resaleValue + " gold." + ANSI_RESET);
     }
 
     // HELPERS
+    private MarketStock visit(Party party) {
+        return (sharedMarket != null)
+                ? sharedMarket.visit(party.getRow(), party.getCol(), party, rng)
+                : markets.visit(party.getRow(), party.getCol(), party);
+    }
+
+    private double buyPrice(Item item) {
+        return (prices == null) ? item.getPrice() : prices.quoteBuy(item);
+    }
+
+    private double buyPrice(Item item, int units) {
+        return (prices == null) ? item.getPrice() * units : prices.quoteBuy(item, units);
+    }
+
+    private double sellPrice(Item item) {
+        return (prices == null) ? item.getPrice() * PriceEngine.SELL_RATIO : prices.quoteSell(item);
+    }
+
     private Hero selectHero(Scanner scanner, Party party, String prompt) {
-        System.out.println(ANSI_CYAN + prompt + ANSI_RESET);
+        out.println(ANSI_CYAN + prompt + ANSI_RESET);
         for (int i = 0; i < party.getSize(); i++) {
-            System.out.println((i + 1) + ". " + party.getHero(i).getName());
+            out.println((i + 1) + ". " + party.getHero(i).getName());
         }
-        System.out.println((party.getSize() + 1) + ". Cancel");
+        out.println((party.getSize() + 1) + ". Cancel");
 
-        int choice = InputValidator.getValidInt(scanner, "Select Hero: ", 1, party.getSize() + 1);
+        int choice = InputValidator.getValidInt(scanner, out, input, "Select Hero: ", 1, party.getSize() + 1);
         if (choice == party.getSize() + 1) return null;
 
         return party.getHero(choice - 1);
     }
 
     // PRETTY TABLE PRINTING
-    private void printItemTable(List<Item> items) {
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
-        System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2s " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3s " + ANSI_CYAN + "|" + ANSI_RESET + " %-8s " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET, "ID", "NAME", "LVL", "COST", "TYPE / STATS");
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
+    private void printItemTable(List<Item> items, MarketStock stock) {
+        out.println(ANSI_CYAN + "+----+----------------------+-----+----------+-----+--------------------------------+" + ANSI_RESET);
+        out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2s " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3s " + ANSI_CYAN + "|" + ANSI_RESET + " %-8s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3s " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET, "ID", "NAME", "LVL", "COST", "QTY", "TYPE / STATS");
+        out.println(ANSI_CYAN + "+----+----------------------+-----+----------+-----+--------------------------------+" + ANSI_RESET);
 
         for (int i = 0; i < items.size(); i++) {
             Item item = items.get(i);
             String stats = extractStats(item); // Helper to get simplified stats
-            System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2d " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3d " + ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_YELLOW + "%-8.0f" + ANSI_RESET + " " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET,
-                    (i + 1), item.getName(), item.getMinLevel(), item.getPrice(), stats);
+            out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2d " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3d " + ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_YELLOW + "%-8.0f" + ANSI_RESET + " " + ANSI_CYAN + "|" + ANSI_RESET + " %-3d " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET,
+                    (i + 1), item.getName(), item.getMinLevel(), buyPrice(item), stock.getQuantity(item), stats);
         }
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
+        out.println(ANSI_CYAN + "+----+----------------------+-----+----------+-----+--------------------------------+" + ANSI_RESET);
     }
 
     private void printSellableItemTable(List<Item> items) {
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
-        System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2s " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3s " + ANSI_CYAN + "|" + ANSI_RESET + " %-8s " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET, "ID", "NAME", "LVL", "SELL", "TYPE / STATS");
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
+        out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
+        out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2s " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3s " + ANSI_CYAN + "|" + ANSI_RESET + " %-8s " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET, "ID", "NAME", "LVL", "SELL", "TYPE / STATS");
+        out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
 
         for (int i = 0; i < items.size(); i++) {
             Item item = items.get(i);
             String stats = extractStats(item);
-            double sellPrice = item.getPrice() * 0.5;
-            System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2d " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3d " + ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_YELLOW + "%-8.0f" + ANSI_RESET + " " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET,
+            double sellPrice = sellPrice(item);
+            out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2d " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3d " + ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_YELLOW + "%-8.0f" + ANSI_RESET + " " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET,
                     (i + 1), item.getName(), item.getMinLevel(), sellPrice, stats);
         }
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
+        out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
     }
 
     // Helper to format item details concisely for the table
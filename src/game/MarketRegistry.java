@@ -0,0 +1,149 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Party;
+import items.Item;
+import items.ItemIndex;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every market the party has visited, keyed by board cell.
+ *
+ * <p>A market's stock is drawn on the first visit and kept, so stepping out and back in cannot
+ * reroll it. Each market has one timer on a {@link TimerWheel} over game ticks: when it fires, the
+ * market is marked for a fresh stock (drawn on the next visit, at the party's level then), or
+ * dropped if the party has been away too long or is too far away. Advancing a tick only touches
+ * the markets whose timers are due, and at most {@link #MAX_MARKETS} are kept however large the
+ * board is; a dropped market draws a new stock if the party comes back.</p>
+ *
+ * <p>Not thread-safe: each game owns its registry.</p>
+ */
+final class MarketRegistry {
+
+    static final int STOCK_SIZE = 10;
+    static final int MAX_QUANTITY = 3;
+
+    static final long RESTOCK_INTERVAL = 50;   // Ticks between restocks
+    static final long IDLE_LIMIT = 300;        // Ticks without a visit before a market is dropped
+    static final int FAR_DISTANCE = 64;        // Cells away (Manhattan) before a market is dropped
+    static final int MAX_MARKETS = 256;
+
+    private final ItemIndex catalog;
+    private final RandomGenerator rng;
+    private final Map<Long, MarketStock> markets = new HashMap<>();
+    private TimerWheel<MarketStock> timers;
+    private long tick;
+
+    MarketRegistry(ItemIndex catalog, RandomGenerator rng) {
+        this.catalog = catalog;
+        this.rng = rng;
+        this.timers = new TimerWheel<>((int) RESTOCK_INTERVAL, 0);
+    }
+
+    /**
+     * Returns the market at the cell, created on first visit, with a stock drawn for the party's level
+     * if it has none yet or is due a restock.
+     */
+    MarketStock visit(int row, int col, Party party) {
+        long key = key(row, col);
+        MarketStock market = markets.get(key);
+        if (market == null) {
+            if (markets.size() >= MAX_MARKETS) dropFarthest(party);
+            market = new MarketStock(row, col);
+            markets.put(key, market);
+            schedule(market, tick + RESTOCK_INTERVAL);
+        }
+        if (market.isStale()) draw(market, catalog, party, rng);
+        market.setLastVisit(tick);
+        return market;
+    }
+
+    /**
+     * Moves game time forward, restocking or dropping the markets whose timers are due.
+     */
+    void advance(long tick, Party party) {
+        this.tick = tick;
+        timers.advance(tick, market -> {
+            if (market.isDropped()) return;
+            if (tick - market.getLastVisit() > IDLE_LIMIT || distance(market, party) > FAR_DISTANCE) {
+                drop(market);
+                return;
+            }
+            market.markStale();
+            schedule(market, tick + RESTOCK_INTERVAL);
+        });
+    }
+
+    /**
+     * @return The number of markets kept.
+     */
+    int size() {
+        return markets.size();
+    }
+
+    /**
+     * @return Every market kept, each with its pending timer's tick (for {@link SaveFile}).
+     */
+    Collection<MarketStock> getMarkets() {
+        return markets.values();
+    }
+
+    /**
+     * Replaces every market with saved ones at the given tick, rescheduling their timers
+     * (for {@link SaveFile}).
+     */
+    void restore(long tick, List<MarketStock> saved) {
+        this.tick = tick;
+        markets.clear();
+        timers = new TimerWheel<>((int) RESTOCK_INTERVAL, tick);
+        for (MarketStock market : saved) {
+            markets.put(key(market.row, market.col), market);
+            schedule(market, market.getTimerDue());
+        }
+    }
+
+    /**
+     * Restocks the market with up to {@link #STOCK_SIZE} items for the party's level, 1 to
+     * {@link #MAX_QUANTITY} of each.
+     */
+    static void draw(MarketStock market, ItemIndex catalog, Party party, RandomGenerator rng) {
+        List<Item> items = catalog.sample(party.getHighestLevel(), STOCK_SIZE, rng);
+        int[] quantities = new int[items.size()];
+        for (int i = 0; i < quantities.length; i++) quantities[i] = 1 + rng.nextInt(MAX_QUANTITY);
+        market.restock(items, quantities);
+    }
+
+    private void schedule(MarketStock market, long dueTick) {
+        market.setTimerDue(dueTick);
+        timers.schedule(market, dueTick);
+    }
+
+    private void dropFarthest(Party party) {
+        // Only when full, which needs MAX_MARKETS markets visited within IDLE_LIMIT ticks
+        MarketStock farthest = null;
+        for (MarketStock market : markets.values()) {
+            if (farthest == null || distance(market, party) > distance(farthest, party)
+                    || (distance(market, party) == distance(farthest, party) && market.getLastVisit() < farthest.getLastVisit())) {
+                farthest = market;
+            }
+        }
+        drop(farthest);
+    }
+
+    private void drop(MarketStock market) {
+        markets.remove(key(market.row, market.col));
+        market.markDropped();
+    }
+
+    private static int distance(MarketStock market, Party party) {
+        return Math.abs(market.row - party.getRow()) + Math.abs(market.col - party.getCol());
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+}
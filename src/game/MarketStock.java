@@ -0,0 +1,138 @@
+package game;
+
+import items.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The goods of one market cell: what is on sale and how many of each are left.
+ * Kept by a {@link MarketRegistry} or {@link SharedMarket} between visits, so leaving and
+ * re-entering shows the same stock.
+ *
+ * <p>Lock-free, so parties on different threads can shop at the same market: each item's quantity
+ * is a slot of an atomic array, and a buyer claims a unit by compare-and-set on its slot before
+ * paying, so two buyers can never both get the last one. A restock publishes a whole new set of
+ * goods at once; a buyer still holding the old set just buys from it.</p>
+ */
+final class MarketStock {
+
+    /**
+     * One stocking of the market. The items never change; only their quantities do.
+     */
+    private static final class Goods {
+        final Item[] items;
+        final AtomicIntegerArray quantities;
+
+        Goods(Item[] items, int[] quantities) {
+            this.items = items;
+            this.quantities = new AtomicIntegerArray(quantities);
+        }
+
+        int slot(Item item) {
+            for (int i = 0; i < items.length; i++) {
+                if (items[i] == item) return i;
+            }
+            return -1;
+        }
+    }
+
+    private static final Goods EMPTY = new Goods(new Item[0], new int[0]);
+
+    final int row;
+    final int col;
+
+    private volatile Goods goods = EMPTY;
+    private volatile boolean stale = true;      // Redrawn on the next visit
+    private volatile boolean dropped;           // No longer kept; pending timers ignore it
+    private volatile long lastVisit;
+    private long timerDue;                      // Tick its MarketRegistry timer fires (unused when shared)
+
+    MarketStock(int row, int col) {
+        this.row = row;
+        this.col = col;
+    }
+
+    /**
+     * Replaces the goods (quantities[i] of items.get(i)).
+     */
+    void restock(List<Item> items, int[] quantities) {
+        this.goods = new Goods(items.toArray(new Item[0]), quantities);
+        this.stale = false;
+    }
+
+    /**
+     * @return Every item of the current stocking, sold out or not, in stock order (for saving).
+     */
+    List<Item> getGoods() {
+        return List.of(goods.items);
+    }
+
+    /**
+     * @return The items with at least one left, in stock order.
+     */
+    List<Item> getInStock() {
+        Goods current = goods;
+        List<Item> inStock = new ArrayList<>(current.items.length);
+        for (int i = 0; i < current.items.length; i++) {
+            if (current.quantities.get(i) > 0) inStock.add(current.items[i]);
+        }
+        return inStock;
+    }
+
+    int getQuantity(Item item) {
+        Goods current = goods;
+        int slot = current.slot(item);
+        return (slot < 0) ? 0 : current.quantities.get(slot);
+    }
+
+    /**
+     * One unit claimed by a buyer, who must then pay for it or {@link #release} it.
+     */
+    static final class Claim {
+        private final Goods goods;
+        private final int slot;
+
+        private Claim(Goods goods, int slot) {
+            this.goods = goods;
+            this.slot = slot;
+        }
+
+        /**
+         * Puts the unit back (the purchase fell through). Goes to the stocking it came from, so it
+         * disappears if the market has restocked since.
+         */
+        void release() {
+            goods.quantities.incrementAndGet(slot);
+        }
+    }
+
+    /**
+     * Claims one of the item for a buyer.
+     *
+     * @return The claim, or null if none are left.
+     */
+    Claim reserve(Item item) {
+        Goods current = goods;
+        int slot = current.slot(item);
+        if (slot < 0) return null;
+        while (true) {
+            int left = current.quantities.get(slot);
+            if (left == 0) return null;
+            if (current.quantities.compareAndSet(slot, left, left - 1)) return new Claim(current, slot);
+        }
+    }
+
+    boolean isStale() { return stale; }
+    void markStale() { stale = true; }
+
+    boolean isDropped() { return dropped; }
+    void markDropped() { dropped = true; }
+
+    long getLastVisit() { return lastVisit; }
+    void setLastVisit(long tick) { lastVisit = tick; }
+
+    long getTimerDue() { return timerDue; }
+    void setTimerDue(long tick) { timerDue = tick; }
+}
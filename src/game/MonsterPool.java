@@ -0,0 +1,116 @@
+package game;
+
+import entities.Monster;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Monsters for a BattleEngine. Each template's stats scaled to a level are computed once and
+ * kept, and monsters released after a battle are reset to those stats and handed out again,
+ * so setting up a battle allocates nothing once every (template, level) pair has been seen.
+ *
+ * <p>Not thread-safe: each engine owns its pool.</p>
+ */
+final class MonsterPool {
+
+    /**
+     * One template's stats at one level, and the idle monsters built from them.
+     */
+    private static final class Scaled {
+        final Monster template;
+        final int level;
+        final double damage;
+        final double defense;
+        final double dodgeChance;
+
+        Monster[] idle = new Monster[4];
+        int idleCount;
+
+        Scaled(Monster template, int level) {
+            this.template = template;
+            this.level = level;
+            // Same expressions as the spawn rules always used, so scaled stats are bit-for-bit unchanged
+            double ratio = level / (double) Math.max(1, template.getLevel());
+            this.damage = template.getBaseDamage() * ratio;
+            this.defense = template.getDefense() * ratio;
+            this.dodgeChance = template.getRawDodgeChance();
+        }
+
+        Monster newMonster() {
+            return new Monster(template.getName(), template.getType(), level, damage, defense, dodgeChance);
+        }
+    }
+
+    private final List<Monster> templates;
+    private final Scaled[][] scaled; // [template][level], filled on first use
+
+    // Monsters handed out by acquire() and not yet released
+    private Monster[] borrowed = new Monster[8];
+    private Scaled[] borrowedFrom = new Scaled[8];
+    private int borrowedCount;
+
+    MonsterPool(List<Monster> templates) {
+        this.templates = templates;
+        this.scaled = new Scaled[templates.size()][];
+    }
+
+    private Scaled scaled(int templateIndex, int level) {
+        Scaled[] byLevel = scaled[templateIndex];
+        if (byLevel == null || byLevel.length <= level) {
+            byLevel = (byLevel == null) ? new Scaled[Math.max(level + 1, 16)]
+                    : Arrays.copyOf(byLevel, Math.max(level + 1, byLevel.length * 2));
+            scaled[templateIndex] = byLevel;
+        }
+        Scaled entry = byLevel[level];
+        if (entry == null) {
+            entry = new Scaled(templates.get(templateIndex), level);
+            byLevel[level] = entry;
+        }
+        return entry;
+    }
+
+    /**
+     * @return A new monster the caller keeps (never returned to the pool).
+     */
+    Monster create(int templateIndex, int level) {
+        return scaled(templateIndex, level).newMonster();
+    }
+
+    /**
+     * @return A freshly spawned monster, reused if one is idle; returned by {@link #releaseAll()}.
+     */
+    Monster acquire(int templateIndex, int level) {
+        Scaled entry = scaled(templateIndex, level);
+        Monster monster;
+        if (entry.idleCount > 0) {
+            monster = entry.idle[--entry.idleCount];
+            entry.idle[entry.idleCount] = null;
+            monster.reset(entry.damage, entry.defense, entry.dodgeChance);
+        } else {
+            monster = entry.newMonster();
+        }
+
+        if (borrowedCount == borrowed.length) {
+            borrowed = Arrays.copyOf(borrowed, borrowedCount * 2);
+            borrowedFrom = Arrays.copyOf(borrowedFrom, borrowedCount * 2);
+        }
+        borrowed[borrowedCount] = monster;
+        borrowedFrom[borrowedCount++] = entry;
+        return monster;
+    }
+
+    /**
+     * Returns every acquired monster to the pool. They must no longer be used.
+     */
+    void releaseAll() {
+        for (int i = 0; i < borrowedCount; i++) {
+            Scaled entry = borrowedFrom[i];
+            if (entry.idleCount == entry.idle.length) entry.idle = Arrays.copyOf(entry.idle, entry.idleCount * 2);
+            entry.idle[entry.idleCount++] = borrowed[i];
+            borrowed[i] = null;
+            borrowedFrom[i] = null;
+        }
+        borrowedCount = 0;
+    }
+}
@@ -0,0 +1,141 @@
+package game;
+
+import common.RandomGenerator;
+
+import java.util.List;
+
+/**
+ * One monster phase for many independent battles at once, laid out for SIMD.
+ *
+ * <p>Every per-combatant array is slot-major: the value for hero (or monster) slot {@code s}
+ * in battle {@code b} is at {@code s * battles + b}, so one slot across consecutive battles is
+ * contiguous and maps onto vector lanes. Battles with fewer combatants are padded with fainted
+ * slots.</p>
+ *
+ * <p>Random draws are taken up front by {@link #roll(RandomGenerator)} in a fixed order, so the
+ * vector and scalar kernels give bit-identical results for the same stream. A target is picked
+ * as {@code floor(targetRoll * livingHeroes)}, so results are equivalent in distribution to
+ * {@link CombatState#resolveMonstersTurn(RandomGenerator)} but not draw-for-draw identical.</p>
+ */
+public final class MonsterTurnBatch {
+
+    private static final String VECTOR_KERNEL = "game.VectorMonsterTurnKernel";
+    private static final MonsterTurnKernel DEFAULT_KERNEL = loadKernel();
+
+    final int battles;
+    final int heroSlots;
+    final int monsterSlots;
+
+    final double[] heroHp;
+    final double[] heroDodge;      // Dodge probability, already capped
+    final double[] heroArmor;      // Armor damage reduction
+    final double[] monsterHp;
+    final double[] monsterDamage;
+
+    final double[] targetRoll;
+    final double[] dodgeRoll;
+    final double[] damageTaken;    // Per battle
+
+    private MonsterTurnBatch(int battles, int heroSlots, int monsterSlots) {
+        this.battles = battles;
+        this.heroSlots = heroSlots;
+        this.monsterSlots = monsterSlots;
+
+        this.heroHp = new double[heroSlots * battles];
+        this.heroDodge = new double[heroSlots * battles];
+        this.heroArmor = new double[heroSlots * battles];
+        this.monsterHp = new double[monsterSlots * battles];
+        this.monsterDamage = new double[monsterSlots * battles];
+
+        this.targetRoll = new double[monsterSlots * battles];
+        this.dodgeRoll = new double[monsterSlots * battles];
+        this.damageTaken = new double[battles];
+    }
+
+    /**
+     * Copies the combat stats of several battles into one batch.
+     */
+    public static MonsterTurnBatch of(List<CombatState> states) {
+        int heroSlots = 0;
+        int monsterSlots = 0;
+        for (CombatState s : states) {
+            heroSlots = Math.max(heroSlots, s.heroCount);
+            monsterSlots = Math.max(monsterSlots, s.monsterCount);
+        }
+
+        int n = states.size();
+        MonsterTurnBatch batch = new MonsterTurnBatch(n, heroSlots, monsterSlots);
+        for (int b = 0; b < n; b++) {
+            CombatState s = states.get(b);
+            for (int h = 0; h < s.heroCount; h++) {
+                int i = h * n + b;
+                double agility = s.heroAgility[h];
+                batch.heroHp[i] = s.heroHp[h];
+                batch.heroDodge[i] = Math.min(CombatState.MAX_HERO_DODGE, agility / (agility + 1000.0));
+                batch.heroArmor[i] = s.heroArmor[h];
+            }
+            for (int m = 0; m < s.monsterCount; m++) {
+                int i = m * n + b;
+                batch.monsterHp[i] = s.monsterHp[m];
+                batch.monsterDamage[i] = s.monsterDamage[m];
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Copies hero HP back into the battles this batch was built from (same order).
+     */
+    public void applyTo(List<CombatState> states) {
+        for (int b = 0; b < battles; b++) {
+            CombatState s = states.get(b);
+            for (int h = 0; h < s.heroCount; h++) {
+                s.setHeroHp(h, heroHp[h * battles + b]);
+            }
+        }
+    }
+
+    /**
+     * Draws the target and dodge rolls for the next phase: all target rolls, then all dodge rolls,
+     * each in slot-major order.
+     */
+    public void roll(RandomGenerator rng) {
+        for (int i = 0; i < targetRoll.length; i++) targetRoll[i] = rng.nextDouble();
+        for (int i = 0; i < dodgeRoll.length; i++) dodgeRoll[i] = rng.nextDouble();
+    }
+
+    /**
+     * Resolves one monster phase in every battle using the rolls from {@link #roll(RandomGenerator)}.
+     * Damage dealt is added to {@link #getDamageTaken(int)}.
+     */
+    public void resolveMonstersTurn() {
+        DEFAULT_KERNEL.resolve(this);
+    }
+
+    void resolveMonstersTurn(MonsterTurnKernel kernel) {
+        kernel.resolve(this);
+    }
+
+    public int getBattleCount() { return battles; }
+    public double getHeroHp(int battle, int hero) { return heroHp[hero * battles + battle]; }
+    public double getDamageTaken(int battle) { return damageTaken[battle]; }
+
+    /**
+     * @return true if the Vector API backend is in use (needs {@code --add-modules jdk.incubator.vector}).
+     */
+    public static boolean isVectorized() {
+        return !(DEFAULT_KERNEL instanceof ScalarMonsterTurnKernel);
+    }
+
+    /**
+     * Uses the Vector API kernel when the incubator module is present, the scalar one otherwise.
+     * The vector class is only referenced by name, so loading it is what probes the module.
+     */
+    static MonsterTurnKernel loadKernel() {
+        try {
+            return (MonsterTurnKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarMonsterTurnKernel();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package game;
+
+/**
+ * Backend that resolves a {@link MonsterTurnBatch}.
+ * All implementations must give bit-identical results for the same batch and rolls.
+ */
+interface MonsterTurnKernel {
+
+    void resolve(MonsterTurnBatch batch);
+}
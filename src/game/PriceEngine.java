@@ -0,0 +1,272 @@
+package game;
+
+import items.Item;
+import utils.AssetCatalog;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Supply and demand prices for every item in a catalog. Each purchase raises the item's price and
+ * each sale lowers it, by a fixed factor, and the change decays back toward the catalog price with
+ * a set half-life. Quotes stay between {@link #MIN_MULTIPLIER} and {@link #MAX_MULTIPLIER} times
+ * the catalog price, rounded to whole gold once they move, and a market buys items back at
+ * {@link #SELL_RATIO} of its selling price.
+ *
+ * <p>State is two primitive arrays indexed by catalog id: the log of each item's price multiplier
+ * and the tick it was last written. Decay is applied lazily when an item is quoted or traded, so a
+ * tick of the clock touches nothing. Items are guarded by striped locks, so any number of sessions
+ * can share one engine and every quote or trade is O(1).</p>
+ *
+ * <p>A session sharing an engine sees prices moved by other players, so its replay log will not
+ * reproduce its market visits exactly.</p>
+ */
+public final class PriceEngine {
+
+    /** Change in log-price per item bought (+) or sold (-): about 5%. */
+    public static final double IMPACT = 0.05;
+    public static final double SELL_RATIO = 0.5;
+    public static final double MIN_MULTIPLIER = 0.5;
+    public static final double MAX_MULTIPLIER = 3.0;
+
+    /** Half-life of a price change in a single game, in turns. */
+    public static final double SESSION_HALF_LIFE_TURNS = 25;
+    /** Half-life of a price change on a shared server, in seconds. */
+    public static final double SHARED_HALF_LIFE_SECONDS = 300;
+
+    private static final int STRIPES = 64; // Power of two
+    private static final double MIN_PRESSURE = Math.log(MIN_MULTIPLIER);
+    private static final double MAX_PRESSURE = Math.log(MAX_MULTIPLIER);
+
+    private final AssetCatalog assets;
+    private final LongSupplier clock;
+    private final double decayPerTick; // ln(2) / half-life
+
+    private final double[] pressure;   // [item id] log of the price multiplier when last written
+    private final long[] writtenAt;    // [item id] clock tick of that write
+    private final Object[] locks = new Object[STRIPES];
+
+    /**
+     * One trade's price and how far it actually moved the item's pressure (less than
+     * {@link #IMPACT} at a price limit), so a trade that falls through can undo exactly that.
+     */
+    public static final class Trade {
+        private final double price;
+        private final double moved;
+
+        private Trade(double price, double moved) {
+            this.price = price;
+            this.moved = moved;
+        }
+
+        /** @return Gold paid (buy) or received (sell). */
+        public double getPrice() { return price; }
+        /** @return Change applied to the log-price, for {@link #cancelBuy} or {@link #cancelSell}. */
+        public double getMoved() { return moved; }
+    }
+
+    /**
+     * @param clock    Current tick (game turns, seconds, ...); must never go backwards.
+     * @param halfLife Ticks for a price change to decay by half.
+     */
+    public PriceEngine(AssetCatalog assets, LongSupplier clock, double halfLife) {
+        if (!(halfLife > 0)) throw new IllegalArgumentException("Half-life must be positive: " + halfLife);
+        this.assets = assets;
+        this.clock = clock;
+        this.decayPerTick = Math.log(2) / halfLife;
+        int size = assets.getItems().size();
+        this.pressure = new double[size];
+        this.writtenAt = new long[size];
+        for (int i = 0; i < STRIPES; i++) locks[i] = new Object();
+    }
+
+    /**
+     * @return An engine for many sessions, decaying in real time.
+     */
+    public static PriceEngine shared(AssetCatalog assets) {
+        long start = System.nanoTime();
+        return new PriceEngine(assets, () -> (System.nanoTime() - start) / 1_000_000_000L, SHARED_HALF_LIFE_SECONDS);
+    }
+
+    /**
+     * @return What a market charges for the item now.
+     */
+    public double quoteBuy(Item item) {
+        int id = assets.getItemId(item);
+        if (id < 0) return item.getPrice();
+        synchronized (lock(id)) {
+            return price(item, current(id, clock.getAsLong()));
+        }
+    }
+
+    /**
+     * @return What buying that many of the item in a row costs now, each one raising the next one's price.
+     */
+    public double quoteBuy(Item item, int units) {
+        int id = assets.getItemId(item);
+        if (id < 0) return item.getPrice() * units;
+        synchronized (lock(id)) {
+            double p = current(id, clock.getAsLong());
+            double total = 0;
+            for (int i = 0; i < units; i++) {
+                total += price(item, p);
+                p = clamp(p + IMPACT);
+            }
+            return total;
+        }
+    }
+
+    /**
+     * @return What a market pays for the item now.
+     */
+    public double quoteSell(Item item) {
+        return quoteBuy(item) * SELL_RATIO;
+    }
+
+    /**
+     * Buys one of the item if it costs no more than the budget, raising its price.
+     *
+     * @return The price paid and the rise applied, or null if the item costs more than the budget (nothing changes).
+     */
+    public Trade buy(Item item, double budget) {
+        int id = assets.getItemId(item);
+        if (id < 0) return (item.getPrice() <= budget) ? new Trade(item.getPrice(), 0) : null;
+        synchronized (lock(id)) {
+            long now = clock.getAsLong();
+            double current = current(id, now);
+            double price = price(item, current);
+            if (price > budget) return null;
+            return new Trade(price, write(id, current + IMPACT, now) - current);
+        }
+    }
+
+    /**
+     * Takes back the price rise of a {@link #buy} that fell through.
+     *
+     * @param moved The rise the buy applied ({@link Trade#getMoved}).
+     */
+    public void cancelBuy(Item item, double moved) {
+        int id = assets.getItemId(item);
+        if (id < 0) return;
+        synchronized (lock(id)) {
+            long now = clock.getAsLong();
+            write(id, current(id, now) - moved, now);
+        }
+    }
+
+    /**
+     * Sells one of the item to the market, lowering its price.
+     *
+     * @return The gold paid for it and the drop applied (negative).
+     */
+    public Trade sell(Item item) {
+        int id = assets.getItemId(item);
+        if (id < 0) return new Trade(item.getPrice() * SELL_RATIO, 0);
+        synchronized (lock(id)) {
+            long now = clock.getAsLong();
+            double current = current(id, now);
+            double payout = price(item, current) * SELL_RATIO;
+            return new Trade(payout, write(id, current - IMPACT, now) - current);
+        }
+    }
+
+    /**
+     * Takes back the price drop of a {@link #sell} that fell through.
+     *
+     * @param moved The drop the sale applied ({@link Trade#getMoved}).
+     */
+    public void cancelSell(Item item, double moved) {
+        int id = assets.getItemId(item);
+        if (id < 0) return;
+        synchronized (lock(id)) {
+            long now = clock.getAsLong();
+            write(id, current(id, now) - moved, now);
+        }
+    }
+
+    /**
+     * @return The item's price multiplier now (1 at the catalog price).
+     */
+    public double getMultiplier(Item item) {
+        int id = assets.getItemId(item);
+        if (id < 0) return 1.0;
+        synchronized (lock(id)) {
+            return Math.exp(current(id, clock.getAsLong()));
+        }
+    }
+
+    // SAVING (see SaveFile)
+
+    /**
+     * @return The ids of the items whose price has moved, in id order.
+     */
+    int[] getMovedItemIds() {
+        int count = 0;
+        int[] ids = new int[pressure.length];
+        for (int id = 0; id < pressure.length; id++) {
+            synchronized (lock(id)) {
+                if (pressure[id] != 0) ids[count++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * @return The log of the item's price multiplier when last written (undecayed).
+     */
+    double getPressure(int id) {
+        synchronized (lock(id)) {
+            return pressure[id];
+        }
+    }
+
+    /**
+     * @return The tick the item's pressure was last written.
+     */
+    long getWrittenAt(int id) {
+        synchronized (lock(id)) {
+            return writtenAt[id];
+        }
+    }
+
+    /**
+     * Puts back a saved item's price state.
+     */
+    void restorePressure(int id, double p, long tick) {
+        synchronized (lock(id)) {
+            pressure[id] = clamp(p);
+            writtenAt[id] = tick;
+        }
+    }
+
+    // Callers hold the item's lock
+
+    private double current(int id, long now) {
+        double p = pressure[id];
+        if (p == 0) return 0;
+        long elapsed = now - writtenAt[id];
+        return (elapsed <= 0) ? p : p * Math.exp(-decayPerTick * elapsed);
+    }
+
+    /**
+     * @return The pressure stored, after clamping.
+     */
+    private double write(int id, double p, long now) {
+        pressure[id] = clamp(p);
+        writtenAt[id] = now;
+        return pressure[id];
+    }
+
+    private static double clamp(double p) {
+        return Math.max(MIN_PRESSURE, Math.min(MAX_PRESSURE, p));
+    }
+
+    private static double price(Item item, double p) {
+        // An untouched item costs exactly its catalog price
+        return (p == 0) ? item.getPrice() : Math.round(item.getPrice() * Math.exp(p));
+    }
+
+    private Object lock(int id) {
+        return locks[id & (STRIPES - 1)];
+    }
+}
@@ -0,0 +1,486 @@
+package game;
+
+import entities.Hero;
+import entities.Hero.HeroType;
+import items.Armor;
+import items.Item;
+import items.Potion;
+import items.Spell;
+import items.Weapon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Picks the most useful basket of items a hero can afford from a market's stock, without asking
+ * the player anything (for bots and quick shopping).
+ *
+ * <p>Each item is worth what it adds for this hero: a weapon or armor only its improvement over the
+ * best one the hero already has, a spell its damage if the hero doesn't know it yet, a potion its
+ * boost. How much each kind counts depends on the {@link HeroType}. The basket is a knapsack over
+ * the hero's gold: at most one weapon and one armor, each spell once, and up to
+ * {@link #MAX_POTIONS} of each potion (as many as the market has). Gold is split into at most
+ * {@code maxBuckets} buckets and prices are rounded up to whole buckets, so the DP is
+ * O(options x buckets) and a chosen basket is always affordable at the quoted prices.</p>
+ *
+ * <p>Before the DP, options that provably can't be in a best basket are dropped (see
+ * {@link #prune}), so a stock of thousands of items leaves a few hundred options at most.</p>
+ *
+ * <p>Not thread-safe: the tables are kept between plans so planning allocates little.</p>
+ */
+public final class PurchasePlanner {
+
+    public static final int DEFAULT_MAX_BUCKETS = 256;
+    public static final int MAX_POTIONS = 2;
+
+    // How much each hero type gets out of each kind of item (indexed by HeroType ordinal)
+    private static final double[] WEAPON_WEIGHT = {1.0, 0.5, 1.0};  // Warrior, Sorcerer, Paladin
+    private static final double[] SPELL_WEIGHT = {0.5, 1.0, 1.0};
+    private static final double ARMOR_WEIGHT = 1.0;
+    private static final double POTION_WEIGHT = 0.5;
+
+    /**
+     * What buying some units of an item in a row costs now (later units may cost more).
+     */
+    @FunctionalInterface
+    public interface Pricing {
+        double cost(Item item, int units);
+    }
+
+    /**
+     * A basket: the items to buy (a potion appears once per unit), what they cost at the quoted
+     * prices, and how much they are worth to the hero.
+     */
+    public static final class Plan {
+        private final List<Item> items;
+        private final double cost;
+        private final double value;
+
+        private Plan(List<Item> items, double cost, double value) {
+            this.items = items;
+            this.cost = cost;
+            this.value = value;
+        }
+
+        public List<Item> getItems() { return items; }
+        public double getCost() { return cost; }
+        public double getValue() { return value; }
+        public boolean isEmpty() { return items.isEmpty(); }
+    }
+
+    private static final Plan EMPTY = new Plan(Collections.emptyList(), 0, 0);
+
+    /**
+     * The most valuable weapon (or armor) at each cost in buckets. Only those worth more than every
+     * cheaper one can be in a best basket, which leaves at most one per bucket whatever the stock size.
+     */
+    private static final class Frontier {
+        Item[] item = new Item[0];
+        double[] price = new double[0];
+        double[] value = new double[0];
+
+        void reset(int width) {
+            if (item.length < width) {
+                item = new Item[width];
+                price = new double[width];
+                value = new double[width];
+            } else {
+                Arrays.fill(item, 0, width, null);
+            }
+        }
+
+        void offer(Item candidate, int cost, double candidatePrice, double candidateValue) {
+            if (item[cost] == null || candidateValue > value[cost]
+                    || (candidateValue == value[cost] && candidatePrice < price[cost])) {
+                item[cost] = candidate;
+                price[cost] = candidatePrice;
+                value[cost] = candidateValue;
+            }
+        }
+    }
+
+    private final int maxBuckets;
+    private final Frontier weapons = new Frontier();
+    private final Frontier armor = new Frontier();
+    private double bucketSize;
+
+    // Options: one item in some count. Options [groupStart[g], groupStart[g + 1]) form group g,
+    // and at most one option per group is bought.
+    private Item[] optionItem = new Item[16];
+    private int[] optionCount = new int[16];
+    private double[] optionPrice = new double[16];  // For the whole count
+    private double[] optionValue = new double[16];
+    private int[] optionCost = new int[16];         // In buckets
+    private int[] optionGroup = new int[16];
+    private int options;
+    private int[] groupStart = new int[17];
+    private int groups;
+
+    // DP tables: best[b] = most value within b buckets; chosen[g * width + b] = option group g took
+    // at b (-1 for none)
+    private double[] best = new double[0];
+    private int[] chosen = new int[0];
+
+    // Pruning scratch
+    private boolean[] dropped = new boolean[0];
+    private boolean[] groupUsed = new boolean[0];
+    private long[] keys = new long[0];
+    private int[] order = new int[0];
+    private long[] prefixCost = new long[0];
+    private double[] prefixValue = new double[0];
+
+    public PurchasePlanner() {
+        this(DEFAULT_MAX_BUCKETS);
+    }
+
+    /**
+     * @param maxBuckets Resolution of the gold axis; more is more exact and slower.
+     */
+    public PurchasePlanner(int maxBuckets) {
+        if (maxBuckets < 1) throw new IllegalArgumentException("Need at least one bucket: " + maxBuckets);
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Plans the best basket for the hero.
+     *
+     * @param stock     Items on sale.
+     * @param available How many of an item the market has.
+     * @param pricing   What the market charges now.
+     */
+    public Plan plan(Hero hero, List<Item> stock, ToIntFunction<Item> available, Pricing pricing) {
+        // 1. Gold in whole-gold buckets; prices rounded up so the basket never costs more than the gold
+        double gold = hero.getMoney();
+        int buckets = (int) Math.min(maxBuckets, Math.floor(gold));
+        if (buckets == 0) return EMPTY;
+        bucketSize = gold / buckets;
+        int width = buckets + 1;
+        options = 0;
+        groups = 0;
+        weapons.reset(width);
+        armor.reset(width);
+
+        // 2. Options the hero may buy, can afford on their own and would get something out of
+        double bestWeapon = bestWeapon(hero);
+        double bestArmor = bestArmor(hero);
+        List<Spell> known = hero.getInventory().getSpells();
+        for (Item item : stock) {
+            if (item.getMinLevel() > hero.getLevel()) continue;
+            int left = available.applyAsInt(item);
+            if (left <= 0) continue;
+            double value = value(hero, item, bestWeapon, bestArmor);
+            if (value <= 0 || (item instanceof Spell && knows(known, (Spell) item))) continue;
+            double unitPrice = pricing.cost(item, 1);
+            if (unitPrice > gold) continue;
+
+            if (item instanceof Weapon) {
+                weapons.offer(item, cost(unitPrice), unitPrice, value);
+            } else if (item instanceof Armor) {
+                armor.offer(item, cost(unitPrice), unitPrice, value);
+            } else if (item instanceof Potion) {
+                // Bounded: split the count into bundles of 1, 2, 4, ... so any count up to it is a sum
+                // of bundles. A bundle is priced as if the ones before it were bought too, which is the
+                // most it can cost.
+                int count = Math.min(MAX_POTIONS, left);
+                int bought = 0;
+                double before = 0;
+                for (int bundle = 1; bought < count; bundle <<= 1) {
+                    int size = Math.min(bundle, count - bought);
+                    double after = pricing.cost(item, bought + size);
+                    startGroup();
+                    addOption(item, size, after - before, value * size);
+                    bought += size;
+                    before = after;
+                }
+            } else {
+                startGroup();
+                addOption(item, 1, unitPrice, value);
+            }
+        }
+        addFrontierGroup(weapons, buckets);
+        addFrontierGroup(armor, buckets);
+        groupStart[groups] = options;
+        if (groups == 0) return EMPTY;
+
+        // 3. Drop the options no best basket can hold
+        prune(buckets);
+
+        // 4. Group knapsack: each group takes at most one option, reading only the previous group's row
+        if (best.length < width) best = new double[width];
+        if (chosen.length < groups * width) chosen = new int[Math.max(groups * width, chosen.length * 2)];
+        Arrays.fill(best, 0, width, 0);
+        for (int g = 0; g < groups; g++) {
+            int row = g * width;
+            int first = groupStart[g];
+            int last = groupStart[g + 1];
+            Arrays.fill(chosen, row, row + width, -1);
+            if (last - first == 1) {
+                // Most groups are one item; no inner loop
+                int cost = optionCost[first];
+                double value = optionValue[first];
+                for (int b = buckets; b >= cost; b--) {
+                    double with = best[b - cost] + value;
+                    if (with > best[b]) {
+                        best[b] = with;
+                        chosen[row + b] = first;
+                    }
+                }
+                continue;
+            }
+            for (int b = buckets; b >= 0; b--) {
+                for (int o = first; o < last; o++) {
+                    int cost = optionCost[o];
+                    if (cost <= b && best[b - cost] + optionValue[o] > best[b]) {
+                        best[b] = best[b - cost] + optionValue[o];
+                        chosen[row + b] = o;
+                    }
+                }
+            }
+        }
+
+        // 5. Walk back from the full budget
+        List<Item> basket = new ArrayList<>();
+        double cost = 0;
+        int b = buckets;
+        for (int g = groups - 1; g >= 0; g--) {
+            int o = chosen[g * width + b];
+            if (o < 0) continue;
+            for (int i = 0; i < optionCount[o]; i++) basket.add(optionItem[o]);
+            cost += optionPrice[o];
+            b -= optionCost[o];
+        }
+        Collections.reverse(basket);
+        return new Plan(basket, cost, best[buckets]);
+    }
+
+    /**
+     * Drops the options that can't be in a best basket, keeping group order.
+     *
+     * <p>A greedy basket (by value per bucket, one option per group) is a lower bound on the best.
+     * Buying an option plus the fractional (LP) bound of the budget left after it is an upper bound
+     * on any basket holding it; if that is below the greedy basket, the option can go. With a large
+     * stock only the options near the value-per-gold break survive.</p>
+     */
+    private void prune(int buckets) {
+        if (keys.length < options) {
+            keys = new long[optionItem.length];
+            order = new int[optionItem.length];
+            prefixCost = new long[optionItem.length + 1];
+            prefixValue = new double[optionItem.length + 1];
+            dropped = new boolean[optionItem.length];
+        }
+        if (groupUsed.length < groups) groupUsed = new boolean[groupStart.length];
+
+        // The best options by value per bucket, up to the one the budget runs out in, best first
+        int head = sortHead(buckets);
+        for (int i = 0; i < head; i++) {
+            int o = (int) keys[head - 1 - i];
+            order[i] = o;
+            prefixCost[i + 1] = prefixCost[i] + optionCost[o];
+            prefixValue[i + 1] = prefixValue[i] + optionValue[o];
+        }
+        if (prefixCost[head] <= buckets) return; // Everything fits
+
+        // A real basket: greedily by value per bucket (the rest in any order), or the single most
+        // valuable option
+        Arrays.fill(groupUsed, 0, groups, false);
+        double greedy = 0;
+        double single = 0;
+        int room = buckets;
+        for (int i = 0; i < options; i++) {
+            int o = (i < head) ? order[i] : (int) keys[i];
+            single = Math.max(single, optionValue[o]);
+            if (optionCost[o] <= room && !groupUsed[optionGroup[o]]) {
+                groupUsed[optionGroup[o]] = true;
+                room -= optionCost[o];
+                greedy += optionValue[o];
+            }
+        }
+        double lower = Math.max(greedy, single);
+        double cutoff = lower - 1e-6 * lower; // Covers the float keys' rounding
+
+        boolean any = false;
+        for (int o = 0; o < options; o++) {
+            dropped[o] = optionValue[o] + fractionalBound(buckets - optionCost[o], head) < cutoff;
+            any |= dropped[o];
+        }
+        if (!any) return;
+
+        // Compact the groups and their options
+        int kept = 0;
+        int keptOptions = 0;
+        for (int g = 0; g < groups; g++) {
+            int groupFirst = keptOptions;
+            for (int o = groupStart[g]; o < groupStart[g + 1]; o++) {
+                if (dropped[o]) continue;
+                optionItem[keptOptions] = optionItem[o];
+                optionCount[keptOptions] = optionCount[o];
+                optionPrice[keptOptions] = optionPrice[o];
+                optionValue[keptOptions] = optionValue[o];
+                optionCost[keptOptions] = optionCost[o];
+                optionGroup[keptOptions] = kept;
+                keptOptions++;
+            }
+            if (keptOptions > groupFirst) groupStart[kept++] = groupFirst;
+        }
+        Arrays.fill(optionItem, keptOptions, options, null);
+        groups = kept;
+        options = keptOptions;
+        groupStart[groups] = options;
+    }
+
+    /**
+     * Fills {@code keys} with every option (value per bucket as a float in the high half, index in
+     * the low half) and moves the best ones to the front until their costs pass the budget: a
+     * quickselect weighted by cost, so only that short head is sorted.
+     *
+     * @return The head's length; keys [0, head) are sorted ascending (best last).
+     */
+    private int sortHead(int budget) {
+        for (int o = 0; o < options; o++) {
+            float efficiency = (float) (optionValue[o] / optionCost[o]);
+            keys[o] = ((long) Float.floatToIntBits(efficiency) << 32) | o;
+        }
+        int lo = 0;
+        int hi = options;
+        long need = budget + 1L; // Cost the head must still pass, from keys[lo] on
+        while (hi - lo > 16) {
+            // Larger keys before the pivot, smaller after (keys are unique)
+            swap(lo + (hi - lo) / 2, hi - 1);
+            long pivot = keys[hi - 1];
+            int mid = lo;
+            long frontCost = 0;
+            for (int i = lo; i < hi - 1; i++) {
+                if (keys[i] > pivot) {
+                    frontCost += optionCost[(int) keys[i]];
+                    swap(i, mid++);
+                }
+            }
+            swap(mid, hi - 1);
+
+            if (frontCost >= need) {
+                hi = mid;
+            } else if (frontCost + optionCost[(int) pivot] >= need) {
+                hi = mid + 1;
+                break;
+            } else {
+                need -= frontCost + optionCost[(int) pivot];
+                lo = mid + 1;
+            }
+        }
+        Arrays.sort(keys, 0, hi);
+        return hi;
+    }
+
+    private void swap(int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+    }
+
+    /**
+     * @return The most value the options reach within the budget if they could be bought in
+     * fractions and every group ignored: never less than any real basket. Needs the head's options
+     * by value per bucket in {@code order} and their running totals.
+     */
+    private double fractionalBound(int budget, int head) {
+        // Longest prefix that fits, then a fraction of the next option
+        int lo = 0;
+        int hi = head;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (prefixCost[mid] <= budget) lo = mid; else hi = mid - 1;
+        }
+        if (lo == head) return prefixValue[head];
+        int o = order[lo];
+        return prefixValue[lo] + (budget - prefixCost[lo]) * optionValue[o] / optionCost[o];
+    }
+
+    /**
+     * Adds one weapon or armor group: the frontier's options that beat every cheaper one.
+     */
+    private void addFrontierGroup(Frontier frontier, int buckets) {
+        double beaten = 0;
+        boolean started = false;
+        for (int c = 1; c <= buckets; c++) {
+            if (frontier.item[c] == null || frontier.value[c] <= beaten) continue;
+            if (!started) {
+                startGroup();
+                started = true;
+            }
+            addOption(frontier.item[c], 1, frontier.price[c], frontier.value[c]);
+            beaten = frontier.value[c];
+        }
+    }
+
+    private int cost(double price) {
+        // A hair under a whole bucket is that bucket (prices that split the gold evenly)
+        return Math.max(1, (int) Math.ceil(price / bucketSize - 1e-9));
+    }
+
+    private void startGroup() {
+        if (groups + 2 > groupStart.length) groupStart = Arrays.copyOf(groupStart, groupStart.length * 2);
+        groupStart[groups++] = options;
+    }
+
+    private void addOption(Item item, int count, double price, double value) {
+        if (options == optionItem.length) {
+            int size = options * 2;
+            optionItem = Arrays.copyOf(optionItem, size);
+            optionCount = Arrays.copyOf(optionCount, size);
+            optionPrice = Arrays.copyOf(optionPrice, size);
+            optionValue = Arrays.copyOf(optionValue, size);
+            optionCost = Arrays.copyOf(optionCost, size);
+            optionGroup = Arrays.copyOf(optionGroup, size);
+        }
+        optionItem[options] = item;
+        optionCount[options] = count;
+        optionPrice[options] = price;
+        optionValue[options] = value;
+        optionCost[options] = cost(price);
+        optionGroup[options] = groups - 1;
+        options++;
+    }
+
+    /**
+     * @return What one of the item adds for the hero, given the best weapon and armor it already has.
+     */
+    static double value(Hero hero, Item item, double bestWeapon, double bestArmor) {
+        int type = hero.getType().ordinal();
+        if (item instanceof Weapon) {
+            return Math.max(0, ((Weapon) item).getDamage() - bestWeapon) * WEAPON_WEIGHT[type];
+        } else if (item instanceof Armor) {
+            return Math.max(0, ((Armor) item).getDamageReduction() - bestArmor) * ARMOR_WEIGHT;
+        } else if (item instanceof Spell) {
+            // Same scaling as a cast in BattleEngine
+            Spell spell = (Spell) item;
+            return (spell.getDamage() + (hero.getDexterity() / 10000.0) * spell.getDamage()) * SPELL_WEIGHT[type];
+        } else if (item instanceof Potion) {
+            Potion potion = (Potion) item;
+            return potion.getAttributeIncrease() * potion.getAttributesAffected().size() * POTION_WEIGHT;
+        }
+        return 0;
+    }
+
+    private static double bestWeapon(Hero hero) {
+        double best = (hero.getEquippedWeapon() != null) ? hero.getEquippedWeapon().getDamage() : 0;
+        for (Weapon weapon : hero.getInventory().getWeapons()) best = Math.max(best, weapon.getDamage());
+        return best;
+    }
+
+    private static double bestArmor(Hero hero) {
+        double best = (hero.getEquippedArmor() != null) ? hero.getEquippedArmor().getDamageReduction() : 0;
+        for (Armor armor : hero.getInventory().getArmor()) best = Math.max(best, armor.getDamageReduction());
+        return best;
+    }
+
+    private static boolean knows(List<Spell> known, Spell spell) {
+        for (Spell spellKnown : known) {
+            if (spellKnown == spell || spellKnown.getName().equals(spell.getName())) return true;
+        }
+        return false;
+    }
+}
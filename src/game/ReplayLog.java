@@ -0,0 +1,141 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary format shared by {@link ReplayRecorder} and {@link Replayer}.
+ *
+ * <p>Layout:</p>
+ * <pre>
+ *   Header   magic:int  version:byte  seed:long       (big-endian, fixed size)
+ *   Records  tag:byte  fields...                     (every field is a varint)
+ * </pre>
+ *
+ * <p>Integers are unsigned LEB128 varints (7 bits per byte), input numbers are zigzag-encoded first.
+ * Doubles are stored bit-exact as the varint of their bit pattern reversed, so values with short
+ * mantissas (0, 100.0, 1.5) take 1-3 bytes instead of 8. Heroes and monsters are referred to by
+ * their index in the party and in the current battle's enemy list.</p>
+ */
+final class ReplayLog {
+
+    static final int MAGIC = 0x4C475250; // "LGRP"
+    static final int VERSION = 4;     // 2: markets stock by party level; 3: markets keep their stock; 4: dynamic prices
+    static final int HEADER_SIZE = 13;
+
+    // Inputs
+    static final int INPUT_INT = 1;             // value:zigzag
+    static final int INPUT_TEXT = 2;            // length, utf8 bytes
+
+    // Battle events
+    static final int BATTLE_STARTED = 3;        // enemyCount, level
+    static final int ROUND_STARTED = 4;         // round
+    static final int HERO_TURN = 5;             // hero
+    static final int ACTION_REJECTED = 6;       // hero, reason
+    static final int BATTLE_STATUS = 7;
+    static final int BATTLE_ABANDONED = 8;
+    static final int HERO_ATTACKED = 9;         // hero, monster, damage:double
+    static final int MONSTER_DODGED = 10;       // hero, monster
+    static final int MONSTER_DEFEATED = 11;     // monster
+    static final int SPELL_DEBUFF = 12;         // monster, spellType
+    static final int SPELL_CAST = 13;           // hero, monster, damage:double
+    static final int POTION_USED = 14;          // hero
+    static final int ITEM_EQUIPPED = 15;        // hero
+    static final int MONSTER_ATTACKED = 16;     // monster, hero, damage:double
+    static final int HERO_DODGED = 17;          // monster, hero
+    static final int HERO_FAINTED = 18;         // hero
+    static final int REGENERATED = 19;
+    static final int PARTY_DEFEATED = 20;
+    static final int VICTORY = 21;              // gold:double, xp
+    static final int HERO_REVIVED = 22;         // hero, hp:double, mana:double (before reviving)
+    static final int HERO_LEVELED_UP = 23;      // hero, newLevel
+
+    /** Number of varint fields after each tag (INPUT_TEXT is handled separately). */
+    private static final int[] FIELD_COUNT = {
+            -1, 1, -1, 2, 1, 1, 2, 0, 0, 3, 2, 1, 2, 3, 1, 1, 3, 2, 1, 0, 0, 2, 3, 2
+    };
+
+    /** Longest encoding of one varint. */
+    static final int MAX_VARINT_BYTES = 10;
+
+    private ReplayLog() { }
+
+    static int fieldCount(int tag) {
+        if (tag <= 0 || tag >= FIELD_COUNT.length || tag == INPUT_TEXT) {
+            throw new IllegalArgumentException("Unknown record tag: " + tag);
+        }
+        return FIELD_COUNT[tag];
+    }
+
+    // ENCODING
+
+    static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long encodeDouble(double value) {
+        return Long.reverse(Double.doubleToRawLongBits(value));
+    }
+
+    static double decodeDouble(long value) {
+        return Double.longBitsToDouble(Long.reverse(value));
+    }
+
+    // DECODING
+
+    /**
+     * Sequential reader over a whole log held in memory.
+     */
+    static final class Reader {
+        private final ByteBuffer buffer;
+
+        Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        boolean hasRemaining() {
+            return buffer.hasRemaining();
+        }
+
+        int position() {
+            return buffer.position();
+        }
+
+        int readTag() {
+            return buffer.get() & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+            throw new IllegalStateException("Malformed varint at offset " + buffer.position());
+        }
+
+        String readText() {
+            int length = (int) readVarint();
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void skipFields(int count) {
+            for (int i = 0; i < count; i++) readVarint();
+        }
+    }
+}
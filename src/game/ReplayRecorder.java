@@ -0,0 +1,280 @@
+package game;
+
+import common.InputValidator;
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import items.Item;
+import items.Potion;
+import items.Spell;
+import items.Spell.SpellType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Records a game session so it can be replayed exactly: the RNG seed, every accepted input,
+ * and every battle event, in the varint format described in {@link ReplayLog}.
+ *
+ * <p>Records are packed into one reused direct buffer that is written to the channel only when
+ * full, on {@link #flush()} and on {@link #close()}. The inputs alone are enough to replay the
+ * session; the events let {@link Replayer} check that the replay took exactly the same course.</p>
+ *
+ * <p>A recorder never interrupts the game: if writing fails, it stops recording and keeps the
+ * error for {@link #getError()}.</p>
+ */
+public final class ReplayRecorder implements BattleEventSink, InputValidator.InputListener, Closeable {
+
+    /** File name extension of replay logs. */
+    public static final String FILE_EXTENSION = ".replay";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final long seed;
+    private long bytesWritten;
+    private IOException error;
+
+    private Party party;
+    private List<Monster> enemies = List.of();
+
+    /**
+     * @param channel Destination of the log; closed by {@link #close()}.
+     * @param seed    Seed of the session's RandomGenerator.
+     */
+    public ReplayRecorder(WritableByteChannel channel, long seed) {
+        this.channel = channel;
+        this.seed = seed;
+        buffer.putInt(ReplayLog.MAGIC);
+        buffer.put((byte) ReplayLog.VERSION);
+        buffer.putLong(seed);
+    }
+
+    /**
+     * Creates (or truncates) a log file.
+     */
+    public static ReplayRecorder open(Path file, long seed) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new ReplayRecorder(channel, seed);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the party whose heroes are referred to by index in later events.
+     */
+    public void setParty(Party party) {
+        this.party = party;
+    }
+
+    // INPUTS
+
+    @Override
+    public void intAccepted(int value) {
+        record(ReplayLog.INPUT_INT, ReplayLog.zigzag(value));
+    }
+
+    @Override
+    public void textAccepted(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (!reserve(1 + ReplayLog.MAX_VARINT_BYTES + bytes.length)) return;
+        buffer.put((byte) ReplayLog.INPUT_TEXT);
+        ReplayLog.putVarint(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    // BATTLE EVENTS
+
+    @Override
+    public void battleStarted(List<Monster> enemies) {
+        this.enemies = enemies;
+        int level = enemies.isEmpty() ? 0 : enemies.get(0).getLevel();
+        record(ReplayLog.BATTLE_STARTED, enemies.size(), level);
+    }
+
+    @Override
+    public void roundStarted(int round) {
+        record(ReplayLog.ROUND_STARTED, round);
+    }
+
+    @Override
+    public void heroTurn(Hero hero) {
+        record(ReplayLog.HERO_TURN, heroIndex(hero));
+    }
+
+    @Override
+    public void actionRejected(Hero hero, Rejection reason) {
+        record(ReplayLog.ACTION_REJECTED, heroIndex(hero), reason.ordinal());
+    }
+
+    @Override
+    public void battleStatus(Party party, List<Monster> enemies) {
+        record(ReplayLog.BATTLE_STATUS);
+    }
+
+    @Override
+    public void battleAbandoned() {
+        record(ReplayLog.BATTLE_ABANDONED);
+    }
+
+    @Override
+    public void heroAttacked(Hero hero, Monster target, double damage) {
+        record(ReplayLog.HERO_ATTACKED, heroIndex(hero), monsterIndex(target), ReplayLog.encodeDouble(damage));
+    }
+
+    @Override
+    public void monsterDodged(Hero hero, Monster target) {
+        record(ReplayLog.MONSTER_DODGED, heroIndex(hero), monsterIndex(target));
+    }
+
+    @Override
+    public void monsterDefeated(Monster monster) {
+        record(ReplayLog.MONSTER_DEFEATED, monsterIndex(monster));
+    }
+
+    @Override
+    public void spellDebuff(Monster target, SpellType type) {
+        record(ReplayLog.SPELL_DEBUFF, monsterIndex(target), type.ordinal());
+    }
+
+    @Override
+    public void spellCast(Hero hero, Spell spell, Monster target, double damage) {
+        record(ReplayLog.SPELL_CAST, heroIndex(hero), monsterIndex(target), ReplayLog.encodeDouble(damage));
+    }
+
+    @Override
+    public void potionUsed(Hero hero, Potion potion) {
+        record(ReplayLog.POTION_USED, heroIndex(hero));
+    }
+
+    @Override
+    public void itemEquipped(Hero hero, Item item) {
+        record(ReplayLog.ITEM_EQUIPPED, heroIndex(hero));
+    }
+
+    @Override
+    public void monsterAttacked(Monster monster, Hero target, double damage) {
+        record(ReplayLog.MONSTER_ATTACKED, monsterIndex(monster), heroIndex(target), ReplayLog.encodeDouble(damage));
+    }
+
+    @Override
+    public void heroDodged(Monster monster, Hero target) {
+        record(ReplayLog.HERO_DODGED, monsterIndex(monster), heroIndex(target));
+    }
+
+    @Override
+    public void heroFainted(Hero hero) {
+        record(ReplayLog.HERO_FAINTED, heroIndex(hero));
+    }
+
+    @Override
+    public void regenerated(Party party) {
+        record(ReplayLog.REGENERATED);
+    }
+
+    @Override
+    public void partyDefeated() {
+        record(ReplayLog.PARTY_DEFEATED);
+    }
+
+    @Override
+    public void victory(double goldReward, int xpReward) {
+        record(ReplayLog.VICTORY, ReplayLog.encodeDouble(goldReward), xpReward);
+    }
+
+    @Override
+    public void heroRevived(Hero hero) {
+        record(ReplayLog.HERO_REVIVED, heroIndex(hero),
+                ReplayLog.encodeDouble(hero.getHp()), ReplayLog.encodeDouble(hero.getMana()));
+    }
+
+    @Override
+    public void heroLeveledUp(Hero hero) {
+        record(ReplayLog.HERO_LEVELED_UP, heroIndex(hero), hero.getLevel());
+    }
+
+    private int heroIndex(Hero hero) {
+        List<Hero> heroes = party.getHeroes();
+        for (int i = 0; i < heroes.size(); i++) {
+            if (heroes.get(i) == hero) return i;
+        }
+        throw new IllegalStateException("Hero is not in the recorded party: " + hero.getName());
+    }
+
+    private int monsterIndex(Monster monster) {
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.get(i) == monster) return i;
+        }
+        throw new IllegalStateException("Monster is not in the current battle: " + monster.getName());
+    }
+
+    // WRITING
+
+    private void record(int tag, long... fields) {
+        if (!reserve(1 + fields.length * ReplayLog.MAX_VARINT_BYTES)) return;
+        buffer.put((byte) tag);
+        for (long field : fields) ReplayLog.putVarint(buffer, field);
+    }
+
+    /**
+     * Makes room for a record, draining the buffer if needed.
+     * @return false if recording has stopped after an error.
+     */
+    private boolean reserve(int bytes) {
+        if (error != null) return false;
+        if (buffer.remaining() < bytes) drain();
+        if (error == null && bytes > BUFFER_SIZE) {
+            error = new IOException("Record of " + bytes + " bytes exceeds the replay buffer");
+        }
+        return error == null;
+    }
+
+    private void drain() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) bytesWritten += channel.write(buffer);
+        } catch (IOException e) {
+            error = e;
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes buffered records to the channel.
+     */
+    public void flush() {
+        if (error == null) drain();
+    }
+
+    /**
+     * @return Bytes written to the channel so far (buffered records excluded).
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * @return The write error that stopped recording, or null.
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+        if (error != null) throw error;
+    }
+}
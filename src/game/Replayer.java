@@ -0,0 +1,176 @@
+package game;
+
+import common.RandomGenerator;
+import utils.AssetCatalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.stream.Stream;
+
+/**
+ * Re-runs recorded sessions without a console and checks that they took exactly the same course.
+ *
+ * <p>The recorded seed and inputs drive a fresh LegendsGame whose output is discarded. The replay
+ * is recorded again and compared byte for byte with the original log, so any change in game rules
+ * or random draws shows up as the offset of the first differing event. No prompts are printed and
+ * no one waits for input, so a session replays in milliseconds.</p>
+ *
+ * <p>Usage: java game.Replayer (logFile | directory)...</p>
+ */
+public final class Replayer {
+
+    private Replayer() { }
+
+    /**
+     * Outcome of one replay.
+     */
+    public static final class Result {
+        private final long seed;
+        private final int inputCount;
+        private final int eventCount;
+        private final long divergenceOffset;
+
+        Result(long seed, int inputCount, int eventCount, long divergenceOffset) {
+            this.seed = seed;
+            this.inputCount = inputCount;
+            this.eventCount = eventCount;
+            this.divergenceOffset = divergenceOffset;
+        }
+
+        public long getSeed() { return seed; }
+        public int getInputCount() { return inputCount; }
+        public int getEventCount() { return eventCount; }
+
+        /**
+         * @return true if the replay produced the recorded log byte for byte.
+         */
+        public boolean isExact() {
+            return divergenceOffset < 0;
+        }
+
+        /**
+         * @return Offset of the first byte where the replay differs from the log, or -1.
+         */
+        public long getDivergenceOffset() {
+            return divergenceOffset;
+        }
+    }
+
+    public static Result replay(Path log, AssetCatalog assets) throws IOException {
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) { }
+            buffer.flip();
+            return replay(buffer, assets);
+        }
+    }
+
+    /**
+     * Replays a log held in memory (from its position to its limit).
+     */
+    public static Result replay(ByteBuffer log, AssetCatalog assets) {
+        ByteBuffer original = log.slice();
+        if (original.remaining() < ReplayLog.HEADER_SIZE || original.getInt() != ReplayLog.MAGIC) {
+            throw new IllegalArgumentException("Not a replay log");
+        }
+        int version = original.get();
+        if (version != ReplayLog.VERSION) {
+            throw new IllegalArgumentException("Unsupported replay log version: " + version);
+        }
+        long seed = original.getLong();
+
+        // 1. Extract the inputs, as the lines the player typed. A log cut off mid-record
+        //    (e.g. the server died) is replayed up to its last complete record.
+        StringBuilder input = new StringBuilder();
+        int inputCount = 0;
+        int eventCount = 0;
+        int end = original.position();
+        boolean truncated = false;
+        ReplayLog.Reader reader = new ReplayLog.Reader(original);
+        try {
+            while (reader.hasRemaining()) {
+                int tag = reader.readTag();
+                if (tag == ReplayLog.INPUT_INT) {
+                    input.append(ReplayLog.unzigzag(reader.readVarint())).append('\n');
+                    inputCount++;
+                } else if (tag == ReplayLog.INPUT_TEXT) {
+                    input.append(reader.readText()).append('\n');
+                    inputCount++;
+                } else {
+                    reader.skipFields(ReplayLog.fieldCount(tag));
+                    eventCount++;
+                }
+                end = reader.position();
+            }
+        } catch (BufferUnderflowException e) {
+            truncated = true;
+        }
+
+        // 2. Play them against the same seed, recording again
+        ByteArrayOutputStream replayed = new ByteArrayOutputStream(original.limit());
+        ReplayRecorder recorder = new ReplayRecorder(Channels.newChannel(replayed), seed);
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        LegendsGame game = new LegendsGame(GameOptions.builder()
+                .out(discard).rng(new RandomGenerator(seed)).assets(assets).recorder(recorder).build());
+        try (Scanner scanner = new Scanner(input.toString())) {
+            game.play(scanner);
+        } catch (NoSuchElementException e) {
+            // Inputs ran out: the recorded player disconnected here
+        }
+        recorder.flush();
+
+        // 3. Compare (only the recorded prefix if the log was cut off)
+        ByteBuffer expected = original.position(0).limit(end);
+        ByteBuffer actual = ByteBuffer.wrap(replayed.toByteArray());
+        if (truncated && actual.limit() > end) actual.limit(end);
+        return new Result(seed, inputCount, eventCount, expected.mismatch(actual));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: java game.Replayer (logFile | directory)...");
+            System.exit(2);
+        }
+
+        List<Path> logs = new ArrayList<>();
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> files = Files.list(path)) {
+                    files.filter(f -> f.toString().endsWith(ReplayRecorder.FILE_EXTENSION)).sorted().forEach(logs::add);
+                }
+            } else {
+                logs.add(path);
+            }
+        }
+
+        AssetCatalog assets = AssetCatalog.getShared();
+        int diverged = 0;
+        long start = System.nanoTime();
+        for (Path log : logs) {
+            Result result = replay(log, assets);
+            if (!result.isExact()) {
+                diverged++;
+                System.out.println("DIVERGED " + log + " at byte " + result.getDivergenceOffset()
+                        + " (seed " + result.getSeed() + ")");
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Replayed " + logs.size() + " sessions in " + millis + " ms, " + diverged + " diverged");
+        if (diverged > 0) System.exit(1);
+    }
+}
@@ -0,0 +1,668 @@
+package game;
+
+import board.LegendsBoard;
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Party;
+import items.Armor;
+import items.Item;
+import items.Weapon;
+import utils.AssetCatalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only save file holding the full state of one LegendsGame: board, party position,
+ * every hero's stats, equipment and inventory, and the random generator's state.
+ *
+ * <p>Layout:</p>
+ * <pre>
+ *   Header  magic:int  version:byte
+ *   Frames  kind:byte  length:int  crc32c:int  payload     (FULL or DELTA)
+ *   Payload sections, each  id:byte  length:varint  bytes
+ * </pre>
+ *
+ * <p>A FULL frame holds every section. Each later {@link #save} appends a DELTA frame with only
+ * the sections whose bytes changed (board cells as a patch list), or nothing at all if nothing
+ * changed. Restoring starts at the last FULL frame and applies the deltas after it. Once the file
+ * grows past a few full snapshots it is compacted into a single FULL frame, written to a temporary
+ * file and moved into place, so the file never holds a half-written state. A frame torn by a crash
+ * fails its checksum and is dropped along with everything after it.</p>
+ *
+ * <p>Numbers are varints as in {@link ReplayLog}; items are stored as catalog ids and heroes as
+ * their template's index, never as serialized objects. A game that journals its economy also
+ * saves its {@link EconomyJournal} session and the last entry the save reflects (version 2).
+ * Version 3 adds the turn, the stock and restock timer of every market the game keeps, and the
+ * prices its trades have moved; a game sharing markets or prices with others saves neither.</p>
+ */
+public final class SaveFile implements Closeable {
+
+    public static final String FILE_EXTENSION = ".save";
+
+    private static final int MAGIC = 0x4C475356; // "LGSV"
+    private static final int VERSION = 3;
+    private static final int MIN_VERSION = 1;
+    private static final int HEADER_SIZE = 5;
+    private static final int FRAME_HEADER_SIZE = 9;
+
+    private static final byte FULL = 1;
+    private static final byte DELTA = 2;
+
+    // Sections
+    private static final int GAME = 0;          // boardSize, partyRow, partyCol, heroCount
+    private static final int RNG = 1;           // state:long, gamma:long
+    private static final int BOARD = 2;         // one CellType ordinal per cell
+    private static final int BOARD_PATCH = 3;   // count, count x { index, ordinal }
+    private static final int HERO = 4;          // HERO + slot: see encodeHero
+    private static final int JOURNAL = HERO + 3; // sessionId, checkpointLsn
+    private static final int TURN = JOURNAL + 1;    // turn
+    private static final int MARKETS = TURN + 1;    // count, count x market: see encodeMarkets
+    private static final int PRICES = MARKETS + 1;  // count, count x { itemId, pressure, writtenAt }
+    private static final int SECTION_COUNT = PRICES + 1;
+
+    /** Compact once the file exceeds this many full snapshots. */
+    private static final int COMPACT_FACTOR = 8;
+
+    private final Path path;
+    private FileChannel channel;
+
+    // What the file currently restores to, for computing deltas
+    private final byte[][] savedSections = new byte[SECTION_COUNT][];
+    private byte[] savedCells;
+    private boolean hasSnapshot;
+    private long validEnd;
+    private int lastFullSize;
+
+    // Frame being written
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private byte frameKind;
+    private final CRC32C crc = new CRC32C();
+
+    private SaveFile(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens (or creates) a save file, dropping any torn frame at its end.
+     */
+    public static SaveFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        SaveFile file = new SaveFile(path, channel);
+        try {
+            file.scan();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * @return true if the file holds a game that can be restored.
+     */
+    public boolean hasSnapshot() {
+        return hasSnapshot;
+    }
+
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * @return The journal session of the saved game, or -1 if there is no saved game or it has none.
+     */
+    public long getJournalSessionId() {
+        if (savedSections[JOURNAL] == null) return -1;
+        return new ReplayLog.Reader(ByteBuffer.wrap(savedSections[JOURNAL])).readVarint();
+    }
+
+    // SAVING
+
+    /**
+     * Appends the changes since the last save (or a full snapshot if there is none).
+     */
+    public void save(LegendsGame game) throws IOException {
+        AssetCatalog assets = game.getAssets();
+        LegendsBoard board = game.getBoard();
+        Party party = game.getParty();
+        int cellCount = board.getWidth() * board.getHeight();
+
+        byte[][] sections = new byte[SECTION_COUNT][];
+        sections[GAME] = encodeGame(board, party);
+        sections[RNG] = encodeRng(game.getRandom());
+        for (int i = 0; i < party.getSize(); i++) {
+            sections[HERO + i] = encodeHero(party.getHero(i), assets);
+        }
+        if (game.getJournalSession() != null) sections[JOURNAL] = encodeJournal(game.getJournalSession());
+        sections[TURN] = encodeTurn(game.getTurn());
+        if (game.getOwnMarkets() != null) sections[MARKETS] = encodeMarkets(game.getOwnMarkets(), assets);
+        if (game.getOwnPrices() != null) sections[PRICES] = encodePrices(game.getOwnPrices());
+        byte[] cells = new byte[cellCount];
+        board.copyCells(cells);
+
+        if (!hasSnapshot || savedCells == null || savedCells.length != cellCount) {
+            writeFull(sections, cells);
+            return;
+        }
+
+        // DELTA: only the sections that differ from what the file already restores to
+        beginFrame(DELTA, estimateSize(sections, cells));
+        boolean changed = false;
+        for (int id = 0; id < SECTION_COUNT; id++) {
+            if (sections[id] != null && !Arrays.equals(sections[id], savedSections[id])) {
+                putSection(id, sections[id]);
+                changed = true;
+            }
+        }
+        byte[] patch = encodeBoardPatch(savedCells, cells);
+        if (patch != null) {
+            if (patch.length < cells.length) putSection(BOARD_PATCH, patch);
+            else putSection(BOARD, cells);
+            changed = true;
+        }
+        if (!changed) return;
+
+        scratch.flip();
+        if (validEnd + FRAME_HEADER_SIZE + scratch.remaining() > (long) COMPACT_FACTOR * lastFullSize) {
+            compact(sections, cells);
+            return;
+        }
+        appendFrame();
+        remember(sections, cells);
+    }
+
+    /**
+     * Makes every save so far durable (e.g. before the journal may drop the entries it reflects).
+     */
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Forgets the saved game (e.g. after the party was defeated); the next save starts a new snapshot.
+     */
+    public void clear() throws IOException {
+        channel.truncate(HEADER_SIZE);
+        validEnd = HEADER_SIZE;
+        hasSnapshot = false;
+        Arrays.fill(savedSections, null);
+        savedCells = null;
+    }
+
+    private void writeFull(byte[][] sections, byte[] cells) throws IOException {
+        encodeFull(sections, cells);
+        appendFrame();
+        lastFullSize = FRAME_HEADER_SIZE + scratch.limit();
+        remember(sections, cells);
+    }
+
+    /**
+     * Replaces the file with a single FULL frame of the current state.
+     */
+    private void compact(byte[][] sections, byte[] cells) throws IOException {
+        encodeFull(sections, cells);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).put((byte) VERSION).flip();
+            writeFully(out, header);
+            writeFully(out, frameHeader());
+            writeFully(out, scratch);
+            out.force(true);
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // The old file and its channel are untouched, so later saves keep appending to it
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        FileChannel old = channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } finally {
+            old.close(); // Its file was just replaced; if reopening failed, later saves fail instead of writing to it
+        }
+        lastFullSize = FRAME_HEADER_SIZE + scratch.limit();
+        validEnd = HEADER_SIZE + lastFullSize;
+        remember(sections, cells);
+    }
+
+    private void encodeFull(byte[][] sections, byte[] cells) {
+        beginFrame(FULL, estimateSize(sections, cells));
+        for (int id = 0; id < SECTION_COUNT; id++) {
+            if (sections[id] != null) putSection(id, sections[id]);
+        }
+        putSection(BOARD, cells);
+        scratch.flip();
+    }
+
+    private void remember(byte[][] sections, byte[] cells) {
+        System.arraycopy(sections, 0, savedSections, 0, SECTION_COUNT);
+        savedCells = cells;
+        hasSnapshot = true;
+    }
+
+    private void beginFrame(byte kind, int capacity) {
+        if (scratch.capacity() < capacity) scratch = ByteBuffer.allocate(capacity);
+        scratch.clear();
+        frameKind = kind;
+    }
+
+    private void putSection(int id, byte[] bytes) {
+        scratch.put((byte) id);
+        ReplayLog.putVarint(scratch, bytes.length);
+        scratch.put(bytes);
+    }
+
+    private static int estimateSize(byte[][] sections, byte[] cells) {
+        int size = 2 * (cells.length + 1 + ReplayLog.MAX_VARINT_BYTES);
+        for (byte[] section : sections) {
+            if (section != null) size += section.length + 1 + ReplayLog.MAX_VARINT_BYTES;
+        }
+        return size;
+    }
+
+    private ByteBuffer frameHeader() {
+        crc.reset();
+        crc.update(scratch.duplicate());
+        return ByteBuffer.allocate(FRAME_HEADER_SIZE)
+                .put(frameKind).putInt(scratch.remaining()).putInt((int) crc.getValue()).flip();
+    }
+
+    /**
+     * Appends the flipped frame in scratch after the last valid frame.
+     */
+    private void appendFrame() throws IOException {
+        ByteBuffer header = frameHeader();
+        channel.position(validEnd);
+        writeFully(channel, header);
+        writeFully(channel, scratch);
+        validEnd = channel.position();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    // SECTION ENCODING
+
+    private static byte[] encodeGame(LegendsBoard board, Party party) {
+        ByteBuffer out = ByteBuffer.allocate(4 * ReplayLog.MAX_VARINT_BYTES);
+        ReplayLog.putVarint(out, board.getWidth());
+        ReplayLog.putVarint(out, party.getRow());
+        ReplayLog.putVarint(out, party.getCol());
+        ReplayLog.putVarint(out, party.getSize());
+        return toArray(out);
+    }
+
+    private static byte[] encodeRng(RandomGenerator rng) {
+        return ByteBuffer.allocate(16).putLong(rng.getState()).putLong(rng.getGamma()).array();
+    }
+
+    private static byte[] encodeJournal(EconomyJournal.Session session) {
+        ByteBuffer out = ByteBuffer.allocate(2 * ReplayLog.MAX_VARINT_BYTES);
+        ReplayLog.putVarint(out, session.getId());
+        ReplayLog.putVarint(out, session.getLastLsn());
+        return toArray(out);
+    }
+
+    private static byte[] encodeTurn(long turn) {
+        ByteBuffer out = ByteBuffer.allocate(ReplayLog.MAX_VARINT_BYTES);
+        ReplayLog.putVarint(out, turn);
+        return toArray(out);
+    }
+
+    /**
+     * Per market: row, col, lastVisit, timerDue, stale (0/1), goodsCount, goodsCount x { itemId, quantity }.
+     */
+    private static byte[] encodeMarkets(MarketRegistry registry, AssetCatalog assets) {
+        int size = 1;
+        for (MarketStock market : registry.getMarkets()) size += 6 + 2 * market.getGoods().size();
+        ByteBuffer out = ByteBuffer.allocate(size * ReplayLog.MAX_VARINT_BYTES);
+        ReplayLog.putVarint(out, registry.getMarkets().size());
+        for (MarketStock market : registry.getMarkets()) {
+            List<Item> goods = market.getGoods();
+            ReplayLog.putVarint(out, market.row);
+            ReplayLog.putVarint(out, market.col);
+            ReplayLog.putVarint(out, market.getLastVisit());
+            ReplayLog.putVarint(out, market.getTimerDue());
+            ReplayLog.putVarint(out, market.isStale() ? 1 : 0);
+            ReplayLog.putVarint(out, goods.size());
+            for (Item item : goods) {
+                ReplayLog.putVarint(out, itemId(item, assets));
+                ReplayLog.putVarint(out, market.getQuantity(item));
+            }
+        }
+        return toArray(out);
+    }
+
+    private static byte[] encodePrices(PriceEngine prices) {
+        int[] ids = prices.getMovedItemIds();
+        ByteBuffer out = ByteBuffer.allocate((1 + 3 * ids.length) * ReplayLog.MAX_VARINT_BYTES);
+        ReplayLog.putVarint(out, ids.length);
+        for (int id : ids) {
+            ReplayLog.putVarint(out, id);
+            putDouble(out, prices.getPressure(id));
+            ReplayLog.putVarint(out, prices.getWrittenAt(id));
+        }
+        return toArray(out);
+    }
+
+    /**
+     * type, templateIndex, level, experience, hp, mana, strength, agility, dexterity, money,
+     * weaponId + 1, armorId + 1 (0 = none), itemCount, itemCount x itemId.
+     */
+    private static byte[] encodeHero(Hero hero, AssetCatalog assets) {
+        List<Item> items = hero.getInventory().getItems();
+        ByteBuffer out = ByteBuffer.allocate((15 + items.size()) * ReplayLog.MAX_VARINT_BYTES);
+        ReplayLog.putVarint(out, hero.getType().ordinal());
+        ReplayLog.putVarint(out, templateIndex(hero, assets));
+        ReplayLog.putVarint(out, hero.getLevel());
+        ReplayLog.putVarint(out, hero.getExperience());
+        putDouble(out, hero.getHp());
+        putDouble(out, hero.getMana());
+        putDouble(out, hero.getStrength());
+        putDouble(out, hero.getAgility());
+        putDouble(out, hero.getDexterity());
+        putDouble(out, hero.getMoney());
+        ReplayLog.putVarint(out, itemId(hero.getEquippedWeapon(), assets) + 1);
+        ReplayLog.putVarint(out, itemId(hero.getEquippedArmor(), assets) + 1);
+        ReplayLog.putVarint(out, items.size());
+        for (Item item : items) {
+            ReplayLog.putVarint(out, itemId(item, assets));
+        }
+        return toArray(out);
+    }
+
+    /**
+     * @return count, then (index, ordinal) per changed cell; null if no cell changed.
+     */
+    private static byte[] encodeBoardPatch(byte[] before, byte[] after) {
+        int changed = 0;
+        for (int i = 0; i < after.length; i++) {
+            if (before[i] != after[i]) changed++;
+        }
+        if (changed == 0) return null;
+
+        ByteBuffer out = ByteBuffer.allocate((1 + 2 * changed) * ReplayLog.MAX_VARINT_BYTES);
+        ReplayLog.putVarint(out, changed);
+        for (int i = 0; i < after.length; i++) {
+            if (before[i] != after[i]) {
+                ReplayLog.putVarint(out, i);
+                ReplayLog.putVarint(out, after[i]);
+            }
+        }
+        return toArray(out);
+    }
+
+    private static int templateIndex(Hero hero, AssetCatalog assets) {
+        List<Hero> templates = assets.getHeroTemplates(hero.getType());
+        for (int i = 0; i < templates.size(); i++) {
+            if (templates.get(i).getName().equals(hero.getName())) return i;
+        }
+        throw new IllegalStateException("Hero is not from the asset catalog: " + hero.getName());
+    }
+
+    private static int itemId(Item item, AssetCatalog assets) {
+        if (item == null) return -1;
+        int id = assets.getItemId(item);
+        if (id < 0) throw new IllegalStateException("Item is not from the asset catalog: " + item.getName());
+        return id;
+    }
+
+    private static void putDouble(ByteBuffer out, double value) {
+        ReplayLog.putVarint(out, ReplayLog.encodeDouble(value));
+    }
+
+    private static byte[] toArray(ByteBuffer out) {
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    // OPENING AND RESTORING
+
+    /**
+     * Validates the header and every frame, truncating at the first torn or corrupt one.
+     * Leaves the delta baseline at the state the file restores to.
+     */
+    private void scan() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).put((byte) VERSION).flip();
+            writeFully(channel, header);
+            validEnd = HEADER_SIZE;
+            return;
+        }
+
+        ByteBuffer file = ByteBuffer.allocate(Math.toIntExact(size));
+        while (file.hasRemaining() && channel.read(file, file.position()) >= 0) { }
+        file.flip();
+        if (size < HEADER_SIZE || file.getInt() != MAGIC) {
+            throw new IOException("Not a save file: " + path);
+        }
+        int version = file.get();
+        if (version < MIN_VERSION || version > VERSION) {
+            throw new IOException("Unsupported save file version " + version + ": " + path);
+        }
+        if (version < VERSION) {
+            // Older frames are still valid; only newer sections may follow them
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) VERSION}), 4);
+        }
+
+        long lastFull = -1;
+        long end = HEADER_SIZE;
+        while (file.remaining() >= FRAME_HEADER_SIZE) {
+            int start = file.position();
+            byte kind = file.get();
+            int length = file.getInt();
+            int checksum = file.getInt();
+            if ((kind != FULL && kind != DELTA) || length < 0 || length > file.remaining()) break;
+
+            ByteBuffer payload = file.slice().limit(length);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) break;
+
+            if (kind == FULL) {
+                lastFull = start;
+                lastFullSize = FRAME_HEADER_SIZE + length;
+            }
+            file.position(start + FRAME_HEADER_SIZE + length);
+            end = file.position();
+        }
+        if (end < size) channel.truncate(end);
+        validEnd = end;
+
+        if (lastFull >= 0) {
+            applyFrames(file.position((int) lastFull).limit((int) end));
+            hasSnapshot = true;
+        }
+    }
+
+    /**
+     * Replays validated frames into savedSections / savedCells.
+     */
+    private void applyFrames(ByteBuffer frames) throws IOException {
+        try {
+            while (frames.hasRemaining()) {
+                byte kind = frames.get();
+                int length = frames.getInt();
+                frames.getInt();
+                int end = frames.position() + length;
+                if (kind == FULL) {
+                    Arrays.fill(savedSections, null);
+                    savedCells = null;
+                }
+                ReplayLog.Reader reader = new ReplayLog.Reader(frames);
+                while (frames.position() < end) {
+                    int id = reader.readTag();
+                    byte[] bytes = new byte[(int) reader.readVarint()];
+                    frames.get(bytes);
+                    if (id == BOARD) {
+                        savedCells = bytes;
+                    } else if (id == BOARD_PATCH) {
+                        applyPatch(bytes);
+                    } else if (id < SECTION_COUNT) {
+                        savedSections[id] = bytes;
+                    } else {
+                        throw new IOException("Unknown save section " + id);
+                    }
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt save file: " + path, e);
+        }
+        if (savedCells == null || savedSections[GAME] == null || savedSections[RNG] == null) {
+            throw new IOException("Incomplete snapshot in save file: " + path);
+        }
+    }
+
+    private void applyPatch(byte[] patch) {
+        ReplayLog.Reader reader = new ReplayLog.Reader(ByteBuffer.wrap(patch));
+        int count = (int) reader.readVarint();
+        savedCells = savedCells.clone();
+        for (int k = 0; k < count; k++) {
+            int index = (int) reader.readVarint();
+            savedCells[index] = (byte) reader.readVarint();
+        }
+    }
+
+    /**
+     * Loads the saved state into a game: a new board and party, and the generator's saved state.
+     */
+    public void restore(LegendsGame game) throws IOException {
+        if (!hasSnapshot) throw new IOException("No saved game in " + path);
+        AssetCatalog assets = game.getAssets();
+        try {
+            ReplayLog.Reader header = new ReplayLog.Reader(ByteBuffer.wrap(savedSections[GAME]));
+            int boardSize = (int) header.readVarint();
+            int row = (int) header.readVarint();
+            int col = (int) header.readVarint();
+            int heroCount = (int) header.readVarint();
+
+            ByteBuffer rng = ByteBuffer.wrap(savedSections[RNG]);
+            long state = rng.getLong();
+            long gamma = rng.getLong();
+
+            Party party = new Party();
+            for (int i = 0; i < heroCount; i++) {
+                if (savedSections[HERO + i] == null) throw new IOException("Missing hero " + i + " in " + path);
+                party.addHero(decodeHero(savedSections[HERO + i], assets));
+            }
+            party.setLocation(row, col);
+
+            long turn = 0; // Saved before version 3
+            if (savedSections[TURN] != null) turn = new ReplayLog.Reader(ByteBuffer.wrap(savedSections[TURN])).readVarint();
+
+            LegendsBoard board = LegendsBoard.restore(boardSize, savedCells);
+            game.getRandom().restoreState(state, gamma);
+            game.restore(board, party, turn);
+            if (savedSections[JOURNAL] != null) {
+                ReplayLog.Reader journal = new ReplayLog.Reader(ByteBuffer.wrap(savedSections[JOURNAL]));
+                long sessionId = journal.readVarint();
+                game.resumeJournal(sessionId, journal.readVarint());
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                 | ClassCastException e) {
+            throw new IOException("Corrupt save file: " + path, e);
+        }
+    }
+
+    /**
+     * Loads the saved markets and prices into a restored game's own ones, once it has built them.
+     * A save from before version 3 leaves them fresh.
+     */
+    void restoreEconomy(LegendsGame game) throws IOException {
+        AssetCatalog assets = game.getAssets();
+        try {
+            MarketRegistry registry = game.getOwnMarkets();
+            if (registry != null && savedSections[MARKETS] != null) {
+                registry.restore(game.getTurn(), decodeMarkets(savedSections[MARKETS], assets));
+            }
+            PriceEngine prices = game.getOwnPrices();
+            if (prices != null && savedSections[PRICES] != null) {
+                ReplayLog.Reader in = new ReplayLog.Reader(ByteBuffer.wrap(savedSections[PRICES]));
+                int count = (int) in.readVarint();
+                for (int i = 0; i < count; i++) {
+                    int id = (int) in.readVarint();
+                    assets.getItem(id); // Range check
+                    prices.restorePressure(id, readDouble(in), in.readVarint());
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupt save file: " + path, e);
+        }
+    }
+
+    private static List<MarketStock> decodeMarkets(byte[] bytes, AssetCatalog assets) {
+        ReplayLog.Reader in = new ReplayLog.Reader(ByteBuffer.wrap(bytes));
+        int count = (int) in.readVarint();
+        List<MarketStock> markets = new ArrayList<>();
+        for (int m = 0; m < count; m++) {
+            MarketStock market = new MarketStock((int) in.readVarint(), (int) in.readVarint());
+            market.setLastVisit(in.readVarint());
+            market.setTimerDue(in.readVarint());
+            boolean stale = in.readVarint() != 0;
+            int goodsCount = (int) in.readVarint();
+            if (goodsCount < 0 || goodsCount > bytes.length) throw new IllegalArgumentException("Bad goods count " + goodsCount);
+            List<Item> goods = new ArrayList<>(goodsCount);
+            int[] quantities = new int[goodsCount];
+            for (int i = 0; i < goodsCount; i++) {
+                goods.add(assets.getItem((int) in.readVarint()));
+                quantities[i] = (int) in.readVarint();
+            }
+            market.restock(goods, quantities);
+            if (stale) market.markStale();
+            markets.add(market);
+        }
+        return markets;
+    }
+
+    private static Hero decodeHero(byte[] bytes, AssetCatalog assets) {
+        ReplayLog.Reader in = new ReplayLog.Reader(ByteBuffer.wrap(bytes));
+        HeroType type = HeroType.values()[(int) in.readVarint()];
+        Hero hero = assets.newHero(assets.getHeroTemplates(type).get((int) in.readVarint()));
+        int level = (int) in.readVarint();
+        hero.restoreProgress(level, (int) in.readVarint());
+        hero.setHp(readDouble(in));
+        hero.setMana(readDouble(in));
+        hero.setStrength(readDouble(in));
+        hero.setAgility(readDouble(in));
+        hero.setDexterity(readDouble(in));
+        hero.setMoney(readDouble(in));
+
+        int weapon = (int) in.readVarint() - 1;
+        int armor = (int) in.readVarint() - 1;
+        int itemCount = (int) in.readVarint();
+        for (int i = 0; i < itemCount; i++) {
+            hero.getInventory().addItem(assets.getItem((int) in.readVarint()));
+        }
+        if (weapon >= 0) hero.equipWeapon((Weapon) assets.getItem(weapon));
+        if (armor >= 0) hero.equipArmor((Armor) assets.getItem(armor));
+        return hero;
+    }
+
+    private static double readDouble(ReplayLog.Reader in) {
+        return ReplayLog.decodeDouble(in.readVarint());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,51 @@
+package game;
+
+/**
+ * Plain Java kernel: one battle (lane) at a time. Also resolves the tail lanes for the vector kernel.
+ */
+class ScalarMonsterTurnKernel implements MonsterTurnKernel {
+
+    @Override
+    public void resolve(MonsterTurnBatch batch) {
+        for (int m = 0; m < batch.monsterSlots; m++) {
+            for (int b = 0; b < batch.battles; b++) {
+                resolveLane(batch, m, b);
+            }
+        }
+    }
+
+    /**
+     * Monster slot {@code m} attacks in battle {@code b}.
+     * Mirrors the vector kernel operation for operation so both round identically.
+     */
+    static void resolveLane(MonsterTurnBatch batch, int m, int b) {
+        int n = batch.battles;
+        int slot = m * n + b;
+        if (!(batch.monsterHp[slot] > 0)) return;
+
+        double alive = 0;
+        for (int h = 0; h < batch.heroSlots; h++) {
+            if (batch.heroHp[h * n + b] > 0) alive += 1.0;
+        }
+        if (!(alive > 0)) return;
+
+        // Hero h is the target when it is alive and prefix <= pick < prefix + 1
+        double pick = batch.targetRoll[slot] * alive;
+        double prefix = 0;
+        for (int h = 0; h < batch.heroSlots; h++) {
+            int i = h * n + b;
+            double hp = batch.heroHp[i];
+            if (!(hp > 0)) continue;
+
+            if (pick >= prefix && pick < prefix + 1.0) {
+                if (batch.dodgeRoll[slot] >= batch.heroDodge[i]) {
+                    double damage = Math.max(batch.monsterDamage[slot] - batch.heroArmor[i] * CombatState.ARMOR_FACTOR, 0);
+                    batch.heroHp[i] = Math.max(hp - damage, 0);
+                    batch.damageTaken[b] += damage;
+                }
+                return;
+            }
+            prefix += 1.0;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Party;
+import items.ItemIndex;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Markets shared by games played on the same board, keyed by board cell: the market at a cell is
+ * one shop for all players, so parties on different threads buy from the same stock.
+ *
+ * <p>Only hand one instance to games whose parties walk the same board. {@link server.SessionServer}
+ * does not use it, since every hosted session generates its own board, and games on different
+ * boards would otherwise share the stock of unrelated markets that happen to sit on the same cell.</p>
+ *
+ * <p>There is no global lock. Markets live in a ConcurrentHashMap, and a market's first stock is
+ * drawn by whichever visitor creates it. Buying claims units with compare-and-set on the stock (see
+ * {@link MarketStock}). A restock is due every {@code restockInterval} ticks; the first visitor to
+ * win a compare-and-set on the market's next restock tick draws the new goods, and the others keep
+ * shopping from the current ones. Markets nobody has visited for {@code idleLimit} ticks are swept
+ * out, at most once per restock interval.</p>
+ */
+public final class SharedMarket {
+
+    /** Ticks between restocks with the {@link #shared} clock (seconds). */
+    public static final long SHARED_RESTOCK_SECONDS = 300;
+    /** Ticks without a visit before a market is forgotten with the {@link #shared} clock (seconds). */
+    public static final long SHARED_IDLE_SECONDS = 3600;
+
+    /**
+     * A market and the tick of its next restock.
+     */
+    private static final class Entry {
+        final MarketStock stock;
+        final AtomicLong nextRestock;
+
+        Entry(MarketStock stock, long nextRestock) {
+            this.stock = stock;
+            this.nextRestock = new AtomicLong(nextRestock);
+        }
+    }
+
+    private final ItemIndex catalog;
+    private final LongSupplier clock;
+    private final long restockInterval;
+    private final long idleLimit;
+    private final ConcurrentHashMap<Long, Entry> markets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep;
+
+    /**
+     * @param clock Current tick; must never go backwards.
+     */
+    public SharedMarket(ItemIndex catalog, LongSupplier clock, long restockInterval, long idleLimit) {
+        this.catalog = catalog;
+        this.clock = clock;
+        this.restockInterval = restockInterval;
+        this.idleLimit = idleLimit;
+        this.nextSweep = new AtomicLong(clock.getAsLong() + restockInterval);
+    }
+
+    /**
+     * @return Markets for many sessions, restocking and expiring in real time.
+     */
+    public static SharedMarket shared(ItemIndex catalog) {
+        long start = System.nanoTime();
+        return new SharedMarket(catalog, () -> (System.nanoTime() - start) / 1_000_000_000L,
+                SHARED_RESTOCK_SECONDS, SHARED_IDLE_SECONDS);
+    }
+
+    /**
+     * Returns the market at the cell, creating or restocking it with the visitor's generator.
+     */
+    MarketStock visit(int row, int col, Party party, RandomGenerator rng) {
+        long now = clock.getAsLong();
+        sweep(now);
+
+        Entry entry = markets.computeIfAbsent(key(row, col), key -> {
+            MarketStock stock = new MarketStock(row, col);
+            MarketRegistry.draw(stock, catalog, party, rng);
+            return new Entry(stock, now + restockInterval);
+        });
+        long due = entry.nextRestock.get();
+        if (now >= due && entry.nextRestock.compareAndSet(due, now + restockInterval)) {
+            MarketRegistry.draw(entry.stock, catalog, party, rng);
+        }
+        entry.stock.setLastVisit(now);
+        return entry.stock;
+    }
+
+    /**
+     * @return The number of markets kept.
+     */
+    public int size() {
+        return markets.size();
+    }
+
+    private void sweep(long now) {
+        long due = nextSweep.get();
+        if (now < due || !nextSweep.compareAndSet(due, now + restockInterval)) return;
+        markets.values().removeIf(entry -> now - entry.stock.getLastVisit() > idleLimit);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+}
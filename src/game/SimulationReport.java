@@ -0,0 +1,101 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * Aggregated statistics over many simulated battles.
+ * Filled in per shard by the BattleSimulator and merged together, so it is not thread-safe itself.
+ */
+public class SimulationReport {
+
+    /** Rounds are counted exactly up to this value; longer battles go into the last bucket. */
+    public static final int ROUND_BUCKETS = 64;
+    /** Width of each damage histogram bucket; the last bucket collects everything above. */
+    public static final double DAMAGE_BUCKET_WIDTH = 100.0;
+    public static final int DAMAGE_BUCKETS = 64;
+
+    private long battles;
+    private long victories;
+    private long defeats;
+    private long stalemates;
+    private long totalRounds;
+    private double totalDamageDealt;
+    private double totalDamageTaken;
+    private double totalGold;
+    private long totalXp;
+
+    private final long[] roundHistogram = new long[ROUND_BUCKETS];
+    private final long[] damageDealtHistogram = new long[DAMAGE_BUCKETS];
+    private final long[] damageTakenHistogram = new long[DAMAGE_BUCKETS];
+
+    void record(BattleResult result) {
+        battles++;
+        switch (result.getOutcome()) {
+            case VICTORY: victories++; break;
+            case DEFEAT: defeats++; break;
+            default: stalemates++; break;
+        }
+
+        totalRounds += result.getRounds();
+        totalDamageDealt += result.getDamageDealt();
+        totalDamageTaken += result.getDamageTaken();
+        totalGold += result.getGoldReward();
+        totalXp += result.getXpReward();
+
+        roundHistogram[Math.min(result.getRounds(), ROUND_BUCKETS) - 1]++;
+        damageDealtHistogram[damageBucket(result.getDamageDealt())]++;
+        damageTakenHistogram[damageBucket(result.getDamageTaken())]++;
+    }
+
+    void merge(SimulationReport other) {
+        battles += other.battles;
+        victories += other.victories;
+        defeats += other.defeats;
+        stalemates += other.stalemates;
+        totalRounds += other.totalRounds;
+        totalDamageDealt += other.totalDamageDealt;
+        totalDamageTaken += other.totalDamageTaken;
+        totalGold += other.totalGold;
+        totalXp += other.totalXp;
+
+        for (int i = 0; i < ROUND_BUCKETS; i++) roundHistogram[i] += other.roundHistogram[i];
+        for (int i = 0; i < DAMAGE_BUCKETS; i++) {
+            damageDealtHistogram[i] += other.damageDealtHistogram[i];
+            damageTakenHistogram[i] += other.damageTakenHistogram[i];
+        }
+    }
+
+    private static int damageBucket(double damage) {
+        return (int) Math.min(DAMAGE_BUCKETS - 1, damage / DAMAGE_BUCKET_WIDTH);
+    }
+
+    public long getBattles() { return battles; }
+    public long getVictories() { return victories; }
+    public long getDefeats() { return defeats; }
+    public long getStalemates() { return stalemates; }
+
+    public double getWinRate() { return ratio(victories); }
+    public double getAverageRounds() { return ratio(totalRounds); }
+    public double getAverageDamageDealt() { return battles == 0 ? 0 : totalDamageDealt / battles; }
+    public double getAverageDamageTaken() { return battles == 0 ? 0 : totalDamageTaken / battles; }
+    public double getAverageGold() { return battles == 0 ? 0 : totalGold / battles; }
+    public double getAverageXp() { return ratio(totalXp); }
+
+    /** Index i holds the number of battles that lasted i + 1 rounds. */
+    public long[] getRoundHistogram() { return roundHistogram.clone(); }
+
+    /** Index i holds the number of battles whose damage dealt fell in [i, i + 1) * DAMAGE_BUCKET_WIDTH. */
+    public long[] getDamageDealtHistogram() { return damageDealtHistogram.clone(); }
+    public long[] getDamageTakenHistogram() { return damageTakenHistogram.clone(); }
+
+    private double ratio(long count) {
+        return battles == 0 ? 0 : (double) count / battles;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Battles: %d | Win Rate: %.2f%% | Avg Rounds: %.2f | Avg Dealt: %.0f | Avg Taken: %.0f | Avg Gold: %.0f | Avg XP: %.2f%nRounds: %s",
+                battles, getWinRate() * 100, getAverageRounds(), getAverageDamageDealt(), getAverageDamageTaken(),
+                getAverageGold(), getAverageXp(), Arrays.toString(roundHistogram));
+    }
+}
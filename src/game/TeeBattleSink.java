@@ -0,0 +1,160 @@
+package game;
+
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import items.Item;
+import items.Potion;
+import items.Spell;
+import items.Spell.SpellType;
+
+import java.util.List;
+
+/**
+ * Forwards every battle event to two sinks in order (e.g. the console and a replay recorder).
+ */
+final class TeeBattleSink implements BattleEventSink {
+
+    private final BattleEventSink first;
+    private final BattleEventSink second;
+
+    TeeBattleSink(BattleEventSink first, BattleEventSink second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * @return A sink forwarding to both, either one if the other is null, or null if both are.
+     */
+    static BattleEventSink of(BattleEventSink first, BattleEventSink second) {
+        if (first == null) return second;
+        if (second == null) return first;
+        return new TeeBattleSink(first, second);
+    }
+
+    @Override
+    public void battleStarted(List<Monster> enemies) {
+        first.battleStarted(enemies);
+        second.battleStarted(enemies);
+    }
+
+    @Override
+    public void roundStarted(int round) {
+        first.roundStarted(round);
+        second.roundStarted(round);
+    }
+
+    @Override
+    public void heroTurn(Hero hero) {
+        first.heroTurn(hero);
+        second.heroTurn(hero);
+    }
+
+    @Override
+    public void actionRejected(Hero hero, Rejection reason) {
+        first.actionRejected(hero, reason);
+        second.actionRejected(hero, reason);
+    }
+
+    @Override
+    public void battleStatus(Party party, List<Monster> enemies) {
+        first.battleStatus(party, enemies);
+        second.battleStatus(party, enemies);
+    }
+
+    @Override
+    public void battleAbandoned() {
+        first.battleAbandoned();
+        second.battleAbandoned();
+    }
+
+    @Override
+    public void heroAttacked(Hero hero, Monster target, double damage) {
+        first.heroAttacked(hero, target, damage);
+        second.heroAttacked(hero, target, damage);
+    }
+
+    @Override
+    public void monsterDodged(Hero hero, Monster target) {
+        first.monsterDodged(hero, target);
+        second.monsterDodged(hero, target);
+    }
+
+    @Override
+    public void monsterDefeated(Monster monster) {
+        first.monsterDefeated(monster);
+        second.monsterDefeated(monster);
+    }
+
+    @Override
+    public void spellDebuff(Monster target, SpellType type) {
+        first.spellDebuff(target, type);
+        second.spellDebuff(target, type);
+    }
+
+    @Override
+    public void spellCast(Hero hero, Spell spell, Monster target, double damage) {
+        first.spellCast(hero, spell, target, damage);
+        second.spellCast(hero, spell, target, damage);
+    }
+
+    @Override
+    public void potionUsed(Hero hero, Potion potion) {
+        first.potionUsed(hero, potion);
+        second.potionUsed(hero, potion);
+    }
+
+    @Override
+    public void itemEquipped(Hero hero, Item item) {
+        first.itemEquipped(hero, item);
+        second.itemEquipped(hero, item);
+    }
+
+    @Override
+    public void monsterAttacked(Monster monster, Hero target, double damage) {
+        first.monsterAttacked(monster, target, damage);
+        second.monsterAttacked(monster, target, damage);
+    }
+
+    @Override
+    public void heroDodged(Monster monster, Hero target) {
+        first.heroDodged(monster, target);
+        second.heroDodged(monster, target);
+    }
+
+    @Override
+    public void heroFainted(Hero hero) {
+        first.heroFainted(hero);
+        second.heroFainted(hero);
+    }
+
+    @Override
+    public void regenerated(Party party) {
+        first.regenerated(party);
+        second.regenerated(party);
+    }
+
+    @Override
+    public void partyDefeated() {
+        first.partyDefeated();
+        second.partyDefeated();
+    }
+
+    @Override
+    public void victory(double goldReward, int xpReward) {
+        first.victory(goldReward, xpReward);
+        second.victory(goldReward, xpReward);
+    }
+
+    @Override
+    public void heroRevived(Hero hero) {
+        first.heroRevived(hero);
+        second.heroRevived(hero);
+    }
+
+    @Override
+    public void heroLeveledUp(Hero hero) {
+        first.heroLeveledUp(hero);
+        second.heroLeveledUp(hero);
+    }
+}
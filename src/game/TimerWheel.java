@@ -0,0 +1,85 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel over game ticks: a timer due at tick t waits in slot {@code t mod slots},
+ * so advancing one tick only looks at the timers in one slot instead of every timer.
+ * Timers due more than one revolution ahead stay in their slot until their tick comes round.
+ *
+ * <p>Timers cannot be cancelled; the owner ignores ones it no longer cares about when they fire.
+ * Not thread-safe.</p>
+ */
+final class TimerWheel<T> {
+
+    private static final class Timer<T> {
+        final T value;
+        final long due;
+
+        Timer(T value, long due) {
+            this.value = value;
+            this.due = due;
+        }
+    }
+
+    private final List<List<Timer<T>>> slots;
+    private final int mask;
+    private final List<T> firing = new ArrayList<>();
+    private long now;
+    private int size;
+
+    /**
+     * @param slots Number of slots, rounded up to a power of two. Best at least the usual delay.
+     * @param now   The current tick.
+     */
+    TimerWheel(int slots, long now) {
+        int count = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) this.slots.add(new ArrayList<>());
+        this.mask = count - 1;
+        this.now = now;
+    }
+
+    /**
+     * Schedules a timer. A due tick that has already passed fires on the next advance.
+     */
+    void schedule(T value, long dueTick) {
+        long due = Math.max(dueTick, now + 1);
+        slots.get((int) (due & mask)).add(new Timer<>(value, due));
+        size++;
+    }
+
+    /**
+     * Moves the clock forward to the tick and hands every timer due by then to the action.
+     * The action may schedule new timers.
+     */
+    void advance(long tick, Consumer<T> action) {
+        // A jump of a full revolution or more visits every slot once
+        long last = Math.min(tick, now + slots.size());
+        while (now < last) {
+            now++;
+            List<Timer<T>> slot = slots.get((int) (now & mask));
+            for (int i = slot.size() - 1; i >= 0; i--) {
+                Timer<T> timer = slot.get(i);
+                if (timer.due > tick) continue;
+                slot.set(i, slot.get(slot.size() - 1));
+                slot.remove(slot.size() - 1);
+                size--;
+                firing.add(timer.value);
+            }
+            // Fire after the scan, since the action may schedule back into this slot
+            for (T value : firing) action.accept(value);
+            firing.clear();
+        }
+        now = Math.max(now, tick);
+    }
+
+    /**
+     * @return Timers scheduled and not yet fired.
+     */
+    int size() {
+        return size;
+    }
+}
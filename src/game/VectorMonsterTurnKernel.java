@@ -0,0 +1,78 @@
+package game;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API kernel: resolves one monster slot across {@code SPECIES.length()} battles per step.
+ * Only loaded by {@link MonsterTurnBatch#loadKernel()}; needs {@code --add-modules jdk.incubator.vector}
+ * at run time, otherwise loading this class fails and the scalar kernel is used.
+ */
+class VectorMonsterTurnKernel implements MonsterTurnKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void resolve(MonsterTurnBatch batch) {
+        int n = batch.battles;
+        int bound = SPECIES.loopBound(n);
+
+        for (int m = 0; m < batch.monsterSlots; m++) {
+            int base = m * n;
+            int b = 0;
+            for (; b < bound; b += SPECIES.length()) {
+                resolveLanes(batch, base, b);
+            }
+            for (; b < n; b++) {
+                ScalarMonsterTurnKernel.resolveLane(batch, m, b);
+            }
+        }
+    }
+
+    private static void resolveLanes(MonsterTurnBatch batch, int base, int b) {
+        int n = batch.battles;
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+
+        VectorMask<Double> acting = DoubleVector.fromArray(SPECIES, batch.monsterHp, base + b)
+                .compare(VectorOperators.GT, 0);
+        if (!acting.anyTrue()) return;
+
+        DoubleVector alive = zero;
+        for (int h = 0; h < batch.heroSlots; h++) {
+            VectorMask<Double> heroAlive = DoubleVector.fromArray(SPECIES, batch.heroHp, h * n + b)
+                    .compare(VectorOperators.GT, 0);
+            alive = alive.add(1.0, heroAlive);
+        }
+        acting = acting.and(alive.compare(VectorOperators.GT, 0));
+        if (!acting.anyTrue()) return;
+
+        DoubleVector pick = DoubleVector.fromArray(SPECIES, batch.targetRoll, base + b).mul(alive);
+        DoubleVector dodgeRoll = DoubleVector.fromArray(SPECIES, batch.dodgeRoll, base + b);
+        DoubleVector monsterDamage = DoubleVector.fromArray(SPECIES, batch.monsterDamage, base + b);
+        DoubleVector damageTaken = DoubleVector.fromArray(SPECIES, batch.damageTaken, b);
+        DoubleVector prefix = zero;
+
+        for (int h = 0; h < batch.heroSlots; h++) {
+            int i = h * n + b;
+            DoubleVector hp = DoubleVector.fromArray(SPECIES, batch.heroHp, i);
+            VectorMask<Double> heroAlive = hp.compare(VectorOperators.GT, 0);
+
+            VectorMask<Double> chosen = acting.and(heroAlive)
+                    .and(pick.compare(VectorOperators.GE, prefix))
+                    .and(pick.compare(VectorOperators.LT, prefix.add(1.0)));
+            VectorMask<Double> hit = chosen.and(
+                    dodgeRoll.compare(VectorOperators.GE, DoubleVector.fromArray(SPECIES, batch.heroDodge, i)));
+            prefix = prefix.add(1.0, heroAlive);
+
+            if (!hit.anyTrue()) continue;
+
+            DoubleVector armor = DoubleVector.fromArray(SPECIES, batch.heroArmor, i);
+            DoubleVector damage = monsterDamage.sub(armor.mul(CombatState.ARMOR_FACTOR)).max(0);
+            hp.blend(hp.sub(damage).max(0), hit).intoArray(batch.heroHp, i);
+            damageTaken = damageTaken.add(damage, hit);
+        }
+        damageTaken.intoArray(batch.damageTaken, b);
+    }
+}
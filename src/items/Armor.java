@@ -14,6 +14,9 @@ public class Armor extends Item {
 
     public double getDamageReduction() { return damageReduction; }
 
+    @Override
+    public ItemType getItemType() { return ItemType.ARMOR; }
+
     @Override
     public String toString() {
         return String.format("%-15s | Lvl: %d | Cost: %.0f | Def: %.0f",
@@ -1,76 +1,205 @@
 package items;
 
+import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 /**
  * Manages a collection of Items for a Hero.
  * Provides methods to add, remove, and filter items by type.
+ *
+ * <p>Items are kept in one bucket per {@link ItemType}, in the order they were added, so the
+ * category getters return a read-only live view in O(1) instead of scanning every item. Removal
+ * is O(1) amortized and keeps the order of the rest (menus keep their numbering): each item knows
+ * its slots, a removed one leaves an empty slot the views skip, and a bucket is compacted once
+ * its empty slots outnumber its items.</p>
  */
 public class Inventory {
-    private final List<Item> items;
+    private final Map<ItemType, Bucket> buckets;
+    private int size;
 
     public Inventory() {
-        this.items = new ArrayList<>();
+        this.buckets = new EnumMap<>(ItemType.class);
+        for (ItemType type : ItemType.values()) {
+            buckets.put(type, new Bucket());
+        }
     }
 
     public void addItem(Item item) {
-        items.add(item);
+        buckets.get(item.getItemType()).add(item);
+        size++;
     }
 
     public boolean removeItem(Item item) {
-        return items.remove(item);
+        if (item == null || !buckets.get(item.getItemType()).remove(item)) {
+            return false;
+        }
+        size--;
+        return true;
     }
 
     public boolean contains(Item item) {
-        return items.contains(item);
+        return item != null && buckets.get(item.getItemType()).contains(item);
     }
 
+    /**
+     * @return A snapshot of every item, grouped by category (weapons, armor, potions, spells),
+     * each in the order it was added.
+     */
     public List<Item> getItems() {
-        return new ArrayList<>(items); // Return copy to protect internal list
+        List<Item> all = new ArrayList<>(size);
+        for (Bucket bucket : buckets.values()) {
+            all.addAll(bucket.view);
+        }
+        return all; // Return copy to protect internal lists
     }
 
     public List<Weapon> getWeapons() {
-        return items.stream()
-                .filter(i -> i instanceof Weapon)
-                .map(i -> (Weapon) i)
-                .collect(Collectors.toList());
+        return view(ItemType.WEAPON);
     }
 
     public List<Armor> getArmor() {
-        return items.stream()
-                .filter(i -> i instanceof Armor)
-                .map(i -> (Armor) i)
-                .collect(Collectors.toList());
+        return view(ItemType.ARMOR);
     }
 
     public List<Potion> getPotions() {
-        return items.stream()
-                .filter(i -> i instanceof Potion)
-                .map(i -> (Potion) i)
-                .collect(Collectors.toList());
+        return view(ItemType.POTION);
     }
 
     public List<Spell> getSpells() {
-        return items.stream()
-                .filter(i -> i instanceof Spell)
-                .map(i -> (Spell) i)
-                .collect(Collectors.toList());
+        return view(ItemType.SPELL);
+    }
+
+    /**
+     * Returns the read-only view of one category. The view reflects later additions and removals.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Item> List<T> view(ItemType type) {
+        // Safe: a bucket only ever holds items whose getItemType() matches its key
+        return (List<T>) buckets.get(type).view;
     }
 
     public boolean isEmpty() {
-        return items.isEmpty();
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
     }
 
     public void printInventory() {
-        if (items.isEmpty()) {
+        if (isEmpty()) {
             System.out.println("Inventory is empty.");
             return;
         }
         System.out.println("--- Inventory ---");
+        List<Item> items = getItems();
         for (int i = 0; i < items.size(); i++) {
             System.out.println((i + 1) + ". " + items.get(i).toString());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Items of a single category in the order they were added, with an identity index of their slots.
+     * The same Item instance may be held more than once (e.g. bought twice), so each item maps to
+     * every slot it occupies, earliest first. A removed item's slot is left null until compaction.
+     */
+    private static final class Bucket {
+        /** Empty slots tolerated regardless of the item count, so small buckets rarely compact. */
+        private static final int MIN_EMPTY_SLOTS = 8;
+
+        private final List<Item> slots = new ArrayList<>();
+        private final Map<Item, ArrayDeque<Integer>> positions = new IdentityHashMap<>();
+        private final List<Item> view = new View();
+        private int live;
+
+        void add(Item item) {
+            positions.computeIfAbsent(item, k -> new ArrayDeque<>(1)).addLast(slots.size());
+            slots.add(item);
+            live++;
+        }
+
+        boolean contains(Item item) {
+            return positions.containsKey(item);
+        }
+
+        boolean remove(Item item) {
+            ArrayDeque<Integer> held = positions.get(item);
+            if (held == null) return false;
+
+            slots.set(held.pollFirst(), null); // First copy, as List.remove would
+            if (held.isEmpty()) positions.remove(item);
+            live--;
+            while (!slots.isEmpty() && slots.get(slots.size() - 1) == null) slots.remove(slots.size() - 1);
+            if (slots.size() - live > Math.max(live, MIN_EMPTY_SLOTS)) compact();
+            return true;
+        }
+
+        /**
+         * Closes up the empty slots, keeping the order; paid for by the removals that made them.
+         */
+        private void compact() {
+            for (ArrayDeque<Integer> held : positions.values()) held.clear();
+            int next = 0;
+            for (int i = 0; i < slots.size(); i++) {
+                Item item = slots.get(i);
+                if (item == null) continue;
+                slots.set(next, item);
+                positions.get(item).addLast(next++);
+            }
+            slots.subList(next, slots.size()).clear();
+        }
+
+        /**
+         * The bucket's items without its empty slots. Indexing is direct when there are none.
+         */
+        private final class View extends AbstractList<Item> {
+            @Override
+            public int size() {
+                return live;
+            }
+
+            @Override
+            public Item get(int index) {
+                Objects.checkIndex(index, live);
+                if (slots.size() == live) return slots.get(index);
+                for (Item item : slots) {
+                    if (item != null && index-- == 0) return item;
+                }
+                throw new IllegalStateException("Inventory bucket is inconsistent");
+            }
+
+            @Override
+            public Iterator<Item> iterator() {
+                return new Iterator<>() {
+                    private int slot = skipEmpty(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return slot < slots.size();
+                    }
+
+                    @Override
+                    public Item next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        Item item = slots.get(slot);
+                        slot = skipEmpty(slot + 1);
+                        return item;
+                    }
+                };
+            }
+
+            private int skipEmpty(int slot) {
+                while (slot < slots.size() && slots.get(slot) == null) slot++;
+                return slot;
+            }
+        }
+    }
+}
@@ -19,6 +19,11 @@ public abstract class Item {
     public double getPrice() { return price; }
     public int getMinLevel() { return minLevel; }
 
+    /**
+     * @return The category of this item, used for type-indexed lookups.
+     */
+    public abstract ItemType getItemType();
+
     /**
      * Abstract method to ensure every item type has a formatted display string.
      */
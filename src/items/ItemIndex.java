@@ -0,0 +1,197 @@
+package items;
+
+import common.RandomGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only index over an item catalog for markets: one array per {@link ItemType}, sorted by
+ * minimum level and then by price, so the items a level may buy are always a prefix found by
+ * binary search.
+ *
+ * <p>Stocking a market draws from those prefixes without copying them (see {@link #sample}), so its
+ * cost depends on the stock size and not on the catalog. Built once per catalog and shared by every
+ * session.</p>
+ */
+public final class ItemIndex {
+
+    private static final ItemType[] TYPES = ItemType.values();
+
+    // Shuffle every eligible position when there are at most this many per item drawn
+    private static final int DENSE_FACTOR = 4;
+
+    private static final Comparator<Item> BY_LEVEL_THEN_PRICE =
+            Comparator.comparingInt(Item::getMinLevel).thenComparingDouble(Item::getPrice);
+
+    private final Item[][] byType;      // [type] sorted by (minLevel, price)
+    private final int[][] levels;       // [type][i] = byType[type][i].getMinLevel()
+    private final int[][] nextLevel;    // [type][i] = first position with a higher minLevel
+    private final Map<ItemType, List<Item>> views;
+    private final int size;
+
+    public ItemIndex(List<Item> items) {
+        this.byType = new Item[TYPES.length][];
+        this.levels = new int[TYPES.length][];
+        this.nextLevel = new int[TYPES.length][];
+        this.views = new EnumMap<>(ItemType.class);
+
+        List<List<Item>> buckets = new ArrayList<>(TYPES.length);
+        for (int t = 0; t < TYPES.length; t++) buckets.add(new ArrayList<>());
+        for (Item item : items) buckets.get(item.getItemType().ordinal()).add(item);
+
+        for (int t = 0; t < TYPES.length; t++) {
+            Item[] sorted = buckets.get(t).toArray(new Item[0]);
+            Arrays.sort(sorted, BY_LEVEL_THEN_PRICE); // stable: equal items keep catalog order
+            int[] level = new int[sorted.length];
+            int[] next = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) level[i] = sorted[i].getMinLevel();
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                next[i] = (i + 1 < sorted.length && level[i + 1] == level[i]) ? next[i + 1] : i + 1;
+            }
+            byType[t] = sorted;
+            levels[t] = level;
+            nextLevel[t] = next;
+            views.put(TYPES[t], Collections.unmodifiableList(Arrays.asList(sorted)));
+        }
+        this.size = items.size();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return Every item of the type, sorted by minimum level and then price.
+     */
+    public List<Item> getItems(ItemType type) {
+        return views.get(type);
+    }
+
+    /**
+     * @return How many items of the type a hero of the level may buy. O(log n).
+     */
+    public int countEligible(ItemType type, int level) {
+        // Upper bound: first position whose minLevel exceeds the level
+        int[] minLevels = levels[type.ordinal()];
+        int lo = 0;
+        int hi = minLevels.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (minLevels[mid] <= level) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * @return How many items of any type a hero of the level may buy.
+     */
+    public int countEligible(int level) {
+        int count = 0;
+        for (ItemType type : TYPES) count += countEligible(type, level);
+        return count;
+    }
+
+    /**
+     * @return The items of the type a hero of the level may buy (a view, sorted like {@link #getItems}).
+     */
+    public List<Item> eligible(ItemType type, int level) {
+        return views.get(type).subList(0, countEligible(type, level));
+    }
+
+    /**
+     * Items of the type a hero with this level and gold can buy right now, cheapest first within
+     * each level. Skips the rest of a level as soon as one item is too expensive, so the cost is
+     * O(log n + levels + matches) rather than a scan of the catalog.
+     */
+    public List<Item> affordable(ItemType type, int level, double gold) {
+        int t = type.ordinal();
+        Item[] items = byType[t];
+        int end = countEligible(type, level);
+        List<Item> result = new ArrayList<>();
+        int i = 0;
+        while (i < end) {
+            if (items[i].getPrice() <= gold) {
+                result.add(items[i++]);
+            } else {
+                i = nextLevel[t][i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Every item a hero with this level and gold can buy right now, grouped by type.
+     */
+    public List<Item> affordable(int level, double gold) {
+        List<Item> result = new ArrayList<>();
+        for (ItemType type : TYPES) result.addAll(affordable(type, level, gold));
+        return result;
+    }
+
+    /**
+     * Draws up to {@code count} distinct items, uniformly among those a hero of the level may buy.
+     *
+     * <p>Positions index a virtual array, the eligible prefixes of every type laid end to end, so
+     * nothing the size of the catalog is copied. When few items are eligible it runs a partial
+     * Fisher-Yates shuffle over their positions; otherwise it draws positions and redraws the rare
+     * repeat, which is cheaper than tracking swaps. Either way the cost is O(count).</p>
+     *
+     * @return The drawn items, in draw order (fewer than count if fewer are eligible).
+     */
+    public List<Item> sample(int level, int count, RandomGenerator rng) {
+        int[] eligible = new int[TYPES.length];
+        int total = 0;
+        for (int t = 0; t < TYPES.length; t++) {
+            eligible[t] = countEligible(TYPES[t], level);
+            total += eligible[t];
+        }
+        int k = Math.min(count, total);
+        List<Item> drawn = new ArrayList<>(k);
+
+        if (total <= DENSE_FACTOR * k) {
+            // Partial Fisher-Yates over every eligible position (at most DENSE_FACTOR * k of them)
+            int[] positions = new int[total];
+            for (int i = 0; i < total; i++) positions[i] = i;
+            for (int i = 0; i < k; i++) {
+                int j = i + rng.nextInt(total - i);
+                int picked = positions[j];
+                positions[j] = positions[i];
+                drawn.add(at(picked, eligible));
+            }
+        } else {
+            // At most one in DENSE_FACTOR draws repeats, so redraws are rare
+            int[] picked = new int[k];
+            for (int i = 0; i < k; i++) {
+                int position = rng.nextInt(total);
+                for (int p = 0; p < i; p++) {
+                    if (picked[p] == position) {
+                        position = rng.nextInt(total);
+                        p = -1;
+                    }
+                }
+                picked[i] = position;
+                drawn.add(at(position, eligible));
+            }
+        }
+        return drawn;
+    }
+
+    private Item at(int position, int[] eligible) {
+        for (int t = 0; t < TYPES.length; t++) {
+            if (position < eligible[t]) return byType[t][position];
+            position -= eligible[t];
+        }
+        throw new IndexOutOfBoundsException(String.valueOf(position));
+    }
+}
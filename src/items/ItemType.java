@@ -0,0 +1,9 @@
+package items;
+
+/**
+ * Enum defining the categories of tradeable items.
+ * Used to index inventories and catalogs by kind without instanceof checks.
+ */
+public enum ItemType {
+    WEAPON, ARMOR, POTION, SPELL
+}
@@ -1,6 +1,7 @@
 package items;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -19,6 +20,7 @@ public class Potion extends Item {
     }
 
     public double getAttributeIncrease() { return attributeIncrease; }
+    public List<String> getAttributesAffected() { return Collections.unmodifiableList(attributesAffected); }
 
     public boolean affects(String statName) {
         if (attributesAffected.contains("All")) return true;
@@ -29,6 +31,9 @@ public class Potion extends Item {
         return false;
     }
 
+    @Override
+    public ItemType getItemType() { return ItemType.POTION; }
+
     @Override
     public String toString() {
         return String.format("%-15s | Lvl: %d | Cost: %.0f | Effect: +%.0f to %s",
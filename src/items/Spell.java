@@ -25,6 +25,9 @@ public class Spell extends Item {
     public double getManaCost() { return manaCost; }
     public SpellType getType() { return type; }
 
+    @Override
+    public ItemType getItemType() { return ItemType.SPELL; }
+
     @Override
     public String toString() {
         return String.format("%-15s | Type: %s | Lvl: %d | Cost: %.0f | Dmg: %.0f | MP: %.0f",
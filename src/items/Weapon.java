@@ -17,6 +17,9 @@ public class Weapon extends Item {
     public double getDamage() { return damage; }
     public int getRequiredHands() { return requiredHands; }
 
+    @Override
+    public ItemType getItemType() { return ItemType.WEAPON; }
+
     @Override
     public String toString() {
         return String.format("%-15s | Lvl: %d | Cost: %.0f | Dmg: %.0f | Hands: %d",
@@ -0,0 +1,131 @@
+package server;
+
+import common.InputValidator;
+import game.GameOptions;
+import game.LegendsGame;
+import game.ReplayRecorder;
+import game.SaveFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * One player's game, bound to its own input and output streams instead of stdin/stdout.
+ * Owns its LegendsGame and RandomGenerator, so sessions share no mutable state
+ * beyond the journal and economy the server hands every session.
+ *
+ * <p>With a save directory, the session first asks for a player name and autosaves to that
+ * player's file, so a player who crashed or disconnected continues where they left off. A name
+ * can be in only one session at a time, so no save file is ever written by two games.</p>
+ */
+public class GameSession implements Runnable {
+
+    private static final Pattern PLAYER_NAME = Pattern.compile("[a-z0-9_-]{1,32}");
+
+    private final long id;
+    private final InputStream in;
+    private final GameOptions options;
+    private final Path saveDir;
+    private final Set<String> players;
+    private final Runnable onClose;
+
+    /**
+     * @param options The session's own output, generator and recorder, plus what it shares with other
+     *                sessions. Its output stream and recorder are closed when the session ends.
+     * @param saveDir Directory of per-player saves, or null to keep none.
+     * @param players Names of the players with a session on this server, shared by all its sessions.
+     */
+    GameSession(long id, InputStream in, GameOptions options, Path saveDir, Set<String> players, Runnable onClose) {
+        this.id = id;
+        this.in = in;
+        this.options = options;
+        this.saveDir = saveDir;
+        this.players = players;
+        this.onClose = onClose;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Plays until the player declines a new game or disconnects.
+     * Errors end this session only; they never terminate the server.
+     */
+    @Override
+    public void run() {
+        PrintStream console = options.getOut();
+        String player = null;
+        SaveFile saveFile = null;
+        try (Scanner scanner = new Scanner(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            GameOptions game = options;
+            if (saveDir != null) {
+                player = claimPlayer(scanner, console);
+                saveFile = SaveFile.open(saveDir.resolve(player + SaveFile.FILE_EXTENSION));
+                game = options.toBuilder().saveFile(saveFile).build();
+            }
+            new LegendsGame(game).play(scanner);
+        } catch (IOException e) {
+            console.println("Could not open your saved game: " + e.getMessage());
+            System.err.println("Session " + id + " could not open the save of " + player + ": " + e.getMessage());
+        } catch (NoSuchElementException e) {
+            // Input exhausted (or its read failed, see Scanner.ioException): the player disconnected
+        } catch (RuntimeException e) {
+            // Anything else is an engine bug: end this session but leave a trace of it
+            System.err.println("Session " + id + " failed: " + e);
+            e.printStackTrace();
+        } finally {
+            console.flush();
+            console.close();
+            closeRecorder();
+            closeSave(saveFile);
+            if (player != null) players.remove(player); // Only once its save is closed
+            onClose.run();
+        }
+    }
+
+    /**
+     * Asks for a player name until it is valid and not in another session, and claims it.
+     * Names are case-insensitive, since they name files.
+     */
+    private String claimPlayer(Scanner scanner, PrintStream console) {
+        while (true) {
+            String name = InputValidator.getValidString(scanner, console, "Player name: ").toLowerCase(Locale.ROOT);
+            if (!PLAYER_NAME.matcher(name).matches()) {
+                console.println("Use 1 to 32 letters, digits, '-' or '_'.");
+            } else if (!players.add(name)) {
+                console.println(name + " is already playing.");
+            } else {
+                return name;
+            }
+        }
+    }
+
+    private void closeSave(SaveFile saveFile) {
+        if (saveFile == null) return;
+        try {
+            saveFile.close();
+        } catch (IOException e) {
+            System.err.println("Session " + id + " save not closed cleanly: " + e.getMessage());
+        }
+    }
+
+    private void closeRecorder() {
+        ReplayRecorder recorder = options.getRecorder();
+        if (recorder == null) return;
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            System.err.println("Session " + id + " replay log incomplete: " + e.getMessage());
+        }
+    }
+}
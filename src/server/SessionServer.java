@@ -0,0 +1,201 @@
+package server;
+
+import common.RandomGenerator;
+import game.EconomyJournal;
+import game.GameOptions;
+import game.PriceEngine;
+import game.ReplayRecorder;
+import utils.AssetCatalog;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts many concurrent LegendsGame sessions in one JVM, one thread per session.
+ *
+ * <p>On JDK 21+ sessions run on virtual threads, so an idle player (blocked reading input)
+ * costs only its heap objects. On older JDKs it falls back to platform threads with a
+ * small stack.</p>
+ *
+ * <p>Usage: java server.SessionServer [port [replayDir [journalFile [saveDir]]]] ("-" skips an argument)</p>
+ */
+public class SessionServer {
+
+    private static final int DEFAULT_PORT = 4000;
+    private static final long FALLBACK_STACK_SIZE = 256 * 1024;
+
+    private final ExecutorService executor;
+    private final RandomGenerator seeds;
+    private final Path replayDir;
+    private final Path saveDir;
+    private final GameOptions shared;
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final Set<String> players = ConcurrentHashMap.newKeySet(); // Names with a session, whose saves are open
+    private final AtomicLong nextId = new AtomicLong(1);
+    private volatile ServerSocket serverSocket;
+
+    public SessionServer() {
+        this(new RandomGenerator(System.nanoTime()), null, null, GameOptions.builder().build());
+    }
+
+    /**
+     * @param seeds     Root generator; each session receives its own split of it.
+     * @param replayDir Directory where every session is recorded for {@link game.Replayer} (null to record nothing).
+     * @param saveDir   Directory of per-player saves (null to keep none). Each session then asks for a player name
+     *                  and autosaves to that player's file, which a crashed or disconnected player continues from
+     *                  (with the journal's entries since the last autosave redone).
+     * @param shared    What every session shares: the assets, and the journal, prices and markets if set.
+     *                  Each session gets its own output, generator, recorder and save. The caller owns and closes them.
+     * @throws IllegalArgumentException if sessions are recorded but share prices or markets, or keep saves: other
+     *                                  players' trades or a continued game would change a session in ways its log
+     *                                  cannot replay. Also if the options name a save file every session would share.
+     */
+    public SessionServer(RandomGenerator seeds, Path replayDir, Path saveDir, GameOptions shared) {
+        if (replayDir != null && (shared.getPrices() != null || shared.getMarket() != null)) {
+            throw new IllegalArgumentException("Recorded sessions cannot share prices or markets");
+        }
+        if (replayDir != null && saveDir != null) {
+            throw new IllegalArgumentException("Recorded sessions cannot continue saved games");
+        }
+        if (shared.getSaveFile() != null) {
+            throw new IllegalArgumentException("Sessions cannot share a save file; give a save directory instead");
+        }
+        this.executor = createExecutor();
+        this.seeds = seeds;
+        this.replayDir = replayDir;
+        this.saveDir = saveDir;
+        this.shared = shared;
+    }
+
+    /**
+     * Starts a session on the given streams (e.g. a socket or a pipe).
+     * The session closes its output stream when it ends.
+     */
+    public GameSession open(InputStream in, OutputStream out) {
+        long id = nextId.getAndIncrement();
+        RandomGenerator rng;
+        ReplayRecorder recorder = null;
+        if (replayDir == null) {
+            synchronized (seeds) {
+                rng = seeds.split();
+            }
+        } else {
+            // A recorded session needs a seed that can be written down
+            long seed;
+            synchronized (seeds) {
+                seed = seeds.nextLong();
+            }
+            rng = new RandomGenerator(seed);
+            recorder = openRecorder(id, seed);
+        }
+
+        PrintStream console = new PrintStream(new BufferedOutputStream(out), false, StandardCharsets.UTF_8);
+        GameOptions options = shared.toBuilder().out(console).rng(rng).recorder(recorder).build();
+        GameSession session = new GameSession(id, in, options, saveDir, players, () -> sessions.remove(id));
+        sessions.put(id, session);
+        executor.execute(session);
+        return session;
+    }
+
+    /**
+     * Accepts TCP connections and starts one session per connection. Blocks until {@link #shutdown()}.
+     */
+    public void listen(int port) throws IOException {
+        try (ServerSocket socket = new ServerSocket(port)) {
+            this.serverSocket = socket;
+            while (!socket.isClosed()) {
+                Socket client;
+                try {
+                    client = socket.accept();
+                } catch (IOException e) {
+                    if (socket.isClosed()) break; // shutdown() closed the socket
+                    throw e;
+                }
+                open(client.getInputStream(), client.getOutputStream());
+            }
+        }
+    }
+
+    private ReplayRecorder openRecorder(long id, long seed) {
+        try {
+            return ReplayRecorder.open(replayDir.resolve("session-" + id + ReplayRecorder.FILE_EXTENSION), seed);
+        } catch (IOException e) {
+            System.err.println("Session " + id + " will not be recorded: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Stops accepting connections and waits briefly for running sessions.
+     */
+    public void shutdown() throws IOException, InterruptedException {
+        ServerSocket socket = serverSocket;
+        if (socket != null) socket.close();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Uses Executors.newVirtualThreadPerTaskExecutor when the running JDK provides it.
+     * Looked up reflectively so the code still compiles and runs on JDK 17.
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicLong threadCount = new AtomicLong();
+            return Executors.newCachedThreadPool(task -> {
+                Thread t = new Thread(null, task, "session-" + threadCount.incrementAndGet(), FALLBACK_STACK_SIZE);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * @return The path given as the argument, or null if it is missing or "-".
+     */
+    private static Path optionalPath(String[] args, int index) {
+        return (args.length > index && !args[index].equals("-")) ? Paths.get(args[index]) : null;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Path replayDir = optionalPath(args, 1);
+        if (replayDir != null) Files.createDirectories(replayDir);
+        // Opening the journal recovers it: a record torn by a crash is cut off
+        Path journalFile = optionalPath(args, 2);
+        EconomyJournal journal = (journalFile != null) ? EconomyJournal.open(journalFile) : null;
+        Path saveDir = optionalPath(args, 3);
+        if (saveDir != null) Files.createDirectories(saveDir);
+        AssetCatalog assets = AssetCatalog.getShared(); // Parse data/ once, before the first player connects
+        System.out.println("Legends session server listening on port " + port);
+        // No SharedMarket: it is keyed by cell, and every session generates its own board.
+        // Recorded sessions keep their own prices, so that each one replays exactly.
+        GameOptions shared = GameOptions.builder().assets(assets).journal(journal)
+                .prices((replayDir == null) ? PriceEngine.shared(assets) : null).build();
+        new SessionServer(new RandomGenerator(System.nanoTime()), replayDir, saveDir, shared).listen(port);
+    }
+}
@@ -0,0 +1,261 @@
+package utils;
+
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import items.Item;
+import items.ItemIndex;
+import items.Spell.SpellType;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, thread-safe set of every game asset from the data/ directory, read from the
+ * compiled {@link AssetPack} when one is present and up to date, or parsed from the text files.
+ * Loaded once per JVM via {@link #getShared()} and shared by all sessions, so starting a
+ * game costs no disk I/O or parsing.
+ *
+ * <p>The heroes and monsters held here are templates (flyweights) and must never be modified
+ * or handed to a party directly; use {@link #newHero(Hero)} and {@link #newMonster(Monster)}
+ * to get fresh instances. Items have no mutable state and are shared as-is.</p>
+ */
+public final class AssetCatalog {
+
+    /** Optional per-type, per-level-band spawn weights (see {@link SpawnTables}). */
+    public static final String SPAWN_WEIGHTS_FILE = "SpawnWeights.txt";
+
+    private static volatile AssetCatalog shared;
+
+    private final Map<HeroType, List<Hero>> heroTemplates;
+    private final List<Monster> monsterTemplates;
+    private final List<Item> items;
+    private volatile Map<Item, Integer> itemIds; // Built on first lookup: it decodes every item
+    private volatile ItemIndex itemIndex; // Built when the first market opens: it decodes every item
+    private final List<SpawnTables.Weight> spawnWeights;
+    private volatile SpawnTables spawnTables; // Built on first use: it decodes every monster
+
+    private AssetCatalog(Map<HeroType, List<Hero>> heroTemplates, List<Monster> monsterTemplates, List<Item> items,
+                         List<SpawnTables.Weight> spawnWeights) {
+        this.heroTemplates = heroTemplates;
+        this.monsterTemplates = monsterTemplates;
+        this.items = items;
+        this.spawnWeights = spawnWeights;
+    }
+
+    /**
+     * Returns the JVM-wide catalog, loading it from disk on first use.
+     */
+    public static AssetCatalog getShared() {
+        AssetCatalog catalog = shared;
+        if (catalog == null) {
+            synchronized (AssetCatalog.class) {
+                catalog = shared;
+                if (catalog == null) {
+                    catalog = load();
+                    shared = catalog;
+                }
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Loads every asset from data/ into a new catalog. Prefer {@link #getShared()}.
+     */
+    public static AssetCatalog load() {
+        return load(new File(GameDataLoader.DATA_DIR));
+    }
+
+    /**
+     * Uses the compiled {@link AssetPack} in the directory when it is at least as new as every
+     * text file, and parses the text files otherwise.
+     */
+    public static AssetCatalog load(File dataDir) {
+        File pack = new File(dataDir, AssetPack.FILE_NAME);
+        if (isPackCurrent(dataDir, pack)) {
+            try {
+                return loadPack(pack);
+            } catch (IOException e) {
+                System.err.println("Warning: Ignoring unreadable asset pack: " + e.getMessage());
+            }
+        }
+        return loadText(dataDir);
+    }
+
+    /**
+     * Opens a compiled asset pack. Templates are decoded lazily on first access.
+     */
+    public static AssetCatalog loadPack(File packFile) throws IOException {
+        AssetPack pack = AssetPack.open(packFile);
+        Map<HeroType, List<Hero>> heroes = new EnumMap<>(HeroType.class);
+        for (HeroType type : HeroType.values()) {
+            heroes.put(type, pack.heroes(type));
+        }
+        // Spawn weights are a small designer file kept as text, not compiled into the pack
+        return new AssetCatalog(Collections.unmodifiableMap(heroes), pack.monsters(), pack.items(),
+                GameDataLoader.loadSpawnWeights(packFile.getAbsoluteFile().getParentFile(), SPAWN_WEIGHTS_FILE));
+    }
+
+    /**
+     * Parses every text data file in the directory.
+     */
+    public static AssetCatalog loadText(File dataDir) {
+        Map<HeroType, List<Hero>> heroes = new EnumMap<>(HeroType.class);
+        heroes.put(HeroType.WARRIOR, freeze(GameDataLoader.loadHeroes(dataDir, "Warriors.txt", HeroType.WARRIOR)));
+        heroes.put(HeroType.SORCERER, freeze(GameDataLoader.loadHeroes(dataDir, "Sorcerers.txt", HeroType.SORCERER)));
+        heroes.put(HeroType.PALADIN, freeze(GameDataLoader.loadHeroes(dataDir, "Paladins.txt", HeroType.PALADIN)));
+
+        List<Monster> monsters = new ArrayList<>();
+        monsters.addAll(GameDataLoader.loadMonsters(dataDir, "Dragons.txt", MonsterType.DRAGON));
+        monsters.addAll(GameDataLoader.loadMonsters(dataDir, "Exoskeletons.txt", MonsterType.EXOSKELETON));
+        monsters.addAll(GameDataLoader.loadMonsters(dataDir, "Spirits.txt", MonsterType.SPIRIT));
+
+        List<Item> items = new ArrayList<>();
+        items.addAll(GameDataLoader.loadWeapons(dataDir, "Weaponry.txt"));
+        items.addAll(GameDataLoader.loadArmor(dataDir, "Armory.txt"));
+        items.addAll(GameDataLoader.loadPotions(dataDir, "Potions.txt"));
+        items.addAll(GameDataLoader.loadSpells(dataDir, "FireSpells.txt", SpellType.FIRE));
+        items.addAll(GameDataLoader.loadSpells(dataDir, "IceSpells.txt", SpellType.ICE));
+        items.addAll(GameDataLoader.loadSpells(dataDir, "LightningSpells.txt", SpellType.LIGHTNING));
+
+        return new AssetCatalog(Collections.unmodifiableMap(heroes), freeze(monsters), freeze(items),
+                GameDataLoader.loadSpawnWeights(dataDir, SPAWN_WEIGHTS_FILE));
+    }
+
+    private static SpawnTables buildSpawnTables(List<Monster> monsters, List<SpawnTables.Weight> weights) {
+        try {
+            return SpawnTables.build(monsters, weights);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Warning: Ignoring " + SPAWN_WEIGHTS_FILE + ": " + e.getMessage());
+            return SpawnTables.uniform(monsters);
+        }
+    }
+
+    private static boolean isPackCurrent(File dataDir, File pack) {
+        if (!pack.isFile()) return false;
+        File[] sources = dataDir.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (sources == null) return true;
+        for (File source : sources) {
+            if (source.lastModified() > pack.lastModified()) return false;
+        }
+        return true;
+    }
+
+    private static <T> List<T> freeze(List<T> list) {
+        return Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    /**
+     * @return Read-only hero templates of one class. Pass them to {@link #newHero(Hero)}.
+     */
+    public List<Hero> getHeroTemplates(HeroType type) {
+        return heroTemplates.get(type);
+    }
+
+    public boolean hasHeroes() {
+        for (List<Hero> list : heroTemplates.values()) {
+            if (!list.isEmpty()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Read-only monster templates; safe to use directly as a BattleEngine spawn catalog.
+     */
+    public List<Monster> getMonsterTemplates() {
+        return monsterTemplates;
+    }
+
+    /**
+     * @return Spawn tables over {@link #getMonsterTemplates()}, built on first use and shared by every session.
+     */
+    public SpawnTables getSpawnTables() {
+        SpawnTables tables = spawnTables;
+        if (tables == null) {
+            synchronized (this) {
+                tables = spawnTables;
+                if (tables == null) {
+                    tables = buildSpawnTables(monsterTemplates, spawnWeights);
+                    spawnTables = tables;
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * @return Every tradeable item, read-only.
+     */
+    public List<Item> getItems() {
+        return items;
+    }
+
+    /**
+     * @return {@link #getItems()} indexed by type, level and price for markets, built on first use and shared.
+     */
+    public ItemIndex getItemIndex() {
+        ItemIndex index = itemIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = itemIndex;
+                if (index == null) {
+                    index = new ItemIndex(items);
+                    itemIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return The item's stable id (its position in {@link #getItems()}), or -1 if it is not from this catalog.
+     */
+    public int getItemId(Item item) {
+        Map<Item, Integer> ids = itemIds;
+        if (ids == null) {
+            synchronized (this) {
+                ids = itemIds;
+                if (ids == null) {
+                    ids = new IdentityHashMap<>(items.size() * 2);
+                    for (int i = 0; i < items.size(); i++) {
+                        ids.putIfAbsent(items.get(i), i);
+                    }
+                    itemIds = ids;
+                }
+            }
+        }
+        Integer id = ids.get(item);
+        return (id == null) ? -1 : id;
+    }
+
+    /**
+     * @return The item with the given id from {@link #getItemId(Item)}.
+     */
+    public Item getItem(int id) {
+        return items.get(id);
+    }
+
+    /**
+     * Creates a fresh level-1 Hero with the template's starting stats.
+     */
+    public Hero newHero(Hero template) {
+        return new Hero(template.getName(), template.getType(), template.getMana(), template.getStrength(),
+                template.getAgility(), template.getDexterity(), template.getMoney(), template.getExperience());
+    }
+
+    /**
+     * Creates a fresh Monster with the template's stats.
+     */
+    public Monster newMonster(Monster template) {
+        return new Monster(template.getName(), template.getType(), template.getLevel(),
+                template.getBaseDamage(), template.getDefense(), template.getRawDodgeChance());
+    }
+}
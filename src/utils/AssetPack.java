@@ -0,0 +1,469 @@
+package utils;
+
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import items.*;
+import items.Spell.SpellType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Compact binary form of the data/ directory, read through a memory-mapped file.
+ *
+ * <p>Layout (big-endian):</p>
+ * <pre>
+ *   Header      magic:int  version:int  sectionCount:int  stringTableOffset:int
+ *   Directory   sectionCount x { kind:byte  subtype:byte  pad:short  recordCount:int  dataOffset:int }
+ *   Sections    fixed-size records, one layout per kind (see {@link Kind}); names are string table ids
+ *   Strings     count:int  count x offset:int  then count x { length:ushort  utf8 bytes }
+ * </pre>
+ *
+ * <p>Opening a pack reads the header, directory and string index and bounds-checks every offset
+ * in them, but builds no objects. Templates are decoded on first access and then cached, so each
+ * record becomes exactly one object however many threads read it.</p>
+ */
+public final class AssetPack {
+
+    public static final String FILE_NAME = "assets.pack";
+
+    private static final int MAGIC = 0x4C47504B; // "LGPK"
+    private static final int VERSION = 2; // 1 stored dodge chances rescaled from the getter, off by rounding
+    private static final int HEADER_SIZE = 16;
+    private static final int DIRECTORY_ENTRY_SIZE = 12;
+
+    /**
+     * Record type of a section, with its fixed record size in bytes.
+     */
+    enum Kind {
+        HERO(48),     // name:int mana:double str:double agi:double dex:double money:double xp:int
+        MONSTER(32),  // name:int level:int damage:double defense:double dodge:double
+        WEAPON(28),   // name:int cost:double level:int damage:double hands:int
+        ARMOR(24),    // name:int cost:double level:int reduction:double
+        POTION(28),   // name:int cost:double level:int increase:double attributes:int
+        SPELL(32);    // name:int cost:double level:int damage:double mana:double
+
+        final int recordSize;
+
+        Kind(int recordSize) {
+            this.recordSize = recordSize;
+        }
+    }
+
+    private static final class Section {
+        final Kind kind;
+        final int subtype;
+        final int count;
+        final int offset;
+
+        Section(Kind kind, int subtype, int count, int offset) {
+            this.kind = kind;
+            this.subtype = subtype;
+            this.count = count;
+            this.offset = offset;
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final List<Section> sections;
+    private final int stringIndexOffset;
+    private final AtomicReferenceArray<String> strings;
+
+    private AssetPack(ByteBuffer buffer, List<Section> sections, int stringIndexOffset, int stringCount) {
+        this.buffer = buffer;
+        this.sections = sections;
+        this.stringIndexOffset = stringIndexOffset;
+        this.strings = new AtomicReferenceArray<>(stringCount);
+    }
+
+    /**
+     * Maps a pack file into memory and checks its header, directory and string table, so that
+     * decoding a record later can never read outside the file.
+     *
+     * @throws IOException if the file cannot be read, is not a pack of a supported version, or is corrupt.
+     */
+    public static AssetPack open(File file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Asset pack too large: " + file);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an asset pack: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported asset pack version " + buffer.getInt(4) + ": " + file);
+        }
+
+        int sectionCount = buffer.getInt(8);
+        int stringTableOffset = buffer.getInt(12);
+        long directoryEnd = HEADER_SIZE + (long) sectionCount * DIRECTORY_ENTRY_SIZE;
+        if (sectionCount < 0 || stringTableOffset < directoryEnd || (long) stringTableOffset + 4 > buffer.capacity()) {
+            throw corrupt(file, "bad directory or string table offset");
+        }
+        int stringCount = buffer.getInt(stringTableOffset);
+        if (stringCount < 0 || stringTableOffset + 4 + (long) stringCount * 4 > buffer.capacity()) {
+            throw corrupt(file, "bad string count " + stringCount);
+        }
+        checkStrings(file, buffer, stringTableOffset + 4, stringCount);
+
+        List<Section> sections = new ArrayList<>(sectionCount);
+        Kind[] kinds = Kind.values();
+        for (int i = 0; i < sectionCount; i++) {
+            int entry = HEADER_SIZE + i * DIRECTORY_ENTRY_SIZE;
+            int kind = buffer.get(entry);
+            if (kind < 0 || kind >= kinds.length) throw corrupt(file, "unknown section kind " + kind);
+            Section s = new Section(kinds[kind], buffer.get(entry + 1), buffer.getInt(entry + 4), buffer.getInt(entry + 8));
+            if (s.subtype < 0 || s.subtype >= subtypeCount(s.kind)) {
+                throw corrupt(file, "bad subtype " + s.subtype + " for " + s.kind + " section");
+            }
+            if (s.count < 0 || s.offset < directoryEnd
+                    || s.offset + (long) s.count * s.kind.recordSize > stringTableOffset) {
+                throw corrupt(file, s.kind + " section " + i + " lies outside the record area");
+            }
+            checkRecords(file, buffer, s, stringCount, stringTableOffset + 4);
+            sections.add(s);
+        }
+
+        return new AssetPack(buffer, sections, stringTableOffset + 4, stringCount);
+    }
+
+    private static int subtypeCount(Kind kind) {
+        switch (kind) {
+            case HERO: return HeroType.values().length;
+            case MONSTER: return MonsterType.values().length;
+            case SPELL: return SpellType.values().length;
+            default: return 1;
+        }
+    }
+
+    /**
+     * Every string must lie inside the file. Reads only the index and the length prefixes.
+     */
+    private static void checkStrings(File file, ByteBuffer buffer, int indexOffset, int count) throws IOException {
+        long dataStart = indexOffset + (long) count * 4;
+        for (int id = 0; id < count; id++) {
+            int p = buffer.getInt(indexOffset + id * 4);
+            if (p < dataStart || (long) p + 2 > buffer.capacity()
+                    || (long) p + 2 + (buffer.getShort(p) & 0xFFFF) > buffer.capacity()) {
+                throw corrupt(file, "string " + id + " lies outside the file");
+            }
+        }
+    }
+
+    /**
+     * Every string id a record refers to must exist, and the fields its constructor rejects
+     * (empty name, monster level) must be valid. Reads those fields only; records stay undecoded.
+     */
+    private static void checkRecords(File file, ByteBuffer buffer, Section s, int stringCount, int stringIndexOffset)
+            throws IOException {
+        for (int i = 0; i < s.count; i++) {
+            int p = s.offset + i * s.kind.recordSize;
+            int name = buffer.getInt(p);
+            int attributes = (s.kind == Kind.POTION) ? buffer.getInt(p + 24) : name;
+            if (name < 0 || name >= stringCount || attributes < 0 || attributes >= stringCount) {
+                throw corrupt(file, s.kind + " record " + i + " refers to a missing string");
+            }
+            if (buffer.getShort(buffer.getInt(stringIndexOffset + name * 4)) == 0) {
+                throw corrupt(file, s.kind + " record " + i + " has no name");
+            }
+            if (s.kind == Kind.MONSTER && buffer.getInt(p + 4) < 1) {
+                throw corrupt(file, "monster record " + i + " has level " + buffer.getInt(p + 4));
+            }
+        }
+    }
+
+    private static IOException corrupt(File file, String detail) {
+        return new IOException("Corrupt asset pack (" + detail + "): " + file);
+    }
+
+    // TEMPLATE VIEWS
+
+    public List<Hero> heroes(HeroType type) {
+        return new LazyList<>(select(Kind.HERO, type.ordinal()));
+    }
+
+    public List<Monster> monsters() {
+        return new LazyList<>(select(Kind.MONSTER, -1));
+    }
+
+    /**
+     * @return Every item section in pack order (weapons, armor, potions, then spells by type).
+     */
+    public List<Item> items() {
+        List<Section> itemSections = new ArrayList<>();
+        for (Section s : sections) {
+            if (s.kind != Kind.HERO && s.kind != Kind.MONSTER) itemSections.add(s);
+        }
+        return new LazyList<>(itemSections);
+    }
+
+    private List<Section> select(Kind kind, int subtype) {
+        List<Section> selected = new ArrayList<>();
+        for (Section s : sections) {
+            if (s.kind == kind && (subtype < 0 || s.subtype == subtype)) selected.add(s);
+        }
+        return selected;
+    }
+
+    /**
+     * Read-only list over one or more sections. Records are decoded on first access only.
+     */
+    private final class LazyList<T> extends AbstractList<T> implements RandomAccess {
+        private final Section[] parts;
+        private final int[] starts;
+        private final AtomicReferenceArray<T> cache;
+
+        LazyList(List<Section> parts) {
+            this.parts = parts.toArray(new Section[0]);
+            this.starts = new int[this.parts.length + 1];
+            for (int i = 0; i < this.parts.length; i++) {
+                starts[i + 1] = starts[i] + this.parts[i].count;
+            }
+            this.cache = new AtomicReferenceArray<>(starts[this.parts.length]);
+        }
+
+        @Override
+        public T get(int index) {
+            T value = cache.get(index);
+            if (value != null) return value;
+
+            int part = 0;
+            while (index >= starts[part + 1]) part++;
+
+            @SuppressWarnings("unchecked")
+            T decoded = (T) decode(parts[part], index - starts[part]);
+            // Keep the first instance if another thread won the race, so identity stays stable
+            return cache.compareAndSet(index, null, decoded) ? decoded : cache.get(index);
+        }
+
+        @Override
+        public int size() {
+            return cache.length();
+        }
+    }
+
+    // DECODING (absolute reads only, so the shared buffer is safe across threads)
+
+    private Object decode(Section s, int index) {
+        int p = s.offset + index * s.kind.recordSize;
+        String name = string(buffer.getInt(p));
+
+        switch (s.kind) {
+            case HERO:
+                return new Hero(name, HeroType.values()[s.subtype],
+                        buffer.getDouble(p + 4), buffer.getDouble(p + 12), buffer.getDouble(p + 20),
+                        buffer.getDouble(p + 28), buffer.getDouble(p + 36), buffer.getInt(p + 44));
+            case MONSTER:
+                return new Monster(name, MonsterType.values()[s.subtype], buffer.getInt(p + 4),
+                        buffer.getDouble(p + 8), buffer.getDouble(p + 16), buffer.getDouble(p + 24));
+            case WEAPON:
+                return new Weapon(name, buffer.getDouble(p + 4), buffer.getInt(p + 12),
+                        buffer.getDouble(p + 16), buffer.getInt(p + 24));
+            case ARMOR:
+                return new Armor(name, buffer.getDouble(p + 4), buffer.getInt(p + 12), buffer.getDouble(p + 16));
+            case POTION:
+                return new Potion(name, buffer.getDouble(p + 4), buffer.getInt(p + 12),
+                        buffer.getDouble(p + 16), string(buffer.getInt(p + 24)));
+            case SPELL:
+                return new Spell(name, buffer.getDouble(p + 4), buffer.getInt(p + 12),
+                        buffer.getDouble(p + 16), buffer.getDouble(p + 24), SpellType.values()[s.subtype]);
+            default:
+                throw new IllegalStateException("Unknown section kind: " + s.kind);
+        }
+    }
+
+    private String string(int id) {
+        String value = strings.get(id);
+        if (value == null) {
+            int p = buffer.getInt(stringIndexOffset + id * 4);
+            int length = buffer.getShort(p) & 0xFFFF;
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) bytes[i] = buffer.get(p + 2 + i);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings.compareAndSet(id, null, value);
+        }
+        return value;
+    }
+
+    // WRITING
+
+    /**
+     * Writes a catalog as a pack file. Used by {@link AssetPackCompiler}.
+     */
+    static void write(File file, AssetCatalog catalog) throws IOException {
+        Map<String, Integer> stringIds = new LinkedHashMap<>();
+        List<Section> layout = new ArrayList<>();
+        List<List<?>> contents = new ArrayList<>();
+
+        for (HeroType type : HeroType.values()) {
+            addSection(layout, contents, Kind.HERO, type.ordinal(), catalog.getHeroTemplates(type));
+        }
+        groupIntoSections(layout, contents, catalog.getMonsterTemplates());
+        groupIntoSections(layout, contents, catalog.getItems());
+
+        // Assign offsets now that every section's size is known
+        int offset = HEADER_SIZE + layout.size() * DIRECTORY_ENTRY_SIZE;
+        for (int i = 0; i < layout.size(); i++) {
+            Section s = layout.get(i);
+            layout.set(i, new Section(s.kind, s.subtype, s.count, offset));
+            offset += s.count * s.kind.recordSize;
+        }
+        int stringTableOffset = offset;
+
+        ByteBuffer records = ByteBuffer.allocate(stringTableOffset);
+        records.putInt(MAGIC).putInt(VERSION).putInt(layout.size()).putInt(stringTableOffset);
+        for (Section s : layout) {
+            records.put((byte) s.kind.ordinal()).put((byte) s.subtype).putShort((short) 0)
+                    .putInt(s.count).putInt(s.offset);
+        }
+        for (int i = 0; i < layout.size(); i++) {
+            for (Object record : contents.get(i)) {
+                encode(records, layout.get(i).kind, record, stringIds);
+            }
+        }
+
+        ByteBuffer stringTable = encodeStrings(stringIds, stringTableOffset);
+
+        records.flip();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            raf.setLength(0);
+            while (records.hasRemaining()) channel.write(records);
+            while (stringTable.hasRemaining()) channel.write(stringTable);
+        }
+    }
+
+    private static void addSection(List<Section> layout, List<List<?>> contents, Kind kind, int subtype, List<?> records) {
+        if (records.isEmpty()) return;
+        layout.add(new Section(kind, subtype, records.size(), 0));
+        contents.add(records);
+    }
+
+    /**
+     * Splits a mixed list into consecutive runs of the same kind and subtype, preserving order.
+     */
+    private static void groupIntoSections(List<Section> layout, List<List<?>> contents, List<?> records) {
+        int runStart = 0;
+        for (int i = 1; i <= records.size(); i++) {
+            if (i == records.size() || !sameSection(records.get(runStart), records.get(i))) {
+                Object first = records.get(runStart);
+                addSection(layout, contents, kindOf(first), subtypeOf(first), records.subList(runStart, i));
+                runStart = i;
+            }
+        }
+    }
+
+    private static boolean sameSection(Object a, Object b) {
+        return kindOf(a) == kindOf(b) && subtypeOf(a) == subtypeOf(b);
+    }
+
+    private static Kind kindOf(Object record) {
+        if (record instanceof Monster) return Kind.MONSTER;
+        switch (((Item) record).getItemType()) {
+            case WEAPON: return Kind.WEAPON;
+            case ARMOR: return Kind.ARMOR;
+            case POTION: return Kind.POTION;
+            default: return Kind.SPELL;
+        }
+    }
+
+    private static int subtypeOf(Object record) {
+        if (record instanceof Monster) return ((Monster) record).getType().ordinal();
+        if (record instanceof Spell) return ((Spell) record).getType().ordinal();
+        return 0;
+    }
+
+    private static void encode(ByteBuffer out, Kind kind, Object record, Map<String, Integer> stringIds) {
+        switch (kind) {
+            case HERO: {
+                Hero h = (Hero) record;
+                out.putInt(intern(stringIds, h.getName())).putDouble(h.getMana()).putDouble(h.getStrength())
+                        .putDouble(h.getAgility()).putDouble(h.getDexterity()).putDouble(h.getMoney())
+                        .putInt(h.getExperience());
+                break;
+            }
+            case MONSTER: {
+                Monster m = (Monster) record;
+                out.putInt(intern(stringIds, m.getName())).putInt(m.getLevel()).putDouble(m.getBaseDamage())
+                        .putDouble(m.getDefense()).putDouble(m.getRawDodgeChance());
+                break;
+            }
+            case WEAPON: {
+                Weapon w = (Weapon) record;
+                out.putInt(intern(stringIds, w.getName())).putDouble(w.getPrice()).putInt(w.getMinLevel())
+                        .putDouble(w.getDamage()).putInt(w.getRequiredHands());
+                break;
+            }
+            case ARMOR: {
+                Armor a = (Armor) record;
+                out.putInt(intern(stringIds, a.getName())).putDouble(a.getPrice()).putInt(a.getMinLevel())
+                        .putDouble(a.getDamageReduction());
+                break;
+            }
+            case POTION: {
+                Potion p = (Potion) record;
+                out.putInt(intern(stringIds, p.getName())).putDouble(p.getPrice()).putInt(p.getMinLevel())
+                        .putDouble(p.getAttributeIncrease())
+                        .putInt(intern(stringIds, String.join("/", p.getAttributesAffected())));
+                break;
+            }
+            case SPELL: {
+                Spell s = (Spell) record;
+                out.putInt(intern(stringIds, s.getName())).putDouble(s.getPrice()).putInt(s.getMinLevel())
+                        .putDouble(s.getDamage()).putDouble(s.getManaCost());
+                break;
+            }
+        }
+    }
+
+    private static int intern(Map<String, Integer> stringIds, String value) {
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            id = stringIds.size();
+            stringIds.put(value, id);
+        }
+        return id;
+    }
+
+    private static ByteBuffer encodeStrings(Map<String, Integer> stringIds, int tableOffset) {
+        List<byte[]> encoded = new ArrayList<>(stringIds.size());
+        int size = 4 + stringIds.size() * 4;
+        for (String value : stringIds.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IllegalArgumentException("String too long for asset pack: " + value.substring(0, 32) + "...");
+            }
+            encoded.add(bytes);
+            size += 2 + bytes.length;
+        }
+
+        ByteBuffer table = ByteBuffer.allocate(size);
+        table.putInt(encoded.size());
+        int dataOffset = tableOffset + 4 + encoded.size() * 4;
+        for (byte[] bytes : encoded) {
+            table.putInt(dataOffset);
+            dataOffset += 2 + bytes.length;
+        }
+        for (byte[] bytes : encoded) {
+            table.putShort((short) bytes.length).put(bytes);
+        }
+        table.flip();
+        return table;
+    }
+}
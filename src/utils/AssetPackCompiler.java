@@ -0,0 +1,28 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Build step that parses the text files in data/ and writes them as data/assets.pack.
+ * Usage: java utils.AssetPackCompiler [dataDir]
+ */
+public class AssetPackCompiler {
+
+    public static void main(String[] args) throws IOException {
+        File dataDir = new File(args.length > 0 ? args[0] : GameDataLoader.DATA_DIR);
+        File pack = compile(dataDir);
+        System.out.println("Wrote " + pack + " (" + pack.length() + " bytes)");
+    }
+
+    /**
+     * Parses the text files in a directory and writes the pack next to them.
+     *
+     * @return The pack file.
+     */
+    public static File compile(File dataDir) throws IOException {
+        File pack = new File(dataDir, AssetPack.FILE_NAME);
+        AssetPack.write(pack, AssetCatalog.loadText(dataDir));
+        return pack;
+    }
+}
@@ -6,13 +6,13 @@ import entities.Monster;
 import entities.Monster.MonsterType;
 import items.*;
 import items.Spell.SpellType;
+import utils.RecordSchema.Column;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utility class responsible for parsing game data from external text files.
@@ -21,216 +21,161 @@ import java.util.List;
  */
 public class GameDataLoader {
 
-    private static final String DATA_DIR = "data";
+    public static final String DATA_DIR = "data";
 
-    // ENTITY LOADERS
-    public static List<Hero> loadHeroes(String fileName, HeroType type) {
-        List<Hero> heroes = new ArrayList<>();
-        File file = new File(DATA_DIR + File.separator + fileName);
+    private static final AtomicLong malformedRows = new AtomicLong();
 
-        if (!file.exists()) {
-            System.err.println("Warning: Config file not found: " + fileName);
-            return heroes;
-        }
+    // SCHEMAS
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (shouldSkip(line)) continue;
-                try {
-                    String[] parts = line.trim().split("\\s+");
-                    // Format: Name/mana/strength/agility/dexterity/starting money/starting experience
-                    if (parts.length < 7) continue;
-
-                    heroes.add(new Hero(
-                            parts[0], type,
-                            Double.parseDouble(parts[1]), // Mana
-                            Double.parseDouble(parts[2]), // Str
-                            Double.parseDouble(parts[3]), // Agi
-                            Double.parseDouble(parts[4]), // Dex
-                            Double.parseDouble(parts[5]), // Money
-                            Integer.parseInt(parts[6])    // XP
-                    ));
-                } catch (Exception e) {
-                    logError(fileName, line);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return heroes;
+    // Format: Name/mana/strength/agility/dexterity/starting money/starting experience
+    private static RecordSchema<Hero> heroSchema(HeroType type) {
+        return RecordSchema.of(row -> new Hero(row.text(0), type,
+                        row.doubleValue(1), row.doubleValue(2), row.doubleValue(3),
+                        row.doubleValue(4), row.doubleValue(5), row.intValue(6)),
+                Column.TEXT, Column.DOUBLE, Column.DOUBLE, Column.DOUBLE, Column.DOUBLE, Column.DOUBLE, Column.INT);
     }
 
-    public static List<Monster> loadMonsters(String fileName, MonsterType type) {
-        List<Monster> monsters = new ArrayList<>();
-        File file = new File(DATA_DIR + File.separator + fileName);
+    // Format: Name/level/damage/defense/dodge chance
+    private static RecordSchema<Monster> monsterSchema(MonsterType type) {
+        return RecordSchema.of(row -> new Monster(row.text(0), type,
+                        row.intValue(1), row.doubleValue(2), row.doubleValue(3), row.doubleValue(4)),
+                Column.TEXT, Column.INT, Column.DOUBLE, Column.DOUBLE, Column.DOUBLE);
+    }
 
-        if (!file.exists()) {
-            System.err.println("Warning: Config file not found: " + fileName);
-            return monsters;
-        }
+    // Format: Name/cost/level/damage/required hands
+    private static final RecordSchema<Weapon> WEAPON_SCHEMA = RecordSchema.of(row -> new Weapon(row.text(0),
+                    row.doubleValue(1), row.intValue(2), row.doubleValue(3), row.intValue(4)),
+            Column.TEXT, Column.DOUBLE, Column.INT, Column.DOUBLE, Column.INT);
+
+    // Format: Name/cost/required level/damage reduction
+    private static final RecordSchema<Armor> ARMOR_SCHEMA = RecordSchema.of(row -> new Armor(row.text(0),
+                    row.doubleValue(1), row.intValue(2), row.doubleValue(3)),
+            Column.TEXT, Column.DOUBLE, Column.INT, Column.DOUBLE);
+
+    // Format: Name/cost/required level/attribute increase/attribute affected
+    private static final RecordSchema<Potion> POTION_SCHEMA = RecordSchema.of(row -> new Potion(row.text(0),
+                    row.doubleValue(1), row.intValue(2), row.doubleValue(3), row.text(4)),
+            Column.TEXT, Column.DOUBLE, Column.INT, Column.DOUBLE, Column.TEXT);
+
+    // Format: Name/cost/required level/damage/mana cost
+    private static RecordSchema<Spell> spellSchema(SpellType type) {
+        return RecordSchema.of(row -> new Spell(row.text(0),
+                        row.doubleValue(1), row.intValue(2), row.doubleValue(3), row.doubleValue(4), type),
+                Column.TEXT, Column.DOUBLE, Column.INT, Column.DOUBLE, Column.DOUBLE);
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (shouldSkip(line)) continue;
-                try {
-                    String[] parts = line.trim().split("\\s+");
-                    // Format: Name/level/damage/defense/dodge chance
-                    if (parts.length < 5) continue;
-
-                    monsters.add(new Monster(
-                            parts[0], type,
-                            Integer.parseInt(parts[1]),   // Level
-                            Double.parseDouble(parts[2]), // Damage
-                            Double.parseDouble(parts[3]), // Defense
-                            Double.parseDouble(parts[4])  // Dodge
-                    ));
-                } catch (Exception e) {
-                    logError(fileName, line);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+    // Format: monster type/min level/max level/weight (optional file; no header)
+    private static final RecordSchema<SpawnTables.Weight> SPAWN_WEIGHT_SCHEMA = RecordSchema.of(row -> {
+                MonsterType type = parseMonsterType(row.text(0));
+                int minLevel = row.intValue(1);
+                int maxLevel = row.intValue(2);
+                double weight = row.doubleValue(3);
+                if (type == null || minLevel > maxLevel || !(weight >= 0)) return null;
+                return new SpawnTables.Weight(type, minLevel, maxLevel, weight);
+            },
+            Column.TEXT, Column.INT, Column.INT, Column.DOUBLE);
+
+    private static MonsterType parseMonsterType(String name) {
+        for (MonsterType type : MonsterType.values()) {
+            if (type.name().equalsIgnoreCase(name)) return type;
         }
-        return monsters;
+        return null;
+    }
+
+    // ENTITY LOADERS
+    public static List<Hero> loadHeroes(String fileName, HeroType type) {
+        return loadHeroes(new File(DATA_DIR), fileName, type);
+    }
+
+    public static List<Hero> loadHeroes(File dataDir, String fileName, HeroType type) {
+        return load(dataDir, fileName, heroSchema(type), true);
+    }
+
+    public static List<Monster> loadMonsters(String fileName, MonsterType type) {
+        return loadMonsters(new File(DATA_DIR), fileName, type);
+    }
+
+    public static List<Monster> loadMonsters(File dataDir, String fileName, MonsterType type) {
+        return load(dataDir, fileName, monsterSchema(type), true);
     }
 
     // ITEM LOADERS
     public static List<Weapon> loadWeapons(String fileName) {
-        List<Weapon> weapons = new ArrayList<>();
-        File file = new File(DATA_DIR + File.separator + fileName);
-
-        if (!file.exists()) return weapons;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (shouldSkip(line)) continue;
-                try {
-                    String[] parts = line.trim().split("\\s+");
-                    // Format: Name/cost/level/damage/required hands
-                    if (parts.length < 5) continue;
-
-                    weapons.add(new Weapon(
-                            parts[0],                     // Name
-                            Double.parseDouble(parts[1]), // Cost
-                            Integer.parseInt(parts[2]),   // Min Level
-                            Double.parseDouble(parts[3]), // Damage
-                            Integer.parseInt(parts[4])    // Hands
-                    ));
-                } catch (Exception e) {
-                    logError(fileName, line);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return weapons;
+        return loadWeapons(new File(DATA_DIR), fileName);
+    }
+
+    public static List<Weapon> loadWeapons(File dataDir, String fileName) {
+        return load(dataDir, fileName, WEAPON_SCHEMA, false);
     }
 
     public static List<Armor> loadArmor(String fileName) {
-        List<Armor> armorList = new ArrayList<>();
-        File file = new File(DATA_DIR + File.separator + fileName);
-
-        if (!file.exists()) return armorList;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (shouldSkip(line)) continue;
-                try {
-                    String[] parts = line.trim().split("\\s+");
-                    // Format: Name/cost/required level/damage reduction
-                    if (parts.length < 4) continue;
-
-                    armorList.add(new Armor(
-                            parts[0],                     // Name
-                            Double.parseDouble(parts[1]), // Cost
-                            Integer.parseInt(parts[2]),   // Min Level
-                            Double.parseDouble(parts[3])  // Damage Reduction
-                    ));
-                } catch (Exception e) {
-                    logError(fileName, line);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return armorList;
+        return loadArmor(new File(DATA_DIR), fileName);
+    }
+
+    public static List<Armor> loadArmor(File dataDir, String fileName) {
+        return load(dataDir, fileName, ARMOR_SCHEMA, false);
     }
 
     public static List<Potion> loadPotions(String fileName) {
-        List<Potion> potions = new ArrayList<>();
-        File file = new File(DATA_DIR + File.separator + fileName);
-
-        if (!file.exists()) return potions;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (shouldSkip(line)) continue;
-                try {
-                    String[] parts = line.trim().split("\\s+");
-                    // Format: Name/cost/required level/attribute increase/attribute affected
-                    if (parts.length < 5) continue;
-
-                    potions.add(new Potion(
-                            parts[0],                     // Name
-                            Double.parseDouble(parts[1]), // Cost
-                            Integer.parseInt(parts[2]),   // Min Level
-                            Double.parseDouble(parts[3]), // Increase Amount
-                            parts[4]                      // Attribute String
-                    ));
-                } catch (Exception e) {
-                    logError(fileName, line);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return potions;
+        return loadPotions(new File(DATA_DIR), fileName);
+    }
+
+    public static List<Potion> loadPotions(File dataDir, String fileName) {
+        return load(dataDir, fileName, POTION_SCHEMA, false);
     }
 
     public static List<Spell> loadSpells(String fileName, SpellType type) {
-        List<Spell> spells = new ArrayList<>();
-        File file = new File(DATA_DIR + File.separator + fileName);
-
-        if (!file.exists()) return spells;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (shouldSkip(line)) continue;
-                try {
-                    String[] parts = line.trim().split("\\s+");
-                    // Format: Name/cost/required level/damage/mana cost
-                    if (parts.length < 5) continue;
-
-                    spells.add(new Spell(
-                            parts[0],                     // Name
-                            Double.parseDouble(parts[1]), // Cost
-                            Integer.parseInt(parts[2]),   // Min Level
-                            Double.parseDouble(parts[3]), // Damage
-                            Double.parseDouble(parts[4]), // Mana Cost
-                            type
-                    ));
-                } catch (Exception e) {
-                    logError(fileName, line);
+        return loadSpells(new File(DATA_DIR), fileName, type);
+    }
+
+    public static List<Spell> loadSpells(File dataDir, String fileName, SpellType type) {
+        return load(dataDir, fileName, spellSchema(type), false);
+    }
+
+    /**
+     * Reads spawn weights (see {@link SpawnTables}). A missing file means no weights: uniform spawns.
+     */
+    public static List<SpawnTables.Weight> loadSpawnWeights(File dataDir, String fileName) {
+        return load(dataDir, fileName, SPAWN_WEIGHT_SCHEMA, false);
+    }
+
+    /**
+     * @return Rows skipped as malformed (missing columns or bad numbers) since the JVM started.
+     */
+    public static long getMalformedRowCount() {
+        return malformedRows.get();
+    }
+
+    private static <T> List<T> load(File dataDir, String fileName, RecordSchema<T> schema, boolean warnIfMissing) {
+        List<T> records = new ArrayList<>();
+        File file = new File(dataDir, fileName);
+
+        if (!file.exists()) {
+            if (warnIfMissing) System.err.println("Warning: Config file not found: " + fileName);
+            return records;
+        }
+
+        try (RecordTokenizer row = new RecordTokenizer(file)) {
+            while (row.nextLine()) {
+                // Skip empty lines or header lines that start with "Name/"
+                if (row.isBlankOrHeader()) continue;
+
+                T record = row.matches(schema) ? schema.mapper.map(row) : null;
+                if (record != null) {
+                    records.add(record);
+                } else {
+                    malformedRows.incrementAndGet();
+                    // Short rows are skipped quietly; rows with unparseable or invalid values are reported
+                    if (row.getFieldCount() >= schema.columns.length) logError(fileName, row.lineText());
                 }
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return spells;
-    }
-
-    private static boolean shouldSkip(String line) {
-        // Skip empty lines or header lines that start with "Name/"
-        return line.trim().isEmpty() || line.trim().startsWith("Name/");
+        return records;
     }
 
     private static void logError(String fileName, String line) {
         System.err.println("Skipping malformed line in " + fileName + ": " + line);
     }
-}
\ No newline at end of file
+}
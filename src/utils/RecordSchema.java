@@ -0,0 +1,31 @@
+package utils;
+
+/**
+ * Column layout of one kind of data file, and how a parsed row becomes an object.
+ * Columns are whitespace separated; extra trailing columns are ignored.
+ */
+final class RecordSchema<T> {
+
+    enum Column { TEXT, INT, DOUBLE }
+
+    @FunctionalInterface
+    interface Mapper<T> {
+        /**
+         * Builds an object from a row whose columns have all been validated against the schema.
+         * Returns null to reject a row whose values are out of range.
+         */
+        T map(RecordTokenizer row);
+    }
+
+    final Column[] columns;
+    final Mapper<T> mapper;
+
+    private RecordSchema(Mapper<T> mapper, Column[] columns) {
+        this.mapper = mapper;
+        this.columns = columns;
+    }
+
+    static <T> RecordSchema<T> of(Mapper<T> mapper, Column... columns) {
+        return new RecordSchema<>(mapper, columns);
+    }
+}
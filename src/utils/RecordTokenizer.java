@@ -0,0 +1,260 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming, line-by-line tokenizer for the whitespace separated data files.
+ *
+ * <p>The file is read through one reused byte buffer. Fields are tracked as offsets into that
+ * buffer and numbers are parsed in place, so the only objects created per row are the text
+ * columns the caller asks for. Invalid rows are reported by return value, never by exception.</p>
+ */
+final class RecordTokenizer implements Closeable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final FileChannel channel;
+    private ByteBuffer buffer;
+    private byte[] bytes;
+    private int position;   // Start of the unread data in bytes
+    private int limit;      // End of the valid data in bytes
+    private boolean eof;
+
+    private int lineStart;
+    private int lineEnd;
+    private int[] fieldStart = new int[8];
+    private int[] fieldEnd = new int[8];
+    private int fieldCount;
+
+    private int[] intValues = new int[8];
+    private double[] doubleValues = new double[8];
+
+    RecordTokenizer(File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.bytes = new byte[BUFFER_SIZE];
+        this.buffer = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Advances to the next line and splits it into fields.
+     *
+     * @return false at end of file.
+     */
+    boolean nextLine() throws IOException {
+        int scan = position;
+        while (true) {
+            while (scan < limit && bytes[scan] != '\n' && bytes[scan] != '\r') scan++;
+            if (scan < limit || eof) break;
+            scan -= compactAndFill();
+        }
+        if (scan == position && eof && scan >= limit) return false;
+
+        lineStart = position;
+        lineEnd = scan;
+        position = (scan < limit) ? scan + 1 : scan;
+        split();
+        return true;
+    }
+
+    /**
+     * Moves unread data to the front of the buffer (growing it if one line fills it) and reads more.
+     *
+     * @return How far the unread data moved back.
+     */
+    private int compactAndFill() throws IOException {
+        int shift = position;
+        int remaining = limit - position;
+        if (remaining == bytes.length) {
+            byte[] grown = new byte[bytes.length * 2];
+            System.arraycopy(bytes, position, grown, 0, remaining);
+            bytes = grown;
+            buffer = ByteBuffer.wrap(bytes);
+        } else {
+            System.arraycopy(bytes, position, bytes, 0, remaining);
+        }
+        position = 0;
+        limit = remaining;
+
+        buffer.limit(bytes.length).position(limit);
+        int read = channel.read(buffer);
+        if (read < 0) eof = true;
+        else limit += read;
+        return shift;
+    }
+
+    private void split() {
+        fieldCount = 0;
+        int i = lineStart;
+        while (i < lineEnd) {
+            while (i < lineEnd && isWhitespace(bytes[i])) i++;
+            if (i == lineEnd) break;
+            int start = i;
+            while (i < lineEnd && !isWhitespace(bytes[i])) i++;
+
+            if (fieldCount == fieldStart.length) {
+                fieldStart = Arrays.copyOf(fieldStart, fieldCount * 2);
+                fieldEnd = Arrays.copyOf(fieldEnd, fieldCount * 2);
+            }
+            fieldStart[fieldCount] = start;
+            fieldEnd[fieldCount] = i;
+            fieldCount++;
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == 0x0B || b == '\f';
+    }
+
+    /**
+     * @return true for empty lines and the "Name/..." header line.
+     */
+    boolean isBlankOrHeader() {
+        if (fieldCount == 0) return true;
+        int start = fieldStart[0];
+        return fieldEnd[0] - start >= 5 && bytes[start] == 'N' && bytes[start + 1] == 'a'
+                && bytes[start + 2] == 'm' && bytes[start + 3] == 'e' && bytes[start + 4] == '/';
+    }
+
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Parses the numeric columns of the current line for the schema.
+     *
+     * @return false if a column is missing or not a valid number.
+     */
+    boolean matches(RecordSchema<?> schema) {
+        RecordSchema.Column[] columns = schema.columns;
+        if (fieldCount < columns.length) return false;
+        if (intValues.length < columns.length) {
+            intValues = new int[columns.length];
+            doubleValues = new double[columns.length];
+        }
+
+        for (int c = 0; c < columns.length; c++) {
+            switch (columns[c]) {
+                case INT:
+                    if (!parseInt(c)) return false;
+                    break;
+                case DOUBLE:
+                    if (!parseDouble(c)) return false;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return true;
+    }
+
+    // COLUMN ACCESS (valid after matches() returned true)
+
+    String text(int column) {
+        return new String(bytes, fieldStart[column], fieldEnd[column] - fieldStart[column], StandardCharsets.UTF_8);
+    }
+
+    int intValue(int column) {
+        return intValues[column];
+    }
+
+    double doubleValue(int column) {
+        return doubleValues[column];
+    }
+
+    /**
+     * @return The current line as a String, for error messages.
+     */
+    String lineText() {
+        return new String(bytes, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
+
+    // IN-PLACE NUMBER PARSING
+
+    private boolean parseInt(int column) {
+        int i = fieldStart[column];
+        int end = fieldEnd[column];
+        boolean negative = bytes[i] == '-';
+        if (negative || bytes[i] == '+') i++;
+        if (i == end) return false;
+
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) return false;
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) return false;
+        }
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) return false;
+
+        intValues[column] = (int) value;
+        return true;
+    }
+
+    /**
+     * Plain decimals ("250", "-0.35") are parsed in place. When both the digits and the power of
+     * ten are exactly representable, one division gives the correctly rounded result, the same as
+     * Double.parseDouble. Anything else (exponents, very long mantissas) falls back to it.
+     */
+    private boolean parseDouble(int column) {
+        int start = fieldStart[column];
+        int end = fieldEnd[column];
+        int i = start;
+        boolean negative = bytes[i] == '-';
+        if (negative || bytes[i] == '+') i++;
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDot = false;
+        boolean exact = true;
+        for (; i < end; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                digits++;
+                if (mantissa < MAX_EXACT_MANTISSA) mantissa = mantissa * 10 + (b - '0');
+                else exact = false;
+                if (seenDot) scale++;
+            } else if (b == '.' && !seenDot) {
+                seenDot = true;
+            } else if (b == 'e' || b == 'E') {
+                return parseDoubleSlow(column);
+            } else {
+                return false;
+            }
+        }
+        if (digits == 0) return false;
+        if (!exact || mantissa > MAX_EXACT_MANTISSA || scale >= POWERS_OF_TEN.length) return parseDoubleSlow(column);
+
+        double value = mantissa / POWERS_OF_TEN[scale];
+        doubleValues[column] = negative ? -value : value;
+        return true;
+    }
+
+    private boolean parseDoubleSlow(int column) {
+        String field = new String(bytes, fieldStart[column], fieldEnd[column] - fieldStart[column], StandardCharsets.ISO_8859_1);
+        try {
+            doubleValues[column] = Double.parseDouble(field);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,189 @@
+package utils;
+
+import common.RandomGenerator;
+import entities.Monster;
+import entities.Monster.MonsterType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Which monster template to spawn at each level, drawn in O(1) however large the catalog is.
+ *
+ * <p>Designers weight each {@link MonsterType} per band of spawn levels (see {@link Weight}); every
+ * template of a type gets its type's weight, and a type with no weight in a band keeps weight 1.
+ * One alias table (Walker's method) is built per band when the catalog loads, and the tables are
+ * immutable, so all sessions share them. Levels no band covers, and catalogs with no weights at
+ * all, draw uniformly with a single {@code nextInt}, exactly as spawning always has.</p>
+ */
+public final class SpawnTables {
+
+    /**
+     * Weight of one monster type over a band of spawn levels (one row of SpawnWeights.txt).
+     * Where bands of the same type overlap, the later row wins.
+     */
+    public static final class Weight {
+        private final MonsterType type;
+        private final int minLevel;
+        private final int maxLevel;
+        private final double weight;
+
+        public Weight(MonsterType type, int minLevel, int maxLevel, double weight) {
+            if (minLevel > maxLevel) throw new IllegalArgumentException("Empty level band: " + minLevel + "-" + maxLevel);
+            if (!(weight >= 0) || Double.isInfinite(weight)) throw new IllegalArgumentException("Invalid spawn weight: " + weight);
+            this.type = type;
+            this.minLevel = minLevel;
+            this.maxLevel = maxLevel;
+            this.weight = weight;
+        }
+
+        public MonsterType getType() { return type; }
+        public int getMinLevel() { return minLevel; }
+        public int getMaxLevel() { return maxLevel; }
+        public double getWeight() { return weight; }
+
+        boolean covers(int level) {
+            return level >= minLevel && level <= maxLevel;
+        }
+    }
+
+    /**
+     * Draws template indexes for one band. Immutable and thread-safe.
+     */
+    public static final class Table {
+        private final int size;
+        private final double[] probability; // null when uniform
+        private final int[] alias;
+
+        private Table(int size, double[] probability, int[] alias) {
+            this.size = size;
+            this.probability = probability;
+            this.alias = alias;
+        }
+
+        /**
+         * @return Index of a template in the catalog. Uses one nextInt, plus one nextDouble when
+         *         the chosen column is shared with another template.
+         */
+        public int pick(RandomGenerator rng) {
+            int column = rng.nextInt(size);
+            if (probability == null || probability[column] >= 1.0) return column;
+            return (rng.nextDouble() < probability[column]) ? column : alias[column];
+        }
+
+        public boolean isUniform() {
+            return probability == null;
+        }
+    }
+
+    private final List<Monster> templates;
+    private final Table uniform;
+    private final int[] bandStart;   // ascending; band k covers [bandStart[k], bandStart[k + 1])
+    private final Table[] bandTables;
+
+    private SpawnTables(List<Monster> templates, int[] bandStart, Table[] bandTables) {
+        this.templates = templates;
+        this.uniform = new Table(templates.size(), null, null);
+        this.bandStart = bandStart;
+        this.bandTables = bandTables;
+    }
+
+    /**
+     * @return Tables that draw every template with equal probability at every level.
+     */
+    public static SpawnTables uniform(List<Monster> templates) {
+        return new SpawnTables(templates, new int[0], new Table[0]);
+    }
+
+    /**
+     * Builds one alias table per band of levels where the weights differ.
+     *
+     * @throws IllegalArgumentException if a band gives every template weight 0.
+     */
+    public static SpawnTables build(List<Monster> templates, List<Weight> weights) {
+        if (weights.isEmpty() || templates.isEmpty()) return uniform(templates);
+
+        // Band edges: each level where some row starts or stops applying
+        TreeSet<Integer> edges = new TreeSet<>();
+        for (Weight w : weights) {
+            edges.add(w.minLevel);
+            if (w.maxLevel < Integer.MAX_VALUE) edges.add(w.maxLevel + 1);
+        }
+        int[] bandStart = edges.stream().mapToInt(Integer::intValue).toArray();
+        Table[] bandTables = new Table[bandStart.length];
+
+        double[] typeWeight = new double[MonsterType.values().length];
+        double[] templateWeight = new double[templates.size()];
+        for (int band = 0; band < bandStart.length; band++) {
+            int level = bandStart[band];
+            Arrays.fill(typeWeight, 1.0);
+            for (Weight w : weights) {
+                if (w.covers(level)) typeWeight[w.type.ordinal()] = w.weight;
+            }
+            for (int i = 0; i < templates.size(); i++) {
+                templateWeight[i] = typeWeight[templates.get(i).getType().ordinal()];
+            }
+            bandTables[band] = aliasTable(templateWeight, level);
+        }
+        return new SpawnTables(templates, bandStart, bandTables);
+    }
+
+    /**
+     * Vose's construction of Walker's alias table: every column holds its own template with some
+     * probability and one alias template for the rest.
+     */
+    private static Table aliasTable(double[] weights, int level) {
+        int n = weights.length;
+        double total = 0;
+        boolean equal = true;
+        for (double w : weights) {
+            total += w;
+            equal &= (w == weights[0]);
+        }
+        if (total <= 0) throw new IllegalArgumentException("Every spawn weight is 0 at level " + level);
+        if (equal) return new Table(n, null, null);
+
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            probability[i] = weights[i] * n / total;
+            if (probability[i] < 1.0) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            alias[less] = more;
+            probability[more] = (probability[more] + probability[less]) - 1.0;
+            if (probability[more] < 1.0) small[smallCount++] = more;
+            else large[largeCount++] = more;
+        }
+        // Whatever is left is 1 up to rounding
+        while (largeCount > 0) probability[large[--largeCount]] = 1.0;
+        while (smallCount > 0) probability[small[--smallCount]] = 1.0;
+        return new Table(n, probability, alias);
+    }
+
+    /**
+     * @return The catalog the tables draw indexes from.
+     */
+    public List<Monster> getTemplates() {
+        return templates;
+    }
+
+    /**
+     * @return The table for a spawn level.
+     */
+    public Table forLevel(int level) {
+        // A handful of bands at most: a scan beats a binary search
+        for (int band = bandStart.length - 1; band >= 0; band--) {
+            if (level >= bandStart[band]) return bandTables[band];
+        }
+        return uniform;
+    }
+}